@@ -28,6 +28,7 @@ import io.unityfoundation.dds.permissions.manager.model.action.PubSubEnum;
 import io.unityfoundation.dds.permissions.manager.model.action.dto.ActionDTO;
 import io.unityfoundation.dds.permissions.manager.model.action.dto.CreateActionDTO;
 import io.unityfoundation.dds.permissions.manager.model.action.dto.UpdateActionDTO;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -50,6 +51,13 @@ public class ActionController {
         return actionService.findAll(pageable, filter, grantId, pubsub);
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get("/cursor{?filter,grantId,pubsub,after,size}")
+    public CursorPage<ActionDTO> cursor(@Nullable String filter, @Nullable Long grantId, @Nullable PubSubEnum pubsub,
+                                        @Nullable String after, @QueryValue(defaultValue = "100") int size) {
+        return actionService.findAll(after, size, filter, grantId, pubsub);
+    }
+
     @Get("/{actionId}")
     @ExecuteOn(TaskExecutors.IO)
     public ActionDTO getById(@NotNull Long actionId) {
@@ -26,6 +26,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.unityfoundation.dds.permissions.manager.model.actioninterval.dto.CreateActionIntervalDTO;
 import io.unityfoundation.dds.permissions.manager.model.actioninterval.dto.ActionIntervalDTO;
 import io.unityfoundation.dds.permissions.manager.model.actioninterval.ActionIntervalService;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -47,6 +48,13 @@ public class ActionIntervalController {
         return actionIntervalService.findAll(pageable, filter, group);
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get("/cursor{?filter,group,after,size}")
+    public CursorPage<ActionIntervalDTO> cursor(@Nullable String filter, @Nullable Long group,
+                                                @Nullable String after, @QueryValue(defaultValue = "100") int size) {
+        return actionIntervalService.findAll(after, size, filter, group);
+    }
+
     @Get("/{actionIntervalId}")
     @ExecuteOn(TaskExecutors.IO)
     public ActionIntervalDTO getById(@NotNull Long actionIntervalId) {
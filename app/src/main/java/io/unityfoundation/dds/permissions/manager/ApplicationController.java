@@ -17,6 +17,7 @@ import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.*;
@@ -33,6 +34,10 @@ import io.unityfoundation.dds.permissions.manager.exception.DPMErrorResponse;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
 import io.unityfoundation.dds.permissions.manager.model.application.ApplicationDTO;
 import io.unityfoundation.dds.permissions.manager.model.application.ApplicationService;
+import io.unityfoundation.dds.permissions.manager.model.application.ClientCertificateBatchIssuer;
+import io.unityfoundation.dds.permissions.manager.model.application.GrantTokenBatchIssuer;
+import io.unityfoundation.dds.permissions.manager.model.application.PermissionsFileExporter;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
 import org.bouncycastle.mail.smime.SMIMEException;
 import org.bouncycastle.operator.OperatorCreationException;
 
@@ -41,6 +46,8 @@ import javax.validation.Valid;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import static io.unityfoundation.dds.permissions.manager.model.application.ApplicationService.E_TAG_HEADER_NAME;
 
@@ -50,9 +57,16 @@ import static io.unityfoundation.dds.permissions.manager.model.application.Appli
 public class ApplicationController {
 
     private final ApplicationService applicationService;
+    private final ClientCertificateBatchIssuer clientCertificateBatchIssuer;
+    private final PermissionsFileExporter permissionsFileExporter;
+    private final GrantTokenBatchIssuer grantTokenBatchIssuer;
 
-    public ApplicationController(ApplicationService applicationService) {
+    public ApplicationController(ApplicationService applicationService, ClientCertificateBatchIssuer clientCertificateBatchIssuer,
+                                 PermissionsFileExporter permissionsFileExporter, GrantTokenBatchIssuer grantTokenBatchIssuer) {
         this.applicationService = applicationService;
+        this.clientCertificateBatchIssuer = clientCertificateBatchIssuer;
+        this.permissionsFileExporter = permissionsFileExporter;
+        this.grantTokenBatchIssuer = grantTokenBatchIssuer;
     }
 
     @Get("{?filter,group,applicationId}")
@@ -60,6 +74,13 @@ public class ApplicationController {
         return applicationService.findAll(pageable, filter, applicationId, group);
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get("/cursor{?filter,group,applicationId,after,size}")
+    public CursorPage<ApplicationDTO> cursor(@Nullable String filter, @Nullable Long group, @Nullable Long applicationId,
+                                             @Nullable String after, @QueryValue(defaultValue = "100") int size) {
+        return applicationService.findAll(after, size, filter, applicationId, group);
+    }
+
     @Get("/show/{id}")
     @ApiResponse(
             responseCode = "200",
@@ -108,6 +129,20 @@ public class ApplicationController {
         return applicationService.generateGrantToken(applicationId);
     }
 
+    @Post("/generate_grant_tokens")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @ApiResponse(responseCode = "200", description = "The application id and grant token of every requested application, in request order.")
+    @ApiResponse(responseCode = "401", description = "Not authorized.",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = DPMErrorResponse.class)))
+    )
+    @ApiResponse(responseCode = "404", description = "Application not found.",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = DPMErrorResponse.class)))
+    )
+    @ExecuteOn(TaskExecutors.IO)
+    public HttpResponse<?> generateGrantTokens(@Body List<Long> applicationIds) throws IOException, InterruptedException, ExecutionException {
+        return grantTokenBatchIssuer.issue(applicationIds);
+    }
+
     @Get("/generate_passphrase/{application}")
     @Produces(MediaType.TEXT_PLAIN)
     @ExecuteOn(TaskExecutors.IO)
@@ -147,13 +182,44 @@ public class ApplicationController {
         return applicationService.getApplicationPrivateKeyAndClientCertificate(nonce);
     }
 
+    @Post("/key_pairs/{applicationId}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(ClientCertificateBatchIssuer.NDJSON_TYPE)
+    @ApiResponse(responseCode = "200", description = "One JSON object per line with the nonce and its private key and certificate.",
+            content = @Content(mediaType = ClientCertificateBatchIssuer.NDJSON_TYPE))
+    @ApiResponse(responseCode = "4xx", description = "Bad Request.",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = DPMErrorResponse.class)))
+    )
+    @ExecuteOn(TaskExecutors.IO)
+    public HttpResponse<?> issueKeyPairs(@NonNull Long applicationId, @Body List<String> nonces) throws IOException, GeneralSecurityException {
+        if (nonces != null) {
+            nonces.forEach(this::checkNonceValidFormat);
+        }
+        return clientCertificateBatchIssuer.issue(applicationId, nonces);
+    }
+
     @Get("/permissions.xml.p7s{?nonce}")
     @Produces(MediaType.TEXT_PLAIN)
     @Secured("APPLICATION")
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<?> getPermissionsFile(@Nullable String nonce) throws IOException, OperatorCreationException, GeneralSecurityException, MessagingException, SMIMEException {
+    public HttpResponse<?> getPermissionsFile(@Nullable String nonce,
+                                              @Nullable @Header(E_TAG_HEADER_NAME) String etag,
+                                              @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) throws IOException, OperatorCreationException, GeneralSecurityException, MessagingException, SMIMEException {
+        checkNonceValidFormat(nonce);
+        return applicationService.getPermissionsFile(nonce, ifNoneMatch != null ? ifNoneMatch : etag);
+    }
+
+    @Get("/permissions_export/{groupId}{?nonce}")
+    @Produces(PermissionsFileExporter.ZIP_TYPE)
+    @ApiResponse(responseCode = "200", description = "A zip archive with one permissions.xml.p7s per application of the group.",
+            content = @Content(mediaType = PermissionsFileExporter.ZIP_TYPE))
+    @ApiResponse(responseCode = "4xx", description = "Bad Request.",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = DPMErrorResponse.class)))
+    )
+    @ExecuteOn(TaskExecutors.IO)
+    public HttpResponse<?> exportPermissionsFiles(@NonNull Long groupId, @Nullable String nonce) throws IOException, GeneralSecurityException {
         checkNonceValidFormat(nonce);
-        return applicationService.getPermissionsFile(nonce);
+        return permissionsFileExporter.export(groupId, nonce);
     }
 
     @Get("/permissions.json")
@@ -28,6 +28,7 @@ import io.unityfoundation.dds.permissions.manager.model.applicationgrant.dto.Gra
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantService;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.dto.CreateGrantDTO;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.dto.UpdateGrantDTO;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
 import org.reactivestreams.Publisher;
 
 import javax.validation.Valid;
@@ -52,6 +53,13 @@ public class ApplicationGrantController {
         return applicationGrantService.findAll(pageable, filter, group);
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get("/cursor{?filter,group,after,size}")
+    public CursorPage<GrantDTO> cursor(@Nullable String filter, @Nullable Long group,
+                                       @Nullable String after, @QueryValue(defaultValue = "100") int size) {
+        return applicationGrantService.findAll(after, size, filter, group);
+    }
+
     @Get("/application/{applicationId}")
     @ExecuteOn(TaskExecutors.IO)
     public Page<DetailedGrantDTO> indexByApplicationId(@Valid Pageable pageable, @NotNull Long applicationId) {
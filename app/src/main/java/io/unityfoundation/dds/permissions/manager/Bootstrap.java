@@ -32,6 +32,7 @@ import io.unityfoundation.dds.permissions.manager.model.topic.TopicKind;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrant;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
 import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
+import io.unityfoundation.dds.permissions.manager.search.SearchIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,13 +54,15 @@ public class Bootstrap {
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
     private final GroupUserRepository groupUserRepository;
+    private final SearchIndex searchIndex;
     private static final Logger LOG = LoggerFactory.getLogger(Bootstrap.class);
 
     public Bootstrap(UserRepository userRepository, GroupRepository groupRepository,
-            GroupUserRepository groupUserRepository) {
+            GroupUserRepository groupUserRepository, SearchIndex searchIndex) {
         this.userRepository = userRepository;
         this.groupRepository = groupRepository;
         this.groupUserRepository = groupUserRepository;
+        this.searchIndex = searchIndex;
     }
 
     @EventListener
@@ -166,6 +169,7 @@ public class Bootstrap {
                     groupRepository.update(group);
                 });
             }
+            searchIndex.invalidateAll();
         }
     }
 
@@ -26,6 +26,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.unityfoundation.dds.permissions.manager.model.grantduration.GrantDurationService;
 import io.unityfoundation.dds.permissions.manager.model.grantduration.dto.CreateGrantDurationDTO;
 import io.unityfoundation.dds.permissions.manager.model.grantduration.dto.GrantDurationDTO;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -47,6 +48,13 @@ public class GrantDurationController {
         return grantDurationService.findAll(pageable, filter, group);
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get("/cursor{?filter,group,after,size}")
+    public CursorPage<GrantDurationDTO> cursor(@Nullable String filter, @Nullable Long group,
+                                               @Nullable String after, @QueryValue(defaultValue = "100") int size) {
+        return grantDurationService.findAll(after, size, filter, group);
+    }
+
     @Get("/{durationId}")
     @ExecuteOn(TaskExecutors.IO)
     public GrantDurationDTO getById(@NotNull Long durationId) {
@@ -31,6 +31,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.unityfoundation.dds.permissions.manager.exception.DPMErrorResponse;
 import io.unityfoundation.dds.permissions.manager.model.group.*;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
 import io.unityfoundation.dds.permissions.manager.security.UserIsAdmin;
 
 import javax.validation.Valid;
@@ -52,6 +53,13 @@ public class GroupController {
         return groupService.findAll(pageable, filter);
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get("/cursor{?filter,after,size}")
+    public CursorPage<DetailedGroupDTO> cursor(@Nullable String filter,
+                                               @Nullable String after, @QueryValue(defaultValue = "100") int size) {
+        return groupService.findAll(after, size, filter);
+    }
+
     @Get("/search/{text}{?role}")
     @ExecuteOn(TaskExecutors.IO)
     public Page<SimpleGroupDTO> search(@NonNull String text, @Nullable GroupAdminRole role, @Valid Pageable pageable) {
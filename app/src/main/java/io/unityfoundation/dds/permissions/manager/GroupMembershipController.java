@@ -32,6 +32,7 @@ import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUser;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserDTO;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserResponseDTO;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
 
 import javax.validation.Valid;
 import java.util.Map;
@@ -53,6 +54,13 @@ public class GroupMembershipController {
         return groupUserService.findAll(pageable, filter, group);
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get("/cursor{?filter,group,after,size}")
+    public CursorPage<GroupUserResponseDTO> cursor(@Nullable String filter, @Nullable Long group,
+                                                   @Nullable String after, @QueryValue(defaultValue = "100") int size) {
+        return groupUserService.findAll(after, size, filter, group);
+    }
+
     @Post
     @ExecuteOn(TaskExecutors.IO)
     @ApiResponse(
@@ -17,6 +17,10 @@ public interface ResponseStatusCodes {
     // generic
     String UNAUTHORIZED = "unauthorized";
 
+    // paging
+    String INVALID_CURSOR = "paging.invalid-cursor";
+    String INVALID_PAGE_SIZE = "paging.invalid-size";
+
     // email
     String INVALID_EMAIL_FORMAT = "email.is-not-format";
     String EMAIL_CANNOT_BE_BLANK_OR_NULL = "email.cannot-be-blank-or-null";
@@ -49,6 +53,11 @@ public interface ResponseStatusCodes {
     String IDENTITY_CERT_NOT_FOUND = "application.identity-ca-cert.not-found";
     String PERMISSIONS_CERT_NOT_FOUND = "application.permissions-ca-cert.not-found";
     String GOVERNANCE_FILE_NOT_FOUND = "application.governance-file.not-found";
+    String APPLICATION_KEY_PAIRS_REQUIRE_NONCES = "application.key-pairs.require-nonces";
+    String APPLICATION_KEY_PAIRS_TOO_MANY_NONCES = "application.key-pairs.too-many-nonces";
+    String APPLICATION_PASSPHRASE_VERIFICATION_BUSY = "application.passphrase.verification-busy";
+    String APPLICATION_GRANT_TOKENS_REQUIRE_APPLICATIONS = "application.grant-tokens.require-applications";
+    String APPLICATION_GRANT_TOKENS_TOO_MANY_APPLICATIONS = "application.grant-tokens.too-many-applications";
 
     // topic
     String TOPIC_NOT_FOUND = "topic.not-found";
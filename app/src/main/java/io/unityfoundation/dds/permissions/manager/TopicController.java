@@ -32,6 +32,7 @@ import io.unityfoundation.dds.permissions.manager.exception.DPMErrorResponse;
 import io.unityfoundation.dds.permissions.manager.model.topic.TopicDTO;
 import io.unityfoundation.dds.permissions.manager.model.topic.TopicKind;
 import io.unityfoundation.dds.permissions.manager.model.topic.TopicService;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
 
 import javax.validation.Valid;
 
@@ -51,6 +52,13 @@ public class TopicController {
         return topicService.findAll(pageable, filter, group);
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get("/cursor{?filter,group,after,size}")
+    public CursorPage<TopicDTO> cursor(@Nullable String filter, @Nullable Long group,
+                                       @Nullable String after, @QueryValue(defaultValue = "100") int size) {
+        return topicService.findAll(after, size, filter, group);
+    }
+
     @Get("/kinds")
     public HttpResponse<TopicKind[]> getKinds() {
         return HttpResponse.ok(TopicKind.values());
@@ -27,6 +27,7 @@ import io.unityfoundation.dds.permissions.manager.model.topicset.TopicSetService
 import io.unityfoundation.dds.permissions.manager.model.topicset.dto.CreateTopicSetDTO;
 import io.unityfoundation.dds.permissions.manager.model.topicset.dto.TopicSetDTO;
 import io.unityfoundation.dds.permissions.manager.model.topicset.dto.UpdateTopicSetDTO;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -48,6 +49,13 @@ public class TopicSetController {
         return topicSetService.findAll(pageable, filter, group);
     }
 
+    @ExecuteOn(TaskExecutors.IO)
+    @Get("/cursor{?filter,group,after,size}")
+    public CursorPage<TopicSetDTO> cursor(@Nullable String filter, @Nullable Long group,
+                                          @Nullable String after, @QueryValue(defaultValue = "100") int size) {
+        return topicSetService.findAll(after, size, filter, group);
+    }
+
     @Get("/{topicSetId}")
     @ExecuteOn(TaskExecutors.IO)
     public TopicSetDTO getByTopicId(@NotNull Long topicSetId) {
@@ -13,9 +13,8 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.action;
 
+import io.micronaut.data.annotation.Join;
 import io.micronaut.data.annotation.Repository;
-import io.micronaut.data.model.Page;
-import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.PageableRepository;
 import io.unityfoundation.dds.permissions.manager.model.actioninterval.ActionInterval;
 
@@ -23,19 +22,11 @@ import java.util.List;
 
 @Repository
 public interface ActionRepository extends PageableRepository<Action, Long> {
-    Page<Action> findAllByCanPublishTrue(Pageable pageable);
-    Page<Action> findAllByCanPublishFalse(Pageable pageable);
-    Page<Action> findAllByApplicationGrantIdIn(List<Long> grantIds, Pageable pageable);
-    Page<Action> findAllByCanPublishTrueAndApplicationGrantIdIn(List<Long> grantIds, Pageable pageable);
-    Page<Action> findAllByCanPublishFalseAndApplicationGrantIdIn(List<Long> grantIds, Pageable pageable);
-    Page<Action> findAllByApplicationGrantNameContainsIgnoreCase(String grantName, Pageable pageable);
-    Page<Action> findAllByCanPublishTrueAndApplicationGrantNameContainsIgnoreCase(String filter, Pageable pageable);
-    Page<Action> findAllByCanPublishFalseAndApplicationGrantNameContainsIgnoreCase(String filter, Pageable pageable);
-    List<Long> findIdByApplicationGrantNameContainsIgnoreCase(String grantName);
-    List<Long> findIdByCanPublishTrueAndApplicationGrantNameContainsIgnoreCase(String filter);
-    List<Long> findIdByCanPublishFalseAndApplicationGrantNameContainsIgnoreCase(String filter);
-    Page<Action> findAllByIdInAndApplicationGrantIdIn(List<Long> grandDurationIds, List<Long> groupIds, Pageable pageable);
     List<Action> findAllByApplicationGrantId(Long applicationGrantId);
+    @Join("actionInterval")
+    @Join(value = "partitions", type = Join.Type.LEFT_FETCH)
+    @Join(value = "topicSets", type = Join.Type.LEFT_FETCH)
+    List<Action> findAllByApplicationGrantIdIn(List<Long> grantIds);
     boolean existsByActionInterval(ActionInterval actionInterval);
     Integer countByActionInterval(ActionInterval actionInterval);
 }
\ No newline at end of file
@@ -13,6 +13,7 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.action;
 
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpResponse;
@@ -27,6 +28,7 @@ import io.unityfoundation.dds.permissions.manager.model.actioninterval.ActionInt
 import io.unityfoundation.dds.permissions.manager.model.actioninterval.ActionIntervalRepository;
 import io.unityfoundation.dds.permissions.manager.model.actiontopic.ActionTopic;
 import io.unityfoundation.dds.permissions.manager.model.actiontopic.ActionTopicRepository;
+import io.unityfoundation.dds.permissions.manager.model.application.PermissionsChangedEvent;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrant;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantRepository;
 import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
@@ -36,7 +38,12 @@ import io.unityfoundation.dds.permissions.manager.model.topic.TopicRepository;
 import io.unityfoundation.dds.permissions.manager.model.topicset.TopicSet;
 import io.unityfoundation.dds.permissions.manager.model.topicset.TopicSetRepository;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
+import io.unityfoundation.dds.permissions.manager.paging.KeysetPager;
+import io.unityfoundation.dds.permissions.manager.paging.OffsetPager;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.util.AfterCommit;
 import jakarta.inject.Singleton;
 
 import javax.transaction.Transactional;
@@ -57,8 +64,11 @@ public class ActionService {
     private final ActionTopicRepository actionTopicRepository;
     private final SecurityUtil securityUtil;
     private final GroupUserService groupUserService;
+    private final ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher;
+    private final KeysetPager keysetPager;
+    private final OffsetPager offsetPager;
 
-    public ActionService(ActionRepository actionRepository, ApplicationGrantRepository applicationGrantRepository, ActionIntervalRepository actionIntervalRepository, TopicRepository topicRepository, TopicSetRepository topicSetRepository, ActionPartitionRepository actionPartitionRepository, GroupRepository groupRepository, ActionTopicRepository actionTopicRepository, SecurityUtil securityUtil, GroupUserService groupUserService) {
+    public ActionService(ActionRepository actionRepository, ApplicationGrantRepository applicationGrantRepository, ActionIntervalRepository actionIntervalRepository, TopicRepository topicRepository, TopicSetRepository topicSetRepository, ActionPartitionRepository actionPartitionRepository, GroupRepository groupRepository, ActionTopicRepository actionTopicRepository, SecurityUtil securityUtil, GroupUserService groupUserService, ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher, KeysetPager keysetPager, OffsetPager offsetPager) {
         this.actionRepository = actionRepository;
         this.applicationGrantRepository = applicationGrantRepository;
         this.actionIntervalRepository = actionIntervalRepository;
@@ -68,113 +78,35 @@ public class ActionService {
         this.actionTopicRepository = actionTopicRepository;
         this.securityUtil = securityUtil;
         this.groupUserService = groupUserService;
+        this.permissionsChangedEventPublisher = permissionsChangedEventPublisher;
+        this.keysetPager = keysetPager;
+        this.offsetPager = offsetPager;
     }
 
     public Page<ActionDTO> findAll(Pageable pageable, String filter, Long grantId, PubSubEnum pubSubEnum) {
         return getGrantDurationDTOPage(getActionPage(pageable, filter, grantId, pubSubEnum));
     }
 
-    private Page<Action> getActionPage(Pageable pageable, String filter, Long grantId, PubSubEnum pubSubEnum) {
-
-        // todo: there's a lot of conditionals here. Can be improved with a table-driven approach
-        List<Long> all;
-        if (securityUtil.isCurrentUserAdmin()) {
-            if (filter == null) {
-                if (grantId == null) {
-                    if (pubSubEnum == null) {
-                        return actionRepository.findAll(pageable);
-                    } else {
-                        if (pubSubEnum.equals(PubSubEnum.PUBLISH)) {
-                            return actionRepository.findAllByCanPublishTrue(pageable);
-                        } else {
-                            return actionRepository.findAllByCanPublishFalse(pageable);
-                        }
-                    }
-                }
-
-                if (pubSubEnum == null) {
-                    return actionRepository.findAllByApplicationGrantIdIn(List.of(grantId), pageable);
-                } else {
-                    if (pubSubEnum.equals(PubSubEnum.PUBLISH)) {
-                        return actionRepository.findAllByCanPublishTrueAndApplicationGrantIdIn(List.of(grantId), pageable);
-                    } else {
-                        return actionRepository.findAllByCanPublishFalseAndApplicationGrantIdIn(List.of(grantId), pageable);
-                    }
-                }
-            }
-
-            if (grantId == null) {
-                if (pubSubEnum == null) {
-                    return actionRepository.findAllByApplicationGrantNameContainsIgnoreCase(filter, pageable);
-                } else {
-                    if (pubSubEnum.equals(PubSubEnum.PUBLISH)) {
-                        return actionRepository.findAllByCanPublishTrueAndApplicationGrantNameContainsIgnoreCase(filter, pageable);
-                    } else {
-                        return actionRepository.findAllByCanPublishFalseAndApplicationGrantNameContainsIgnoreCase(filter, pageable);
-                    }
-                }
-            }
-
-            if (pubSubEnum == null) {
-                all = actionRepository.findIdByApplicationGrantNameContainsIgnoreCase(filter);
-            } else {
-                if (pubSubEnum.equals(PubSubEnum.PUBLISH)) {
-                    all = actionRepository.findIdByCanPublishTrueAndApplicationGrantNameContainsIgnoreCase(filter);
-                } else {
-                    all = actionRepository.findIdByCanPublishFalseAndApplicationGrantNameContainsIgnoreCase(filter);
-                }
-            }
-
-            return actionRepository.findAllByIdInAndApplicationGrantIdIn(all, List.of(grantId), pageable);
-        } else {
-            User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-
-            List<Long> groups = groupUserService.getAllGroupsUserIsAMemberOf(user.getId());
-            if (groups.isEmpty()) {
-                return Page.empty();
-            }
-
-            List<Long> userAccessibleGrants = applicationGrantRepository.findIdByPermissionsGroupIdIn(groups);
-            if (userAccessibleGrants.isEmpty()) {
-                return Page.empty();
-            }
-
-            if (groups.isEmpty() || (grantId != null && !userAccessibleGrants.contains(grantId))) {
-                return Page.empty();
-            }
-
-            if (grantId != null) {
-                // implies grantId exists in member's accessible grants
-                userAccessibleGrants = List.of(grantId);
-            }
-
-            if (filter == null) {
-                if (pubSubEnum == null) {
-                    return actionRepository.findAllByApplicationGrantIdIn(userAccessibleGrants, pageable);
-                } else {
-                    if (pubSubEnum.equals(PubSubEnum.PUBLISH)) {
-                        return actionRepository.findAllByCanPublishTrueAndApplicationGrantIdIn(userAccessibleGrants, pageable);
-                    } else {
-                        return actionRepository.findAllByCanPublishFalseAndApplicationGrantIdIn(userAccessibleGrants, pageable);
-                    }
-                }
-            }
+    public CursorPage<ActionDTO> findAll(String after, int size, String filter, Long grantId, PubSubEnum pubSubEnum) {
+        return keysetPager.find(Action.class, listSpecification(filter, grantId, pubSubEnum), List.of("id"), after, size).map(this::createDTO);
+    }
 
-            if (pubSubEnum == null) {
-                all = actionRepository.findIdByApplicationGrantNameContainsIgnoreCase(filter);
-            } else {
-                if (pubSubEnum.equals(PubSubEnum.PUBLISH)) {
-                    all = actionRepository.findIdByCanPublishTrueAndApplicationGrantNameContainsIgnoreCase(filter);
-                } else {
-                    all = actionRepository.findIdByCanPublishFalseAndApplicationGrantNameContainsIgnoreCase(filter);
-                }
-            }
-            if (all.isEmpty()) {
-                return Page.empty();
-            }
+    private Page<Action> getActionPage(Pageable pageable, String filter, Long grantId, PubSubEnum pubSubEnum) {
+        return offsetPager.find(Action.class, listSpecification(filter, grantId, pubSubEnum), pageable);
+    }
 
-            return actionRepository.findAllByIdInAndApplicationGrantIdIn(all, userAccessibleGrants, pageable);
+    private Specification<Action> listSpecification(String filter, Long grantId, PubSubEnum pubSubEnum) {
+        Specification<Action> where = groupUserService.readableGroupScope("applicationGrant.permissionsGroup.id", null);
+        if (grantId != null) {
+            where = where.and(Specification.equal("applicationGrant.id", grantId));
         }
+        if (pubSubEnum != null) {
+            where = where.and(Specification.equal("canPublish", pubSubEnum.equals(PubSubEnum.PUBLISH)));
+        }
+        if (filter != null) {
+            where = where.and(Specification.containsIgnoreCase(filter, "applicationGrant.name"));
+        }
+        return where;
     }
 
     private Page<ActionDTO> getGrantDurationDTOPage(Page<Action> page) {
@@ -218,6 +150,7 @@ public class ActionService {
         newAction.setTopicSets(topicSets);
 
         Action updateAction = persistNewAction(createActionDTO.getPartitions(), topics, newAction);
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forApplication(applicationGrant.getPermissionsApplication().getId()));
         return HttpResponse.ok(createDTO(updateAction));
     }
 
@@ -252,6 +185,7 @@ public class ActionService {
         action.setTopicSets(topicSets);
 
         Action persistedAction = persistExistingAction(updateActionDTO, topics, action, actionOptional);
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forApplication(applicationGrant.getPermissionsApplication().getId()));
         return HttpResponse.ok(createDTO(persistedAction));
     }
 
@@ -272,7 +206,9 @@ public class ActionService {
 
         checkExistenceAndAdminAuthorization(actionOptional);
 
-        deleteAction(actionOptional.get());
+        Action action = actionOptional.get();
+        deleteAction(action);
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forApplication(action.getApplicationGrant().getPermissionsApplication().getId()));
         return HttpResponse.noContent();
     }
 
@@ -14,23 +14,13 @@
 package io.unityfoundation.dds.permissions.manager.model.actioninterval;
 
 import io.micronaut.data.annotation.Repository;
-import io.micronaut.data.model.Page;
-import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.PageableRepository;
 import io.unityfoundation.dds.permissions.manager.model.group.Group;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ActionIntervalRepository extends PageableRepository<ActionInterval, Long> {
-    Page<ActionInterval> findAllByPermissionsGroupIdIn(List<Long> groupIds, Pageable pageable);
-
-    Page<ActionInterval> findAllByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String name, String groupName, Pageable pageable);
-
-    List<Long> findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String name, String groupName);
-
-    Page<ActionInterval> findAllByIdInAndPermissionsGroupIdIn(List<Long> actionIntervalIds, List<Long> groupIds, Pageable pageable);
 
     Optional<ActionInterval> findByNameAndPermissionsGroup(String name, Group group);
 
@@ -13,6 +13,7 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.actioninterval;
 
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpResponse;
@@ -21,13 +22,19 @@ import io.micronaut.http.MutableHttpResponse;
 import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
 import io.unityfoundation.dds.permissions.manager.model.action.ActionRepository;
+import io.unityfoundation.dds.permissions.manager.model.application.PermissionsChangedEvent;
 import io.unityfoundation.dds.permissions.manager.model.actioninterval.dto.CreateActionIntervalDTO;
 import io.unityfoundation.dds.permissions.manager.model.actioninterval.dto.ActionIntervalDTO;
 import io.unityfoundation.dds.permissions.manager.model.group.Group;
 import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
+import io.unityfoundation.dds.permissions.manager.paging.KeysetPager;
+import io.unityfoundation.dds.permissions.manager.paging.OffsetPager;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.util.AfterCommit;
 import jakarta.inject.Singleton;
 
 import javax.validation.constraints.NotNull;
@@ -43,65 +50,43 @@ public class ActionIntervalService {
     private final ActionRepository actionRepository;
     private final SecurityUtil securityUtil;
     private final GroupUserService groupUserService;
+    private final ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher;
+    private final KeysetPager keysetPager;
+    private final OffsetPager offsetPager;
 
-    public ActionIntervalService(ActionIntervalRepository actionIntervalRepository, GroupRepository groupRepository, ActionRepository actionRepository, SecurityUtil securityUtil, GroupUserService groupUserService) {
+    public ActionIntervalService(ActionIntervalRepository actionIntervalRepository, GroupRepository groupRepository, ActionRepository actionRepository, SecurityUtil securityUtil, GroupUserService groupUserService, ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher, KeysetPager keysetPager, OffsetPager offsetPager) {
         this.actionIntervalRepository = actionIntervalRepository;
         this.groupRepository = groupRepository;
         this.actionRepository = actionRepository;
         this.securityUtil = securityUtil;
         this.groupUserService = groupUserService;
+        this.permissionsChangedEventPublisher = permissionsChangedEventPublisher;
+        this.keysetPager = keysetPager;
+        this.offsetPager = offsetPager;
     }
 
     public Page<ActionIntervalDTO> findAll(Pageable pageable, String filter, Long groupId) {
         return getActionIntervalDTOPage(getActionIntervalPage(pageable, filter, groupId));
     }
 
-    private Page<ActionInterval> getActionIntervalPage(Pageable pageable, String filter, Long groupId) {
+    public CursorPage<ActionIntervalDTO> findAll(String after, int size, String filter, Long groupId) {
+        return keysetPager.find(ActionInterval.class, listSpecification(filter, groupId), List.of("name", "permissionsGroup.name", "id"), after, size).map(this::createDTO);
+    }
 
+    private Page<ActionInterval> getActionIntervalPage(Pageable pageable, String filter, Long groupId) {
         if(!pageable.isSorted()) {
             pageable = pageable.order("name").order("permissionsGroup.name");
         }
 
-        List<Long> all;
-        if (securityUtil.isCurrentUserAdmin()) {
-            if (filter == null) {
-                if (groupId == null) {
-                    return actionIntervalRepository.findAll(pageable);
-                }
-                return actionIntervalRepository.findAllByPermissionsGroupIdIn(List.of(groupId), pageable);
-            }
-
-            if (groupId == null) {
-                return actionIntervalRepository.findAllByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, pageable);
-            }
-
-            all = actionIntervalRepository.findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter);
-
-            return actionIntervalRepository.findAllByIdInAndPermissionsGroupIdIn(all, List.of(groupId), pageable);
-        } else {
-            User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-            List<Long> groups = groupUserService.getAllGroupsUserIsAMemberOf(user.getId());
-
-            if (groups.isEmpty() || (groupId != null && !groups.contains(groupId))) {
-                return Page.empty();
-            }
-
-            if (groupId != null) {
-                // implies groupId exists in member's groups
-                groups = List.of(groupId);
-            }
-
-            if (filter == null) {
-                return actionIntervalRepository.findAllByPermissionsGroupIdIn(groups, pageable);
-            }
-
-            all = actionIntervalRepository.findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter);
-            if (all.isEmpty()) {
-                return Page.empty();
-            }
+        return offsetPager.find(ActionInterval.class, listSpecification(filter, groupId), pageable);
+    }
 
-            return actionIntervalRepository.findAllByIdInAndPermissionsGroupIdIn(all, groups, pageable);
+    private Specification<ActionInterval> listSpecification(String filter, Long groupId) {
+        Specification<ActionInterval> where = groupUserService.readableGroupScope("permissionsGroup.id", groupId);
+        if (filter != null) {
+            where = where.and(Specification.containsIgnoreCase(filter, "name", "permissionsGroup.name"));
         }
+        return where;
     }
 
     private Page<ActionIntervalDTO> getActionIntervalDTOPage(Page<ActionInterval> page) {
@@ -144,6 +129,7 @@ public class ActionIntervalService {
         newActionInterval.setEndDate(actionIntervalDTO.getEndDate());
 
         ActionIntervalDTO responseTopicDTO = createDTO(actionIntervalRepository.save(newActionInterval));
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forGroup(newActionInterval.getPermissionsGroup().getId()));
         return HttpResponse.ok(responseTopicDTO);
     }
 
@@ -174,6 +160,7 @@ public class ActionIntervalService {
         actionInterval.setEndDate(actionIntervalDTO.getEndDate());
 
         ActionIntervalDTO dto = createDTO(actionIntervalRepository.update(actionInterval));
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forGroup(actionInterval.getPermissionsGroup().getId()));
         return HttpResponse.ok(dto);
     }
 
@@ -188,6 +175,7 @@ public class ActionIntervalService {
         }
 
         actionIntervalRepository.delete(actionIntervalOptional.get());
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forGroup(actionIntervalOptional.get().getPermissionsGroup().getId()));
         return HttpResponse.noContent();
     }
 
@@ -13,6 +13,7 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.actiontopic;
 
+import io.micronaut.data.annotation.Join;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.repository.PageableRepository;
 import io.unityfoundation.dds.permissions.manager.model.action.Action;
@@ -26,4 +27,6 @@ public interface ActionTopicRepository extends PageableRepository<ActionTopic, L
     void deleteByPermissionsActionId(Long actionId);
     List<Topic> findPermissionsTopicByPermissionsAction(Action action);
     void deleteByPermissionsActionIdIn(List<Long> actionIds);
+    @Join("permissionsTopic")
+    List<ActionTopic> findAllByPermissionsActionIdIn(List<Long> actionIds);
 }
\ No newline at end of file
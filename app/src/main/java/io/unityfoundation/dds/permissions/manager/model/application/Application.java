@@ -52,6 +52,9 @@ public class Application {
     @DateUpdated
     private Instant dateUpdated;
 
+    @Nullable
+    private Long permissionsLastUpdated;
+
     @ManyToOne
     @JoinColumn(name = "permissions_group_id", nullable = false)
     private Group permissionsGroup;
@@ -148,4 +151,13 @@ public class Application {
     public void setDateUpdated(Instant dateUpdated) {
         this.dateUpdated = dateUpdated;
     }
+
+    @Nullable
+    public Long getPermissionsLastUpdated() {
+        return permissionsLastUpdated;
+    }
+
+    public void setPermissionsLastUpdated(@Nullable Long permissionsLastUpdated) {
+        this.permissionsLastUpdated = permissionsLastUpdated;
+    }
 }
@@ -14,14 +14,18 @@
 package io.unityfoundation.dds.permissions.manager.model.application;
 
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.data.annotation.Join;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.PageableRepository;
 import io.unityfoundation.dds.permissions.manager.model.group.Group;
+import io.unityfoundation.dds.permissions.manager.search.SearchDocument;
 
+import javax.transaction.Transactional;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,31 +34,41 @@ public interface ApplicationRepository extends PageableRepository<Application, L
     @NonNull
     Optional<Application> findByNameAndPermissionsGroup(@NotNull @NonNull String name, @NotNull @NonNull Group group);
 
-    Page<Application> findByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String application, String applicationDescription, String group, Pageable page);
-
     Optional<Application> findByNameEquals(@NotBlank String name);
 
-    Page<Application> findById(Long id, Pageable pageable);
-
-    Page<Application> findAllByPermissionsGroupIdIn(List<Long> groups, Pageable pageable);
-
-    List<Long> findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String application, String applicationDescription, String group);
+    List<Long> findIdByPermissionsGroupIdIn(List<Long> groups);
+    List<Long> findIdByPermissionsGroupId(Long groupId);
+    List<Application> findAllByPermissionsGroupId(Long groupId);
 
-    Page<Application> findAllByIdInAndPermissionsGroupIdIn(List<Long> all, List<Long> groups, Pageable pageable);
+    @Join(value = "permissionsGroup", type = Join.Type.FETCH)
+    List<Application> findAllByIdIn(Collection<Long> ids);
 
-    List<Long> findIdByPermissionsGroupIdIn(List<Long> groups);
+    @Join(value = "permissionsGroup", type = Join.Type.FETCH)
+    List<Application> findAllByMakePublicTrueAndIdIn(Collection<Long> ids);
 
     Page<Application> findAllByMakePublicTrue(Pageable pageable);
 
     List<Application> findTop50ByMakePublicTrue();
 
-    List<Long> findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(String application, String applicationDescription);
+    List<SearchDocument> queryByMakePublicTrue();
+
+    @Join(value = "permissionsGroup", type = Join.Type.FETCH)
+    List<Application> findByMakePublicTrue(Pageable pageable);
+
+    @Join(value = "permissionsGroup", type = Join.Type.FETCH)
+    List<Application> findByMakePublicTrueAndNameAndIdGreaterThan(String name, Long id, Pageable pageable);
+
+    @Join(value = "permissionsGroup", type = Join.Type.FETCH)
+    List<Application> findByMakePublicTrueAndNameGreaterThan(String name, Pageable pageable);
+
+    long countByMakePublicTrue();
 
     Page<Application> findByMakePublicTrueAndIdIn(List<Long> entityIds, Pageable pageable);
 
     List<Application> findTop50ByMakePublicTrueAndIdIn(List<Long> entityIds);
 
-    Page<Application> findByIdAndPermissionsGroupId(Long applicationId, Long groupId, Pageable pageable);
-
-    Page<Application> findByIdAndPermissionsGroupIdIn(Long applicationId, List<Long> groups, Pageable pageable);
+    // called after the changing transaction committed, while its resources may still be bound to the thread;
+    // joining them would leave the update uncommitted
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    long updateByIdIn(List<Long> id, Long permissionsLastUpdated);
 }
\ No newline at end of file
@@ -15,6 +15,8 @@ package io.unityfoundation.dds.permissions.manager.model.application;
 
 import com.nimbusds.jwt.JWTClaimsSet;
 import io.micronaut.context.annotation.Property;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.runtime.event.annotation.EventListener;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpResponse;
@@ -26,11 +28,13 @@ import io.micronaut.security.token.jwt.generator.claims.JWTClaimsSetGenerator;
 import io.micronaut.security.token.jwt.validator.AuthenticationJWTClaimsSetAdapter;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
 import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
+import io.unityfoundation.dds.permissions.manager.model.DPMEntity;
 import io.unityfoundation.dds.permissions.manager.model.action.Action;
 import io.unityfoundation.dds.permissions.manager.model.action.ActionPartition;
-import io.unityfoundation.dds.permissions.manager.model.action.ActionService;
-import io.unityfoundation.dds.permissions.manager.model.actiontopic.ActionTopicRepository;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrant;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantGraph;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantGraphLoader;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantRepository;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantService;
 import io.unityfoundation.dds.permissions.manager.model.applicationpermission.ApplicationPermissionService;
 import io.unityfoundation.dds.permissions.manager.model.grantduration.GrantDuration;
@@ -38,14 +42,21 @@ import io.unityfoundation.dds.permissions.manager.model.group.Group;
 import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
 import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
-import io.unityfoundation.dds.permissions.manager.model.topicset.TopicSet;
-import io.unityfoundation.dds.permissions.manager.model.topicsettopic.TopicSetTopicRepository;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
 import io.unityfoundation.dds.permissions.manager.model.user.UserRole;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
+import io.unityfoundation.dds.permissions.manager.paging.KeysetPager;
+import io.unityfoundation.dds.permissions.manager.paging.OffsetPager;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
+import io.unityfoundation.dds.permissions.manager.search.SearchIndex;
 import io.unityfoundation.dds.permissions.manager.security.ApplicationSecretsClient;
 import io.unityfoundation.dds.permissions.manager.security.BCryptPasswordEncoderService;
+import io.unityfoundation.dds.permissions.manager.security.CertificateAuthorityKeys;
+import io.unityfoundation.dds.permissions.manager.security.KeyPairPool;
 import io.unityfoundation.dds.permissions.manager.security.PassphraseGenerator;
+import io.unityfoundation.dds.permissions.manager.security.PassphraseVerifier;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.util.AfterCommit;
 import io.unityfoundation.dds.permissions.manager.util.XMLEscaper;
 import jakarta.inject.Singleton;
 import org.bouncycastle.asn1.ASN1EncodableVector;
@@ -63,7 +74,6 @@ import org.bouncycastle.asn1.x500.style.RFC4519Style;
 import org.bouncycastle.asn1.x509.BasicConstraints;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.cert.CertIOException;
-import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cert.X509v3CertificateBuilder;
 import org.bouncycastle.cert.jcajce.JcaCertStore;
 import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
@@ -72,15 +82,16 @@ import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
 import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
 import org.bouncycastle.mail.smime.SMIMEException;
 import org.bouncycastle.mail.smime.SMIMESignedGenerator;
-import org.bouncycastle.openssl.PEMKeyPair;
-import org.bouncycastle.openssl.PEMParser;
-import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
 import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
 import org.bouncycastle.openssl.jcajce.JcaPKCS8Generator;
 import org.bouncycastle.operator.OperatorCreationException;
 import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.bouncycastle.util.Store;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.activation.DataHandler;
+import javax.activation.DataSource;
 import javax.mail.MessagingException;
 import javax.mail.Session;
 import javax.mail.internet.MimeBodyPart;
@@ -89,19 +100,19 @@ import javax.mail.internet.MimeMessage;
 import javax.xml.bind.DatatypeConverter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.StringWriter;
 import java.math.BigInteger;
 import java.net.URI;
 import java.security.*;
-import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -111,6 +122,8 @@ import static io.unityfoundation.dds.permissions.manager.security.ApplicationSec
 public class ApplicationService {
 
     public static final String E_TAG_HEADER_NAME = "ETag";
+    private static final AtomicLong lastSerialNumber = new AtomicLong();
+    private static final Logger LOG = LoggerFactory.getLogger(ApplicationService.class);
 
     @Property(name = "permissions-manager.application.client-certificate.time-expiry", defaultValue = "365")
     protected Long certExpiry;
@@ -120,45 +133,63 @@ public class ApplicationService {
     protected Integer appGrantTokenExpiry;
     private final ApplicationRepository applicationRepository;
     private final GroupRepository groupRepository;
-    private final ActionTopicRepository actionTopicRepository;
-    private final TopicSetTopicRepository topicSetTopicRepository;
     private final SecurityUtil securityUtil;
     private final GroupUserService groupUserService;
     private final ApplicationPermissionService applicationPermissionService;
     private final ApplicationGrantService applicationGrantService;
-    private final ActionService actionService;
+    private final ApplicationGrantGraphLoader applicationGrantGraphLoader;
+    private final ApplicationGrantRepository applicationGrantRepository;
     private final PassphraseGenerator passphraseGenerator;
     private final BCryptPasswordEncoderService passwordEncoderService;
+    private final PassphraseVerifier passphraseVerifier;
     private final ApplicationSecretsClient applicationSecretsClient;
-    private final TemplateService templateService;
+    private final PermissionsXmlWriter permissionsXmlWriter;
     private final JwtTokenGenerator jwtTokenGenerator;
     private final JWTClaimsSetGenerator jwtClaimsSetGenerator;
     private final XMLEscaper xmlEscaper;
     private final OnUpdateApplicationWebSocket onUpdateApplicationWebSocket;
-
-
-    public ApplicationService(ApplicationRepository applicationRepository, GroupRepository groupRepository, ActionTopicRepository actionTopicRepository, TopicSetTopicRepository topicSetTopicRepository, ApplicationPermissionService applicationPermissionService,
-                              SecurityUtil securityUtil, GroupUserService groupUserService, ApplicationGrantService applicationGrantService, ActionService actionService, PassphraseGenerator passphraseGenerator,
-                              BCryptPasswordEncoderService passwordEncoderService, ApplicationSecretsClient applicationSecretsClient,
-                              TemplateService templateService, JwtTokenGenerator jwtTokenGenerator,
-                              JWTClaimsSetGenerator jwtClaimsSetGenerator, XMLEscaper xmlEscaper, OnUpdateApplicationWebSocket onUpdateApplicationWebSocket) {
+    private final PermissionsFileCache permissionsFileCache;
+    private final CertificateAuthorityKeys certificateAuthorityKeys;
+    private final KeyPairPool keyPairPool;
+    private final ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher;
+    private final SearchIndex searchIndex;
+    private final KeysetPager keysetPager;
+    private final OffsetPager offsetPager;
+
+
+    public ApplicationService(ApplicationRepository applicationRepository, GroupRepository groupRepository, ApplicationPermissionService applicationPermissionService,
+                              SecurityUtil securityUtil, GroupUserService groupUserService, ApplicationGrantService applicationGrantService, ApplicationGrantGraphLoader applicationGrantGraphLoader,
+                              ApplicationGrantRepository applicationGrantRepository, PassphraseGenerator passphraseGenerator,
+                              BCryptPasswordEncoderService passwordEncoderService, PassphraseVerifier passphraseVerifier,
+                              ApplicationSecretsClient applicationSecretsClient,
+                              PermissionsXmlWriter permissionsXmlWriter, JwtTokenGenerator jwtTokenGenerator,
+                              JWTClaimsSetGenerator jwtClaimsSetGenerator, XMLEscaper xmlEscaper, OnUpdateApplicationWebSocket onUpdateApplicationWebSocket,
+                              PermissionsFileCache permissionsFileCache, CertificateAuthorityKeys certificateAuthorityKeys, KeyPairPool keyPairPool,
+                              ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher, SearchIndex searchIndex, KeysetPager keysetPager, OffsetPager offsetPager) {
         this.applicationRepository = applicationRepository;
         this.groupRepository = groupRepository;
-        this.actionTopicRepository = actionTopicRepository;
-        this.topicSetTopicRepository = topicSetTopicRepository;
         this.securityUtil = securityUtil;
         this.groupUserService = groupUserService;
         this.applicationPermissionService = applicationPermissionService;
         this.applicationGrantService = applicationGrantService;
-        this.actionService = actionService;
+        this.applicationGrantGraphLoader = applicationGrantGraphLoader;
+        this.applicationGrantRepository = applicationGrantRepository;
         this.passphraseGenerator = passphraseGenerator;
         this.passwordEncoderService = passwordEncoderService;
+        this.passphraseVerifier = passphraseVerifier;
         this.applicationSecretsClient = applicationSecretsClient;
-        this.templateService = templateService;
+        this.permissionsXmlWriter = permissionsXmlWriter;
         this.jwtTokenGenerator = jwtTokenGenerator;
         this.jwtClaimsSetGenerator = jwtClaimsSetGenerator;
         this.xmlEscaper = xmlEscaper;
         this.onUpdateApplicationWebSocket = onUpdateApplicationWebSocket;
+        this.permissionsFileCache = permissionsFileCache;
+        this.certificateAuthorityKeys = certificateAuthorityKeys;
+        this.keyPairPool = keyPairPool;
+        this.permissionsChangedEventPublisher = permissionsChangedEventPublisher;
+        this.searchIndex = searchIndex;
+        this.keysetPager = keysetPager;
+        this.offsetPager = offsetPager;
     }
 
     public Page<ApplicationDTO> findAll(Pageable pageable, String filter, Long applicationId, Long groupId) {
@@ -166,80 +197,22 @@ public class ApplicationService {
             pageable = pageable.order("name").order("permissionsGroup.name");
         }
 
-        if (applicationId != null) {
-            return getApplicationPage(pageable, applicationId, groupId).map(ApplicationDTO::new);
-        }
-
-        return getApplicationPage(pageable, filter, groupId).map(ApplicationDTO::new);
+        return offsetPager.find(Application.class, listSpecification(filter, applicationId, groupId), pageable).map(ApplicationDTO::new);
     }
 
-    private Page<Application> getApplicationPage(Pageable pageable, String filter, Long groupId) {
-        List<Long> all;
-        if (securityUtil.isCurrentUserAdmin()) {
-            if (filter == null) {
-                if (groupId == null) {
-                    return applicationRepository.findAll(pageable);
-                }
-                return applicationRepository.findAllByPermissionsGroupIdIn(List.of(groupId), pageable);
-            }
-
-            if (groupId == null) {
-                return applicationRepository.findByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, filter, pageable);
-            }
-
-            all = applicationRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, filter);
-
-            return applicationRepository.findAllByIdInAndPermissionsGroupIdIn(all, List.of(groupId), pageable);
-        } else {
-            User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-            List<Long> groups = groupUserService.getAllGroupsUserIsAMemberOf(user.getId());
-
-            if (groups.isEmpty() || (groupId != null && !groups.contains(groupId))) {
-                return Page.empty();
-            }
-
-            if (groupId != null) {
-                // implies groupId exists in member's groups
-                groups = List.of(groupId);
-            }
-
-            if (filter == null) {
-                return applicationRepository.findAllByPermissionsGroupIdIn(groups, pageable);
-            }
-
-            all = applicationRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, filter);
-            if (all.isEmpty()) {
-                return Page.empty();
-            }
-
-            return applicationRepository.findAllByIdInAndPermissionsGroupIdIn(all, groups, pageable);
-        }
+    public CursorPage<ApplicationDTO> findAll(String after, int size, String filter, Long applicationId, Long groupId) {
+        return keysetPager.find(Application.class, listSpecification(filter, applicationId, groupId), List.of("name", "permissionsGroup.name", "id"), after, size).map(ApplicationDTO::new);
     }
 
-    private Page<Application> getApplicationPage(Pageable pageable, Long applicationId, Long groupId) {
-
-        List<Long> all;
-        if (securityUtil.isCurrentUserAdmin()) {
-            if (groupId == null) {
-                return applicationRepository.findById(applicationId, pageable);
-            }
-
-            return applicationRepository.findByIdAndPermissionsGroupId(applicationId, groupId, pageable);
-        } else {
-            User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-            List<Long> groups = groupUserService.getAllGroupsUserIsAMemberOf(user.getId());
-
-            if (groups.isEmpty() || (groupId != null && !groups.contains(groupId))) {
-                return Page.empty();
-            }
-
-            if (groupId != null) {
-                // implies groupId exists in member's groups
-                groups = List.of(groupId);
-            }
-
-            return applicationRepository.findByIdAndPermissionsGroupIdIn(applicationId, groups, pageable);
+    // an application id takes precedence over the text filter
+    private Specification<Application> listSpecification(String filter, Long applicationId, Long groupId) {
+        Specification<Application> where = groupUserService.readableGroupScope("permissionsGroup.id", groupId);
+        if (applicationId != null) {
+            where = where.and(Specification.equal("id", applicationId));
+        } else if (filter != null) {
+            where = where.and(Specification.containsIgnoreCase(filter, "name", "description", "permissionsGroup.name"));
         }
+        return where;
     }
 
     public MutableHttpResponse<?> save(ApplicationDTO applicationDTO) {
@@ -281,6 +254,8 @@ public class ApplicationService {
             application.setMakePublic(isPublic);
 
             Application update = applicationRepository.update(application);
+            searchIndex.index(update);
+            AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forApplication(update.getId()));
             onUpdateApplicationWebSocket.broadcastResourceEvent(OnUpdateApplicationWebSocket.APPLICATION_UPDATED, update.getId());
             return HttpResponse.ok(new ApplicationDTO(update));
         } else {
@@ -297,7 +272,9 @@ public class ApplicationService {
             application.setId(applicationDTO.getId());
             Group group = groupOptional.get();
             application.setPermissionsGroup(group);
-            return HttpResponse.ok(new ApplicationDTO(applicationRepository.save(application)));
+            Application saved = applicationRepository.save(application);
+            searchIndex.index(saved);
+            return HttpResponse.ok(new ApplicationDTO(saved));
         }
     }
 
@@ -330,6 +307,8 @@ public class ApplicationService {
         applicationGrantService.deleteAllByApplication(application);
 
         applicationRepository.deleteById(id);
+        searchIndex.remove(DPMEntity.APPLICATION, id);
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forApplication(id));
         onUpdateApplicationWebSocket.broadcastResourceEvent(OnUpdateApplicationWebSocket.APPLICATION_DELETED, id);
         return HttpResponse.seeOther(URI.create("/api/applications"));
     }
@@ -399,25 +378,21 @@ public class ApplicationService {
         return HttpResponse.ok(clearTextPassphrase);
     }
 
-    public AuthenticationResponse passwordMatches(Long applicationId, String rawPassword) {
+    public CompletableFuture<AuthenticationResponse> passwordMatches(Long applicationId, String rawPassword) {
         Optional<Application> applicationOptional = applicationRepository.findById(applicationId);
         if (applicationOptional.isEmpty()) {
             throw new DPMException(ResponseStatusCodes.APPLICATION_NOT_FOUND, HttpStatus.NOT_FOUND);
         }
         Application application = applicationOptional.get();
 
-        if (passwordEncoderService.matches(rawPassword, application.getEncryptedPassword())) {
-            return AuthenticationResponse.success(application.getId().toString(), List.of(UserRole.APPLICATION.toString()));
-        } else {
-            return AuthenticationResponse.failure("Invalid passphrase.");
-        }
+        return passphraseVerifier.verify(application.getId(), rawPassword, application.getEncryptedPassword())
+                .thenApply(matches -> matches ?
+                        AuthenticationResponse.success(application.getId().toString(), List.of(UserRole.APPLICATION.toString())) :
+                        AuthenticationResponse.failure("Invalid passphrase."));
     }
 
     public HttpResponse<?> getIdentityCACertificate(String requestEtag) {
         String etag = applicationSecretsClient.getCorrespondingEtag(IDENTITY_CA_CERT);
-        if (applicationSecretsClient.hasCachedFileBeenUpdated(IDENTITY_CA_CERT)) {
-            etag = applicationSecretsClient.getCorrespondingEtag(IDENTITY_CA_CERT);
-        }
         if (requestEtag != null && requestEtag.contentEquals(etag)) {
             return HttpResponse.notModified();
         }
@@ -434,9 +409,6 @@ public class ApplicationService {
 
     public HttpResponse<?> getPermissionsCACertificate(String requestEtag) {
         String etag = applicationSecretsClient.getCorrespondingEtag(PERMISSIONS_CA_CERT);
-        if (applicationSecretsClient.hasCachedFileBeenUpdated(PERMISSIONS_CA_CERT)) {
-            etag = applicationSecretsClient.getCorrespondingEtag(PERMISSIONS_CA_CERT);
-        }
         if (requestEtag != null && requestEtag.contentEquals(etag)) {
             return HttpResponse.notModified();
         }
@@ -453,9 +425,6 @@ public class ApplicationService {
 
     public HttpResponse<?> getGovernanceFile(String requestEtag) {
         String etag = applicationSecretsClient.getCorrespondingEtag(GOVERNANCE_FILE);
-        if (applicationSecretsClient.hasCachedFileBeenUpdated(GOVERNANCE_FILE)) {
-            etag = applicationSecretsClient.getCorrespondingEtag(GOVERNANCE_FILE);
-        }
         if (requestEtag != null && requestEtag.contentEquals(etag)) {
             return HttpResponse.notModified();
         }
@@ -472,20 +441,18 @@ public class ApplicationService {
 
     public HttpResponse<?> getApplicationPrivateKeyAndClientCertificate(String nonce) throws IOException, OperatorCreationException, GeneralSecurityException {
 
-        Optional<String> identityCACert = applicationSecretsClient.getIdentityCACert();
-        Optional<String> identityCAKey = applicationSecretsClient.getIdentityCAKey();
+        Optional<X509Certificate> identityCACert = certificateAuthorityKeys.getIdentityCACert();
+        Optional<PrivateKey> identityCAKey = certificateAuthorityKeys.getIdentityCAKey();
         Optional<Application> applicationOptional = securityUtil.getCurrentlyAuthenticatedApplication();
 
         if (applicationOptional.isPresent() && identityCACert.isPresent() && identityCAKey.isPresent()) {
             Application application = applicationOptional.get();
 
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
-            keyPairGenerator.initialize(256);
-            KeyPair keyPair = keyPairGenerator.generateKeyPair();
+            KeyPair keyPair = keyPairPool.take();
 
             X509Certificate x509Certificate = makeV3Certificate(
-                    readCertificate(identityCACert.get()),
-                    readPrivateKey(identityCAKey.get().trim()),
+                    identityCACert.get(),
+                    identityCAKey.get(),
                     keyPair.getPublic(),
                     application,
                     nonce
@@ -501,37 +468,89 @@ public class ApplicationService {
         return HttpResponse.notFound();
     }
 
-    public HttpResponse<?> getPermissionsFile(String nonce) throws IOException, GeneralSecurityException, MessagingException, SMIMEException, OperatorCreationException {
-        Optional<String> permissionsCAKey = applicationSecretsClient.getPermissionsCAKey();
-        Optional<String> permissionsCACert = applicationSecretsClient.getPermissionsCACert();
+    public HttpResponse<?> getPermissionsFile(String nonce, String requestEtag) throws IOException, GeneralSecurityException, MessagingException, SMIMEException, OperatorCreationException {
+        Optional<PrivateKey> permissionsCAKey = certificateAuthorityKeys.getPermissionsCAKey();
+        Optional<X509Certificate> permissionsCACert = certificateAuthorityKeys.getPermissionsCACert();
         Optional<Application> applicationOptional = securityUtil.getCurrentlyAuthenticatedApplication();
 
         if (applicationOptional.isPresent() && permissionsCAKey.isPresent() && permissionsCACert.isPresent()) {
-            //openssl smime -sign -in permissions.ftlx -text -out permissions.ftlx.p7s -signer permissions_ca.pem -inkey permissions_ca_key.pem
-            String permissionsXml = generatePermissionsXml(applicationOptional.get(), nonce);
-
-            MimeBodyPart mimeBodyPart = new MimeBodyPart();
-            mimeBodyPart.setText(permissionsXml);
-            MimeMultipart signedMultipart = createSignedMultipart(
-                    readPrivateKey(permissionsCAKey.get()),
-                    readCertificate(permissionsCACert.get()),
-                    mimeBodyPart);
-
-            MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
-            message.setContent(signedMultipart);
-
-            String result;
-            try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-                message.writeTo(byteArrayOutputStream);
-                result = byteArrayOutputStream.toString();
+            Application application = applicationOptional.get();
+            String etag = generatePermissionsFileETag(application, nonce);
+            if (requestEtag != null && requestEtag.contentEquals(etag)) {
+                return HttpResponse.notModified();
+            }
+
+            Optional<byte[]> cached = permissionsFileCache.get(application.getId(), nonce, etag);
+            if (cached.isPresent()) {
+                return HttpResponse.ok(cached.get()).header(E_TAG_HEADER_NAME, etag);
             }
 
-            return HttpResponse.ok(result);
+            long generation = permissionsFileCache.currentGeneration();
+            ApplicationGrantGraph grantGraph = applicationGrantGraphLoader.load(application.getId());
+            byte[] result = signPermissionsFile(application, grantGraph, nonce, permissionsCAKey.get(), permissionsCACert.get());
+
+            Set<Long> groupIds = new HashSet<>();
+            groupIds.add(application.getPermissionsGroup().getId());
+            grantGraph.getGrants().forEach(applicationGrant -> groupIds.add(applicationGrant.getPermissionsGroup().getId()));
+            permissionsFileCache.put(application.getId(), nonce, etag, groupIds, result, generation);
+
+            return HttpResponse.ok(result).header(E_TAG_HEADER_NAME, etag);
         }
 
         return HttpResponse.notFound();
     }
 
+    public byte[] signPermissionsFile(Application application, ApplicationGrantGraph grantGraph, String nonce,
+                                      PrivateKey signingKey, X509Certificate signingCert) throws IOException, GeneralSecurityException, MessagingException, SMIMEException, OperatorCreationException {
+        //openssl smime -sign -in permissions.ftlx -text -out permissions.ftlx.p7s -signer permissions_ca.pem -inkey permissions_ca_key.pem
+        DataSource permissionsXml = generatePermissionsXml(application, grantGraph, nonce);
+
+        MimeBodyPart mimeBodyPart = new MimeBodyPart();
+        mimeBodyPart.setDataHandler(new DataHandler(permissionsXml));
+        MimeMultipart signedMultipart = createSignedMultipart(signingKey, signingCert, mimeBodyPart);
+
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setContent(signedMultipart);
+
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
+            message.writeTo(byteArrayOutputStream);
+            return byteArrayOutputStream.toByteArray();
+        }
+    }
+
+    // derived only from data already at hand so a matching request never touches the grant graph or the signer
+    private String generatePermissionsFileETag(Application application, String nonce) throws NoSuchAlgorithmException {
+        return generateMD5Hash(application.getId() + ":" +
+                nonce + ":" +
+                application.getPermissionsLastUpdated() + ":" +
+                applicationSecretsClient.getCorrespondingEtag(PERMISSIONS_CA_KEY) + ":" +
+                applicationSecretsClient.getCorrespondingEtag(PERMISSIONS_CA_CERT) + ":" +
+                permissionsFileCache.currentEpoch());
+    }
+
+    // events arrive once the change has committed, so a failure here is only logged: the change that triggered
+    // it cannot be undone anymore and the request that made it has already succeeded
+    @EventListener
+    public void onPermissionsChanged(PermissionsChangedEvent event) {
+        try {
+            List<Long> applicationIds;
+            if (event.getApplicationId() != null) {
+                applicationIds = List.of(event.getApplicationId());
+            } else {
+                applicationIds = applicationGrantRepository.findPermissionsApplicationIdByPermissionsGroupId(event.getGroupId()).stream()
+                        .distinct()
+                        .collect(Collectors.toList());
+            }
+
+            if (!applicationIds.isEmpty()) {
+                applicationRepository.updateByIdIn(applicationIds, System.currentTimeMillis());
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Could not update the permissions timestamp of application {} / group {}",
+                    event.getApplicationId(), event.getGroupId(), e);
+        }
+    }
+
     public HttpResponse<?> getPermissionJson(String requestEtag) throws NoSuchAlgorithmException {
         Optional<Application> applicationOptional = securityUtil.getCurrentlyAuthenticatedApplication();
 
@@ -581,20 +600,20 @@ public class ApplicationService {
         return signedAttrs;
     }
 
-    private String generatePermissionsXml(Application application, String nonce) throws IOException {
-        Map<String, Object> dataModel = buildTemplateDataModel(nonce, application);
+    private DataSource generatePermissionsXml(Application application, ApplicationGrantGraph grantGraph, String nonce) throws IOException {
+        Map<String, Object> dataModel = buildTemplateDataModel(nonce, application, grantGraph);
 
-        return templateService.mergeDataAndTemplate(dataModel);
+        return permissionsXmlWriter.writeDataSource(dataModel);
     }
 
-    private Map<String, Object> buildTemplateDataModel(String nonce, Application application) {
+    private Map<String, Object> buildTemplateDataModel(String nonce, Application application, ApplicationGrantGraph grantGraph) {
         HashMap<String, Object> dataModel = new HashMap<>();
         final String sn = buildSubjectString(application, nonce);
         dataModel.put("subject", xmlEscaper.escape(sn));
         dataModel.put("applicationId", application.getId());
         dataModel.put("domain", permissionDomain);
 
-        dataModel.putAll(buildApplicationGrantPermissions(application));
+        dataModel.putAll(buildApplicationGrantPermissions(grantGraph));
 
         return dataModel;
     }
@@ -654,22 +673,19 @@ public class ApplicationService {
         }
     }
 
-    private HashMap buildApplicationGrantPermissions(Application application) {
+    private HashMap buildApplicationGrantPermissions(ApplicationGrantGraph grantGraph) {
         HashMap<String, Object> dataModel = new HashMap<>();
 
-        // get all grants by application
-        List<ApplicationGrant> applicationGrants = applicationGrantService.findAllByApplication(application);
-
-        determineGrantValidityInterval(dataModel, applicationGrants);
+        determineGrantValidityInterval(dataModel, grantGraph.getGrants());
 
         List<PubSubEntry> publishList = new ArrayList<>();
         List<PubSubEntry> subscribeList = new ArrayList<>();
 
         // read
-        buildPubSubList(subscribeList, applicationGrants, false);
+        buildPubSubList(subscribeList, grantGraph, false);
 
         // write
-        buildPubSubList(publishList, applicationGrants, true);
+        buildPubSubList(publishList, grantGraph, true);
 
         dataModel.put("subscribes", subscribeList);
         dataModel.put("publishes", publishList);
@@ -691,25 +707,16 @@ public class ApplicationService {
         }
     }
 
-    private void buildPubSubList(List<PubSubEntry> list, List<ApplicationGrant> applicationGrants, boolean publishing) {
-        if (applicationGrants == null) {
-            return;
-        }
-
+    private void buildPubSubList(List<PubSubEntry> list, ApplicationGrantGraph grantGraph, boolean publishing) {
         // for each grant and respective actions, derive Topics and Partitions
-        applicationGrants.forEach(applicationGrant -> {
+        grantGraph.getGrants().forEach(applicationGrant -> {
 
-            List<Action> actions = actionService.getAllByGrantId(applicationGrant.getId());
+            List<Action> actions = grantGraph.getActions(applicationGrant);
 
             actions.stream().filter(action -> Boolean.compare(publishing, action.getCanPublish()) == 0).forEach(action -> {
 
-                List<Topic> topicList = actionTopicRepository.findPermissionsTopicByPermissionsAction(action);
-                // collect all Topics
-                Set<Topic> actionTopics = new HashSet<>(topicList);
-                action.getTopicSets().forEach(topicSet -> {
-                    actionTopics.addAll(getAllTopicsByTopicSet(topicSet));
-                });
-                Set<String> topics = actionTopics.stream().map(this::buildCanonicalName).collect(Collectors.toSet());
+                // direct Topics and those of the action's Topic Sets
+                Set<String> topics = grantGraph.getTopics(action).stream().map(this::buildCanonicalName).collect(Collectors.toSet());
 
                 Set<String> partitions = action.getPartitions().stream()
                         .map(ActionPartition::getPartitionName)
@@ -727,17 +734,16 @@ public class ApplicationService {
     private HashMap buildApplicationGrantsJson(Application application) {
         HashMap<String, Object> dataModel = new HashMap<>();
 
-        // get all grants by application
-        List<ApplicationGrant> applicationGrants = applicationGrantService.findAllByApplication(application);
+        ApplicationGrantGraph grantGraph = applicationGrantGraphLoader.load(application.getId());
 
         List<Map> publishList = new ArrayList<>();
         List<Map> subscribeList = new ArrayList<>();
 
         // read
-        buildPubSubMap(subscribeList, applicationGrants, false);
+        buildPubSubMap(subscribeList, grantGraph, false);
 
         // write
-        buildPubSubMap(publishList, applicationGrants, true);
+        buildPubSubMap(publishList, grantGraph, true);
 
         dataModel.put("subscribes", subscribeList);
         dataModel.put("publishes", publishList);
@@ -745,25 +751,16 @@ public class ApplicationService {
         return dataModel;
     }
 
-    private void buildPubSubMap(List<Map> pubSubList, List<ApplicationGrant> applicationGrants, boolean publishing) {
-        if (applicationGrants == null) {
-            return;
-        }
-
+    private void buildPubSubMap(List<Map> pubSubList, ApplicationGrantGraph grantGraph, boolean publishing) {
         // for each grant and respective actions, derive Topics and Partitions
-        applicationGrants.forEach(applicationGrant -> {
+        grantGraph.getGrants().forEach(applicationGrant -> {
 
-            List<Action> actions = actionService.getAllByGrantId(applicationGrant.getId());
+            List<Action> actions = grantGraph.getActions(applicationGrant);
 
             actions.stream().filter(action -> Boolean.compare(publishing, action.getCanPublish()) == 0).forEach(action -> {
 
-                List<Topic> topicList = actionTopicRepository.findPermissionsTopicByPermissionsAction(action);
-                // collect all Topics
-                Set<Topic> actionTopics = new HashSet<>(topicList);
-                action.getTopicSets().forEach(topicSet -> {
-                    actionTopics.addAll(getAllTopicsByTopicSet(topicSet));
-                });
-                Set<String> topics = actionTopics.stream().map(this::buildCanonicalName).collect(Collectors.toSet());
+                // direct Topics and those of the action's Topic Sets
+                Set<String> topics = grantGraph.getTopics(action).stream().map(this::buildCanonicalName).collect(Collectors.toSet());
 
                 Set<String> partitions = action.getPartitions().stream()
                         .map(ActionPartition::getPartitionName)
@@ -781,10 +778,6 @@ public class ApplicationService {
         });
     }
 
-    private Collection<? extends Topic> getAllTopicsByTopicSet(TopicSet topicSet) {
-        return topicSetTopicRepository.findPermissionsTopicByPermissionsTopicSet(topicSet);
-    }
-
     private String buildCanonicalName(Topic permissionsTopic) {
         return permissionsTopic.getKind() + "." +
                 permissionsTopic.getPermissionsGroup().getId() + "." +
@@ -797,8 +790,7 @@ public class ApplicationService {
 
         X509v3CertificateBuilder v3CertBldr = new JcaX509v3CertificateBuilder(
                 caCertificate, // issuer
-                BigInteger.valueOf(System.currentTimeMillis()) // serial number
-                        .multiply(BigInteger.valueOf(10)),
+                nextSerialNumber(), // serial number
                 new Date(System.currentTimeMillis() - 1000L * 5), // start time
                 new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(certExpiry)), // expiry time
                 buildSubject(application, nonce), // subject
@@ -823,6 +815,12 @@ public class ApplicationService {
         return new JcaX509CertificateConverter().getCertificate(v3CertBldr.build(signerBuilder.build(caPrivateKey)));
     }
 
+    // certificates signed in the same millisecond (e.g. bulk issuance) must still get distinct serial numbers
+    private static BigInteger nextSerialNumber() {
+        long now = System.currentTimeMillis() * 10;
+        return BigInteger.valueOf(lastSerialNumber.accumulateAndGet(now, (last, candidate) -> Math.max(last + 1, candidate)));
+    }
+
     private X500Name buildSubject(Application application, String nonce) {
         X500NameBuilder nameBuilder = new X500NameBuilder(RFC4519Style.INSTANCE);
         nameBuilder.addRDN(RFC4519Style.cn, application.getId() + "_" + nonce);
@@ -853,18 +851,6 @@ public class ApplicationService {
         return sWrt.toString();
     }
 
-    public X509Certificate readCertificate(String pemEncoding) throws IOException, CertificateException {
-        PEMParser parser = new PEMParser(new StringReader(pemEncoding));
-        X509CertificateHolder certHolder = (X509CertificateHolder) parser.readObject();
-        return new JcaX509CertificateConverter().getCertificate(certHolder);
-    }
-
-    public PrivateKey readPrivateKey(String pemEncoding) throws IOException {
-        PEMParser parser = new PEMParser(new StringReader(pemEncoding));
-        PEMKeyPair pemKeyPair = (PEMKeyPair) parser.readObject();
-        return new JcaPEMKeyConverter().getPrivateKey(pemKeyPair.getPrivateKeyInfo());
-    }
-
     public HttpResponse generateGrantToken(Long applicationId) {
         Optional<Application> applicationOptional = applicationRepository.findById(applicationId);
         if (applicationOptional.isEmpty()) {
@@ -878,9 +864,13 @@ public class ApplicationService {
 
         Optional<User> currentlyAuthenticatedUser = securityUtil.getCurrentlyAuthenticatedUser();
 
+        return HttpResponse.ok(signGrantToken(application, currentlyAuthenticatedUser.get().getEmail()));
+    }
+
+    public String signGrantToken(Application application, String email) {
         JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
-                .subject(applicationId.toString())
-                .claim("email", currentlyAuthenticatedUser.get().getEmail())
+                .subject(application.getId().toString())
+                .claim("email", email)
                 .claim("appName", application.getName())
                 .claim("groupId", application.getPermissionsGroup().getId())
                 .claim("groupName", application.getPermissionsGroup().getName())
@@ -890,6 +880,6 @@ public class ApplicationService {
                 new AuthenticationJWTClaimsSetAdapter(claimsSet),  appGrantTokenExpiry * 60 * 60);
         Optional<String> token = jwtTokenGenerator.generateToken(map);
 
-        return HttpResponse.ok(token.get());
+        return token.get();
     }
 }
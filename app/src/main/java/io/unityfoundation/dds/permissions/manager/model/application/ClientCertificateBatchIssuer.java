@@ -0,0 +1,169 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.application;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.server.types.files.StreamedFile;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.scheduling.TaskExecutors;
+import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
+import io.unityfoundation.dds.permissions.manager.exception.DPMException;
+import io.unityfoundation.dds.permissions.manager.security.CertificateAuthorityKeys;
+import io.unityfoundation.dds.permissions.manager.security.KeyPairPool;
+import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.security.SigningExecutor;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Issues key pairs and client certificates for many nonces of one application in a single request. Certificates
+ * are signed in parallel on a bounded pool and written out as newline-delimited JSON, in request order, as soon
+ * as each one is ready, so neither the request nor the response is held in memory as a whole. The status is sent
+ * before the first certificate is signed, so a batch that cannot be finished ends with a line holding only an
+ * {@code error} instead.
+ */
+@Singleton
+public class ClientCertificateBatchIssuer {
+
+    public static final String NDJSON_TYPE = "application/x-ndjson";
+    public static final MediaType NDJSON = new MediaType(NDJSON_TYPE);
+
+    @Property(name = "permissions-manager.application.client-certificate.batch.max-nonces", defaultValue = "10000")
+    protected Integer maxNonces;
+
+    private final ApplicationService applicationService;
+    private final ApplicationRepository applicationRepository;
+    private final SecurityUtil securityUtil;
+    private final CertificateAuthorityKeys certificateAuthorityKeys;
+    private final KeyPairPool keyPairPool;
+    private final JsonMapper jsonMapper;
+    private final SigningExecutor signingExecutor;
+    private final ExecutorService ioExecutor;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClientCertificateBatchIssuer.class);
+
+    public ClientCertificateBatchIssuer(ApplicationService applicationService, ApplicationRepository applicationRepository,
+                                        SecurityUtil securityUtil, CertificateAuthorityKeys certificateAuthorityKeys,
+                                        KeyPairPool keyPairPool, JsonMapper jsonMapper, SigningExecutor signingExecutor,
+                                        @Named(TaskExecutors.IO) ExecutorService ioExecutor) {
+        this.applicationService = applicationService;
+        this.applicationRepository = applicationRepository;
+        this.securityUtil = securityUtil;
+        this.certificateAuthorityKeys = certificateAuthorityKeys;
+        this.keyPairPool = keyPairPool;
+        this.jsonMapper = jsonMapper;
+        this.signingExecutor = signingExecutor;
+        this.ioExecutor = ioExecutor;
+    }
+
+    public HttpResponse<?> issue(Long applicationId, List<String> nonces) throws IOException, GeneralSecurityException {
+        if (!securityUtil.isCurrentUserAdmin()) {
+            throw new DPMException(ResponseStatusCodes.UNAUTHORIZED, HttpStatus.UNAUTHORIZED);
+        }
+        if (nonces == null || nonces.isEmpty()) {
+            throw new DPMException(ResponseStatusCodes.APPLICATION_KEY_PAIRS_REQUIRE_NONCES);
+        }
+        if (nonces.size() > maxNonces) {
+            throw new DPMException(ResponseStatusCodes.APPLICATION_KEY_PAIRS_TOO_MANY_NONCES);
+        }
+
+        Optional<Application> applicationOptional = applicationRepository.findById(applicationId);
+        if (applicationOptional.isEmpty()) {
+            throw new DPMException(ResponseStatusCodes.APPLICATION_NOT_FOUND, HttpStatus.NOT_FOUND);
+        }
+
+        Optional<X509Certificate> identityCACert = certificateAuthorityKeys.getIdentityCACert();
+        Optional<PrivateKey> identityCAKey = certificateAuthorityKeys.getIdentityCAKey();
+        if (identityCACert.isEmpty() || identityCAKey.isEmpty()) {
+            return HttpResponse.notFound();
+        }
+
+        PipedInputStream body = new PipedInputStream(64 * 1024);
+        PipedOutputStream out = new PipedOutputStream(body);
+        Application application = applicationOptional.get();
+        ioExecutor.execute(() -> write(out, application, identityCACert.get(), identityCAKey.get(), List.copyOf(nonces)));
+
+        return HttpResponse.ok(new StreamedFile(body, NDJSON));
+    }
+
+    private void write(OutputStream out, Application application, X509Certificate caCertificate, PrivateKey caPrivateKey, List<String> nonces) {
+        try (out) {
+            try {
+                signingExecutor.mapInOrder(nonces, nonce -> issueLine(application, caCertificate, caPrivateKey, nonce), line -> {
+                    out.write(line);
+                    out.flush();
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                out.write(failedLine());
+            } catch (ExecutionException e) {
+                LOG.error("Could not issue key pairs for application {}", application.getId(), e.getCause());
+                out.write(failedLine());
+            }
+        } catch (IOException e) {
+            // the client went away; nothing left to write to
+            LOG.debug("Stopped streaming key pairs for application {}", application.getId(), e);
+        }
+    }
+
+    private byte[] issueLine(Application application, X509Certificate caCertificate, PrivateKey caPrivateKey, String nonce) throws IOException {
+        Map<String, String> line = new LinkedHashMap<>();
+        line.put("nonce", nonce);
+        try {
+            KeyPair keyPair = keyPairPool.take();
+            X509Certificate certificate = applicationService.makeV3Certificate(caCertificate, caPrivateKey, keyPair.getPublic(), application, nonce);
+            line.put("private", applicationService.objectToPEMString(keyPair.getPrivate()));
+            line.put("public", applicationService.objectToPEMString(certificate));
+        } catch (GeneralSecurityException | IOException | OperatorCreationException e) {
+            LOG.error("Could not issue a key pair for application {} and nonce {}", application.getId(), nonce, e);
+            line.put("error", "Could not issue a key pair");
+        }
+
+        return toLine(line);
+    }
+
+    // has no nonce, so clients can tell it apart from the error of a single key pair
+    private byte[] failedLine() throws IOException {
+        return toLine(Map.of("error", "Could not issue the remaining key pairs"));
+    }
+
+    private byte[] toLine(Map<String, String> line) throws IOException {
+        byte[] json = jsonMapper.writeValueAsBytes(line);
+        byte[] result = new byte[json.length + 1];
+        System.arraycopy(json, 0, result, 0, json.length);
+        result[json.length] = '\n';
+        return result;
+    }
+}
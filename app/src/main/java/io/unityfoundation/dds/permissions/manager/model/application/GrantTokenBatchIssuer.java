@@ -0,0 +1,100 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.application;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
+import io.unityfoundation.dds.permissions.manager.exception.DPMException;
+import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.security.AuthorizationContext;
+import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.security.SigningExecutor;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Issues grant tokens for many applications in a single request. The applications and their groups are read in
+ * one query, the caller's application admin rights come from the request's authorization context, and the tokens
+ * are signed in parallel on the signing pool.
+ */
+@Singleton
+public class GrantTokenBatchIssuer {
+
+    @Property(name = "permissions-manager.application.grant-token.batch.max-applications", defaultValue = "1000")
+    protected Integer maxApplications;
+
+    private final ApplicationService applicationService;
+    private final ApplicationRepository applicationRepository;
+    private final SecurityUtil securityUtil;
+    private final SigningExecutor signingExecutor;
+
+    public GrantTokenBatchIssuer(ApplicationService applicationService, ApplicationRepository applicationRepository,
+                                 SecurityUtil securityUtil, SigningExecutor signingExecutor) {
+        this.applicationService = applicationService;
+        this.applicationRepository = applicationRepository;
+        this.securityUtil = securityUtil;
+        this.signingExecutor = signingExecutor;
+    }
+
+    public HttpResponse<?> issue(List<Long> applicationIds) throws IOException, InterruptedException, ExecutionException {
+        if (applicationIds == null || applicationIds.isEmpty()) {
+            throw new DPMException(ResponseStatusCodes.APPLICATION_GRANT_TOKENS_REQUIRE_APPLICATIONS);
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(applicationIds));
+        if (ids.size() > maxApplications) {
+            throw new DPMException(ResponseStatusCodes.APPLICATION_GRANT_TOKENS_TOO_MANY_APPLICATIONS);
+        }
+
+        Map<Long, Application> applicationsById = applicationRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Application::getId, Function.identity()));
+        if (applicationsById.size() != ids.size()) {
+            throw new DPMException(ResponseStatusCodes.APPLICATION_NOT_FOUND, HttpStatus.NOT_FOUND);
+        }
+
+        AuthorizationContext context = securityUtil.getAuthorizationContext();
+        Optional<User> user = context.getUser();
+        if (user.isEmpty()) {
+            throw new DPMException(ResponseStatusCodes.UNAUTHORIZED, HttpStatus.UNAUTHORIZED);
+        }
+        boolean authorized = context.isAdmin() || applicationsById.values().stream()
+                .allMatch(application -> context.isApplicationAdminOf(application.getPermissionsGroup().getId()));
+        if (!authorized) {
+            throw new DPMException(ResponseStatusCodes.UNAUTHORIZED, HttpStatus.UNAUTHORIZED);
+        }
+
+        String email = user.get().getEmail();
+        List<Application> applications = ids.stream().map(applicationsById::get).collect(Collectors.toList());
+        List<Map<String, Object>> tokens = new ArrayList<>(applications.size());
+        signingExecutor.mapInOrder(applications, application -> {
+            Map<String, Object> token = new LinkedHashMap<>();
+            token.put("applicationId", application.getId());
+            token.put("token", applicationService.signGrantToken(application, email));
+            return token;
+        }, tokens::add);
+
+        return HttpResponse.ok(tokens);
+    }
+}
@@ -0,0 +1,53 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.application;
+
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * Published whenever something that feeds an application's permissions document changes.
+ * Either the affected application is known, or only the group that owns the changed
+ * grant-related entity (topic, topic set, action interval, grant duration) is known.
+ */
+public class PermissionsChangedEvent {
+
+    @Nullable
+    private final Long applicationId;
+
+    @Nullable
+    private final Long groupId;
+
+    private PermissionsChangedEvent(@Nullable Long applicationId, @Nullable Long groupId) {
+        this.applicationId = applicationId;
+        this.groupId = groupId;
+    }
+
+    public static PermissionsChangedEvent forApplication(Long applicationId) {
+        return new PermissionsChangedEvent(applicationId, null);
+    }
+
+    public static PermissionsChangedEvent forGroup(Long groupId) {
+        return new PermissionsChangedEvent(null, groupId);
+    }
+
+    @Nullable
+    public Long getApplicationId() {
+        return applicationId;
+    }
+
+    @Nullable
+    public Long getGroupId() {
+        return groupId;
+    }
+}
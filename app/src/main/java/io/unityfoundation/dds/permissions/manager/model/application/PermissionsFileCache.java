@@ -0,0 +1,150 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signed permissions documents keyed by application, nonce and document version (the ETag served with it).
+ * Entries are dropped on {@link PermissionsChangedEvent}s and after a bounded time so that the
+ * validity window written into the document does not drift too far from the time it is served.
+ */
+@Singleton
+public class PermissionsFileCache {
+
+    public static final String CACHE_NAME = "permissions-files";
+
+    @Property(name = "permissions-manager.application.permissions-file.cache.maximum-size", defaultValue = "10000")
+    protected Long maximumSize;
+
+    @Property(name = "permissions-manager.application.permissions-file.cache.expire-after-write", defaultValue = "10m")
+    protected Duration expireAfterWrite;
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong generation = new AtomicLong();
+    private Cache<Key, Entry> cache;
+
+    public PermissionsFileCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void initialize() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    // documents are re-issued at least once per epoch so clients holding a 304 keep a moving validity window
+    public long currentEpoch() {
+        return System.currentTimeMillis() / expireAfterWrite.toMillis();
+    }
+
+    public Optional<byte[]> get(Long applicationId, String nonce, String version) {
+        return Optional.ofNullable(cache.getIfPresent(new Key(applicationId, nonce, version)))
+                .map(Entry::getPermissionsFile);
+    }
+
+    // generation must be read before the grant graph is loaded; if any invalidation happened
+    // in between, the freshly built document may already be stale and is discarded.
+    public void put(Long applicationId, String nonce, String version, Set<Long> groupIds, byte[] permissionsFile, long generation) {
+        Key key = new Key(applicationId, nonce, version);
+        cache.put(key, new Entry(groupIds, permissionsFile));
+        if (this.generation.get() != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onPermissionsChanged(PermissionsChangedEvent event) {
+        generation.incrementAndGet();
+
+        Long applicationId = event.getApplicationId();
+        if (applicationId != null) {
+            cache.asMap().keySet().removeIf(key -> applicationId.equals(key.applicationId));
+        }
+
+        Long groupId = event.getGroupId();
+        if (groupId != null) {
+            cache.asMap().values().removeIf(entry -> entry.groupIds.contains(groupId));
+        }
+    }
+
+    private static final class Key {
+        private final Long applicationId;
+        private final String nonce;
+        private final String version;
+
+        private Key(Long applicationId, String nonce, String version) {
+            this.applicationId = applicationId;
+            this.nonce = nonce;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return applicationId.equals(key.applicationId) &&
+                    Objects.equals(nonce, key.nonce) &&
+                    Objects.equals(version, key.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(applicationId, nonce, version);
+        }
+    }
+
+    private static final class Entry {
+        // the application's own group plus the groups of every grant feeding the document
+        private final Set<Long> groupIds;
+        private final byte[] permissionsFile;
+
+        private Entry(Set<Long> groupIds, byte[] permissionsFile) {
+            this.groupIds = groupIds;
+            this.permissionsFile = permissionsFile;
+        }
+
+        private byte[] getPermissionsFile() {
+            return permissionsFile;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.application;
+
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.server.types.files.StreamedFile;
+import io.micronaut.scheduling.TaskExecutors;
+import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
+import io.unityfoundation.dds.permissions.manager.exception.DPMException;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantGraph;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantGraphLoader;
+import io.unityfoundation.dds.permissions.manager.model.group.Group;
+import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
+import io.unityfoundation.dds.permissions.manager.security.CertificateAuthorityKeys;
+import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.security.SigningExecutor;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports the signed permissions document of every application in a group as one zip archive. The grant graphs
+ * of the whole group are loaded up front, the documents are signed in parallel and each one is written to the
+ * archive as soon as it is ready.
+ */
+@Singleton
+public class PermissionsFileExporter {
+
+    public static final String ZIP_TYPE = "application/zip";
+    public static final String PERMISSIONS_FILE_NAME = "permissions.xml.p7s";
+
+    private final ApplicationService applicationService;
+    private final ApplicationRepository applicationRepository;
+    private final GroupRepository groupRepository;
+    private final ApplicationGrantGraphLoader applicationGrantGraphLoader;
+    private final SecurityUtil securityUtil;
+    private final CertificateAuthorityKeys certificateAuthorityKeys;
+    private final SigningExecutor signingExecutor;
+    private final ExecutorService ioExecutor;
+
+    private static final Logger LOG = LoggerFactory.getLogger(PermissionsFileExporter.class);
+
+    public PermissionsFileExporter(ApplicationService applicationService, ApplicationRepository applicationRepository,
+                                   GroupRepository groupRepository, ApplicationGrantGraphLoader applicationGrantGraphLoader,
+                                   SecurityUtil securityUtil, CertificateAuthorityKeys certificateAuthorityKeys,
+                                   SigningExecutor signingExecutor, @Named(TaskExecutors.IO) ExecutorService ioExecutor) {
+        this.applicationService = applicationService;
+        this.applicationRepository = applicationRepository;
+        this.groupRepository = groupRepository;
+        this.applicationGrantGraphLoader = applicationGrantGraphLoader;
+        this.securityUtil = securityUtil;
+        this.certificateAuthorityKeys = certificateAuthorityKeys;
+        this.signingExecutor = signingExecutor;
+        this.ioExecutor = ioExecutor;
+    }
+
+    public HttpResponse<?> export(Long groupId, String nonce) throws IOException, GeneralSecurityException {
+        Optional<Group> groupOptional = groupRepository.findById(groupId);
+        if (groupOptional.isEmpty()) {
+            throw new DPMException(ResponseStatusCodes.GROUP_NOT_FOUND, HttpStatus.NOT_FOUND);
+        }
+        if (!securityUtil.isCurrentUserAdmin() && !applicationService.isUserApplicationAdminOfGroup(groupOptional.get())) {
+            throw new DPMException(ResponseStatusCodes.UNAUTHORIZED, HttpStatus.UNAUTHORIZED);
+        }
+
+        Optional<PrivateKey> permissionsCAKey = certificateAuthorityKeys.getPermissionsCAKey();
+        Optional<X509Certificate> permissionsCACert = certificateAuthorityKeys.getPermissionsCACert();
+        if (permissionsCAKey.isEmpty() || permissionsCACert.isEmpty()) {
+            return HttpResponse.notFound();
+        }
+
+        List<Application> applications = applicationRepository.findAllByPermissionsGroupId(groupId);
+        Map<Long, ApplicationGrantGraph> grantGraphs = applicationGrantGraphLoader.loadByGroup(groupId);
+
+        PipedInputStream body = new PipedInputStream(64 * 1024);
+        PipedOutputStream out = new PipedOutputStream(body);
+        ioExecutor.execute(() -> write(out, groupId, applications, grantGraphs, nonce, permissionsCAKey.get(), permissionsCACert.get()));
+
+        return HttpResponse.ok(new StreamedFile(body, MediaType.of(ZIP_TYPE)))
+                .header("Content-Disposition", "attachment; filename=\"group-" + groupId + "-permissions.zip\"");
+    }
+
+    private void write(OutputStream out, Long groupId, List<Application> applications, Map<Long, ApplicationGrantGraph> grantGraphs,
+                       String nonce, PrivateKey signingKey, X509Certificate signingCert) {
+        ApplicationGrantGraph noGrants = new ApplicationGrantGraph(List.of(), Map.of(), Map.of());
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try (out) {
+            signingExecutor.mapInOrder(applications, application -> {
+                byte[] permissionsFile = applicationService.signPermissionsFile(application,
+                        grantGraphs.getOrDefault(application.getId(), noGrants), nonce, signingKey, signingCert);
+                return Map.entry(entryName(application), permissionsFile);
+            }, entry -> {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue());
+                zip.closeEntry();
+                zip.flush();
+            });
+            zip.finish();
+        } catch (IOException e) {
+            LOG.debug("Stopped streaming permissions export for group {}", groupId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // the archive is closed without its central directory, so clients see it as truncated
+            LOG.error("Could not export permissions for group {}", groupId, e.getCause());
+        }
+    }
+
+    static String entryName(Application application) {
+        return application.getId() + "_" + application.getName().replaceAll("[^A-Za-z0-9._-]", "_") + "/" + PERMISSIONS_FILE_NAME;
+    }
+}
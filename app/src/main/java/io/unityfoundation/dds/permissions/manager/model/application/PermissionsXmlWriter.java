@@ -0,0 +1,158 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.application;
+
+import jakarta.inject.Singleton;
+
+import javax.activation.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the permissions document straight to a {@link Writer}, producing the same bytes as
+ * {@code views/permissions.ftlx} for the same data model. Values in the data model are expected to be
+ * XML-escaped already (see {@code XMLEscaper}) and are written as they are, as the template does.
+ */
+@Singleton
+public class PermissionsXmlWriter {
+
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+            "<dds xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:noNamespaceSchemaLocation=\"http://www.omg.org/spec/DDS-SECURITY/20160303/omg_shared_ca_permissions.xsd\">\n" +
+            "    <permissions>\n";
+    private static final String FOOTER = "            </allow_rule>\n" +
+            "            <default>DENY</default>\n" +
+            "        </grant>\n" +
+            "    </permissions>\n" +
+            "</dds>\n";
+
+    public String write(Map<String, Object> dataModel) throws IOException {
+        StringWriter out = new StringWriter(4096);
+        write(dataModel, out);
+        return out.toString();
+    }
+
+    /**
+     * Writes the document as UTF-8 into a single buffer that a MIME body part reads in place, so signing
+     * needs neither a String of the document nor a copy of its bytes.
+     */
+    public DataSource writeDataSource(Map<String, Object> dataModel) throws IOException {
+        DocumentBuffer buffer = new DocumentBuffer();
+        try (Writer out = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+            write(dataModel, out);
+        }
+        return buffer;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void write(Map<String, Object> dataModel, Writer out) throws IOException {
+        out.write(HEADER);
+        out.write("        <grant name=\"application_");
+        out.write(String.valueOf(dataModel.get("applicationId")));
+        out.write("\">\n");
+        element(out, 12, "subject_name", dataModel.get("subject"));
+        out.write("            <validity>\n");
+        element(out, 16, "not_before", dataModel.get("validStart"));
+        element(out, 16, "not_after", dataModel.get("validEnd"));
+        out.write("            </validity>\n");
+        out.write("            <allow_rule>\n");
+        out.write("                <domains>\n");
+        element(out, 20, "id", dataModel.get("domain"));
+        out.write("                </domains>\n");
+
+        for (ApplicationService.PubSubEntry entry : (List<ApplicationService.PubSubEntry>) dataModel.get("publishes")) {
+            pubSub(out, "publish", entry);
+        }
+        for (ApplicationService.PubSubEntry entry : (List<ApplicationService.PubSubEntry>) dataModel.get("subscribes")) {
+            pubSub(out, "subscribe", entry);
+        }
+
+        out.write(FOOTER);
+    }
+
+    private static void pubSub(Writer out, String name, ApplicationService.PubSubEntry entry) throws IOException {
+        out.write("                <" + name + ">\n");
+        out.write("                    <topics>\n");
+        for (String topic : entry.getTopics()) {
+            element(out, 24, "topic", topic);
+        }
+        out.write("                    </topics>\n");
+        if (!entry.getPartitions().isEmpty()) {
+            out.write("                    <partitions>\n");
+            for (String partition : entry.getPartitions()) {
+                element(out, 24, "partition", partition);
+            }
+            out.write("                    </partitions>\n");
+        }
+        out.write("                    <validity>\n");
+        element(out, 24, "not_before", entry.getValidityStart());
+        element(out, 24, "not_after", entry.getValidityEnd());
+        out.write("                    </validity>\n");
+        out.write("                </" + name + ">\n");
+    }
+
+    private static void element(Writer out, int indent, String name, Object value) throws IOException {
+        for (int i = 0; i < indent; i++) {
+            out.write(' ');
+        }
+        out.write('<');
+        out.write(name);
+        out.write('>');
+        out.write(String.valueOf(value));
+        out.write("</");
+        out.write(name);
+        out.write(">\n");
+    }
+
+    private static final class DocumentBuffer extends ByteArrayOutputStream implements DataSource {
+
+        private DocumentBuffer() {
+            super(4096);
+        }
+
+        // an all-ASCII document is labelled as it was when the body part was set from a String
+        @Override
+        public String getContentType() {
+            for (int i = 0; i < count; i++) {
+                if (buf[i] < 0) {
+                    return "text/plain; charset=UTF-8";
+                }
+            }
+            return "text/plain; charset=us-ascii";
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            throw new IOException("The permissions document is read-only");
+        }
+
+        @Override
+        public String getName() {
+            return "permissions.xml";
+        }
+    }
+}
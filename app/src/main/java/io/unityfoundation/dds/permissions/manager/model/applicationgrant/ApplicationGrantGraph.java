@@ -0,0 +1,56 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.applicationgrant;
+
+import io.unityfoundation.dds.permissions.manager.model.action.Action;
+import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The grants of one application together with their actions and the topics each action resolves to,
+ * with topic sets already expanded.
+ */
+public class ApplicationGrantGraph {
+
+    private final List<ApplicationGrant> grants;
+    private final Map<Long, List<Action>> actionsByGrantId;
+    private final Map<Long, Set<Topic>> topicsByActionId;
+
+    public ApplicationGrantGraph(List<ApplicationGrant> grants, Map<Long, List<Action>> actionsByGrantId, Map<Long, Set<Topic>> topicsByActionId) {
+        this.grants = grants;
+        this.actionsByGrantId = actionsByGrantId;
+        this.topicsByActionId = topicsByActionId;
+    }
+
+    public List<ApplicationGrant> getGrants() {
+        return grants;
+    }
+
+    public List<Action> getActions(ApplicationGrant applicationGrant) {
+        return actionsByGrantId.getOrDefault(applicationGrant.getId(), Collections.emptyList());
+    }
+
+    public Set<Topic> getTopics(Action action) {
+        return topicsByActionId.getOrDefault(action.getId(), Collections.emptySet());
+    }
+
+    // the lookups are keyed by grant and action id, so a subset of the grants can share them
+    ApplicationGrantGraph subgraph(List<ApplicationGrant> grants) {
+        return new ApplicationGrantGraph(grants, actionsByGrantId, topicsByActionId);
+    }
+}
@@ -0,0 +1,110 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.applicationgrant;
+
+import io.unityfoundation.dds.permissions.manager.model.action.Action;
+import io.unityfoundation.dds.permissions.manager.model.action.ActionRepository;
+import io.unityfoundation.dds.permissions.manager.model.actiontopic.ActionTopicRepository;
+import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
+import io.unityfoundation.dds.permissions.manager.model.topicset.TopicSet;
+import io.unityfoundation.dds.permissions.manager.model.topicsettopic.TopicSetTopic;
+import io.unityfoundation.dds.permissions.manager.model.topicsettopic.TopicSetTopicRepository;
+import jakarta.inject.Singleton;
+
+import javax.transaction.Transactional;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Loads an application's grant graph with one query per level (grants, actions, action topics,
+ * topic set topics) rather than walking it grant by grant and action by action.
+ */
+@Singleton
+public class ApplicationGrantGraphLoader {
+
+    private final ApplicationGrantRepository applicationGrantRepository;
+    private final ActionRepository actionRepository;
+    private final ActionTopicRepository actionTopicRepository;
+    private final TopicSetTopicRepository topicSetTopicRepository;
+
+    public ApplicationGrantGraphLoader(ApplicationGrantRepository applicationGrantRepository, ActionRepository actionRepository,
+                                       ActionTopicRepository actionTopicRepository, TopicSetTopicRepository topicSetTopicRepository) {
+        this.applicationGrantRepository = applicationGrantRepository;
+        this.actionRepository = actionRepository;
+        this.actionTopicRepository = actionTopicRepository;
+        this.topicSetTopicRepository = topicSetTopicRepository;
+    }
+
+    // a single transaction keeps one persistence context, so eager references back to rows
+    // already loaded by an earlier level resolve without another select
+    @Transactional
+    public ApplicationGrantGraph load(Long applicationId) {
+        List<ApplicationGrant> grants = applicationGrantRepository.findAllByPermissionsApplicationId(applicationId);
+        return build(grants);
+    }
+
+    /**
+     * Loads the grant graphs of every application in a group with the same number of queries as a single one.
+     * Applications without grants have no entry.
+     */
+    @Transactional
+    public Map<Long, ApplicationGrantGraph> loadByGroup(Long groupId) {
+        List<ApplicationGrant> grants = applicationGrantRepository.findAllByPermissionsApplicationPermissionsGroupId(groupId);
+        ApplicationGrantGraph groupGraph = build(grants);
+
+        return grants.stream()
+                .collect(Collectors.groupingBy(grant -> grant.getPermissionsApplication().getId(), Collectors.toList()))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> groupGraph.subgraph(entry.getValue())));
+    }
+
+    private ApplicationGrantGraph build(List<ApplicationGrant> grants) {
+        if (grants.isEmpty()) {
+            return new ApplicationGrantGraph(grants, Map.of(), Map.of());
+        }
+
+        List<Long> grantIds = grants.stream().map(ApplicationGrant::getId).collect(Collectors.toList());
+        // collection fetch joins repeat the root row, so keep the first instance of each action
+        Map<Long, Action> actions = new LinkedHashMap<>();
+        actionRepository.findAllByApplicationGrantIdIn(grantIds).forEach(action -> actions.putIfAbsent(action.getId(), action));
+
+        Map<Long, List<Action>> actionsByGrantId = actions.values().stream()
+                .collect(Collectors.groupingBy(action -> action.getApplicationGrant().getId(), Collectors.toList()));
+        if (actions.isEmpty()) {
+            return new ApplicationGrantGraph(grants, actionsByGrantId, Map.of());
+        }
+
+        Map<Long, Set<Topic>> topicsByActionId = new HashMap<>();
+        actionTopicRepository.findAllByPermissionsActionIdIn(new ArrayList<>(actions.keySet())).forEach(actionTopic ->
+                topicsByActionId.computeIfAbsent(actionTopic.getPermissionsAction().getId(), id -> new HashSet<>())
+                        .add(actionTopic.getPermissionsTopic()));
+
+        List<Long> topicSetIds = actions.values().stream()
+                .flatMap(action -> action.getTopicSets().stream())
+                .map(TopicSet::getId)
+                .distinct()
+                .collect(Collectors.toList());
+        if (!topicSetIds.isEmpty()) {
+            Map<Long, List<Topic>> topicsByTopicSetId = topicSetTopicRepository.findAllByPermissionsTopicSetIdIn(topicSetIds).stream()
+                    .collect(Collectors.groupingBy(topicSetTopic -> topicSetTopic.getPermissionsTopicSet().getId(),
+                            Collectors.mapping(TopicSetTopic::getPermissionsTopic, Collectors.toList())));
+
+            actions.values().forEach(action -> action.getTopicSets().forEach(topicSet ->
+                    topicsByActionId.computeIfAbsent(action.getId(), id -> new HashSet<>())
+                            .addAll(topicsByTopicSetId.getOrDefault(topicSet.getId(), List.of()))));
+        }
+
+        return new ApplicationGrantGraph(grants, actionsByGrantId, topicsByActionId);
+    }
+}
@@ -13,6 +13,7 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.applicationgrant;
 
+import io.micronaut.data.annotation.Join;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
@@ -31,14 +32,15 @@ public interface ApplicationGrantRepository extends PageableRepository<Applicati
     Page<ApplicationGrant> findByPermissionsApplicationId(Long applicationId, Pageable pageable);
     Page<ApplicationGrant> findAllByPermissionsApplicationIdAndPermissionsGroupIdIn(Long applicationId, List<Long> groups, Pageable pageable);
     List<ApplicationGrant> findByPermissionsApplication(Application permissionsApplication);
+    @Join(value = "grantDuration", type = Join.Type.LEFT_FETCH)
+    List<ApplicationGrant> findAllByPermissionsApplicationId(Long applicationId);
+    @Join(value = "grantDuration", type = Join.Type.LEFT_FETCH)
+    List<ApplicationGrant> findAllByPermissionsApplicationPermissionsGroupId(Long groupId);
     Page<ApplicationGrant> findByPermissionsApplicationIdAndPermissionsApplicationIdIn(Long applicationId, List<Long> groupsApplications, Pageable pageable);
     void deleteByPermissionsApplicationEquals(Application permissionsApplication);
     void deleteByPermissionsApplicationIdIn(Collection<Long> permissionsApplications);
-    Page<ApplicationGrant> findAllByPermissionsGroupIdIn(List<Long> groupId, Pageable pageable);
-    Page<ApplicationGrant> findAllByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String name, String groupName, Pageable pageable);
-    List<Long> findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String name, String groupName);
-    Page<ApplicationGrant> findAllByIdInAndPermissionsGroupIdIn(List<Long> all, List<Long> groupId, Pageable pageable);
     Optional<ApplicationGrant> findByNameAndPermissionsGroup(String name, Group group);
     List<Long> findIdByPermissionsGroupIdIn(List<Long> groups);
+    List<Long> findPermissionsApplicationIdByPermissionsGroupId(Long groupId);
     Integer countByGrantDuration(GrantDuration grantDuration);
 }
@@ -13,16 +13,12 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.applicationgrant;
 
-import com.nimbusds.jwt.JWT;
-import com.nimbusds.jwt.JWTParser;
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
-import io.micronaut.security.token.jwt.generator.claims.JwtClaims;
-import io.micronaut.security.token.jwt.generator.claims.JwtClaimsSetAdapter;
-import io.micronaut.security.token.jwt.validator.JwtTokenValidator;
 import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
 import io.unityfoundation.dds.permissions.manager.model.action.Action;
@@ -30,6 +26,7 @@ import io.unityfoundation.dds.permissions.manager.model.action.ActionService;
 import io.unityfoundation.dds.permissions.manager.model.action.dto.ActionDTO;
 import io.unityfoundation.dds.permissions.manager.model.application.Application;
 import io.unityfoundation.dds.permissions.manager.model.application.ApplicationRepository;
+import io.unityfoundation.dds.permissions.manager.model.application.PermissionsChangedEvent;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.dto.DetailedGrantDTO;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.dto.GrantDTO;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.dto.CreateGrantDTO;
@@ -40,11 +37,16 @@ import io.unityfoundation.dds.permissions.manager.model.group.Group;
 import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
+import io.unityfoundation.dds.permissions.manager.paging.KeysetPager;
+import io.unityfoundation.dds.permissions.manager.paging.OffsetPager;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
+import io.unityfoundation.dds.permissions.manager.security.GrantTokenVerifier;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.util.AfterCommit;
 import jakarta.inject.Singleton;
 import org.reactivestreams.Publisher;
 
-import java.text.ParseException;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -59,9 +61,12 @@ public class ApplicationGrantService {
     private final GrantDurationRepository grantDurationRepository;
     private final SecurityUtil securityUtil;
     private final GroupUserService groupUserService;
-    private final JwtTokenValidator jwtTokenValidator;
+    private final GrantTokenVerifier grantTokenVerifier;
+    private final ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher;
+    private final KeysetPager keysetPager;
+    private final OffsetPager offsetPager;
 
-    public ApplicationGrantService(ApplicationGrantRepository applicationGrantRepository, ApplicationRepository applicationRepository, ActionService actionService, GroupRepository groupRepository, GrantDurationRepository grantDurationRepository, SecurityUtil securityUtil, GroupUserService groupUserService, JwtTokenValidator jwtTokenValidator) {
+    public ApplicationGrantService(ApplicationGrantRepository applicationGrantRepository, ApplicationRepository applicationRepository, ActionService actionService, GroupRepository groupRepository, GrantDurationRepository grantDurationRepository, SecurityUtil securityUtil, GroupUserService groupUserService, GrantTokenVerifier grantTokenVerifier, ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher, KeysetPager keysetPager, OffsetPager offsetPager) {
         this.applicationGrantRepository = applicationGrantRepository;
         this.applicationRepository = applicationRepository;
         this.actionService = actionService;
@@ -69,7 +74,10 @@ public class ApplicationGrantService {
         this.grantDurationRepository = grantDurationRepository;
         this.securityUtil = securityUtil;
         this.groupUserService = groupUserService;
-        this.jwtTokenValidator = jwtTokenValidator;
+        this.grantTokenVerifier = grantTokenVerifier;
+        this.permissionsChangedEventPublisher = permissionsChangedEventPublisher;
+        this.keysetPager = keysetPager;
+        this.offsetPager = offsetPager;
     }
 
     public Page<GrantDTO> findAll(Pageable pageable, String filter, Long group) {
@@ -82,47 +90,20 @@ public class ApplicationGrantService {
         return page.map(this::createDTO);
     }
 
-    private Page<ApplicationGrant> getApplicationGrantsPage(Pageable pageable, String filter, Long groupId) {
-        List<Long> all;
-        if (securityUtil.isCurrentUserAdmin()) {
-            if (filter == null) {
-                if (groupId == null) {
-                    return applicationGrantRepository.findAll(pageable);
-                }
-                return applicationGrantRepository.findAllByPermissionsGroupIdIn(List.of(groupId), pageable);
-            }
-
-            if (groupId == null) {
-                return applicationGrantRepository.findAllByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, pageable);
-            }
-
-            all = applicationGrantRepository.findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter);
-
-            return applicationGrantRepository.findAllByIdInAndPermissionsGroupIdIn(all, List.of(groupId), pageable);
-        } else {
-            User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-            List<Long> groups = groupUserService.getAllGroupsUserIsAMemberOf(user.getId());
-
-            if (groups.isEmpty() || (groupId != null && !groups.contains(groupId))) {
-                return Page.empty();
-            }
-
-            if (groupId != null) {
-                // implies groupId exists in member's groups
-                groups = List.of(groupId);
-            }
-
-            if (filter == null) {
-                return applicationGrantRepository.findAllByPermissionsGroupIdIn(groups, pageable);
-            }
+    public CursorPage<GrantDTO> findAll(String after, int size, String filter, Long groupId) {
+        return keysetPager.find(ApplicationGrant.class, listSpecification(filter, groupId), List.of("name", "permissionsGroup.name", "id"), after, size).map(this::createDTO);
+    }
 
-            all = applicationGrantRepository.findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter);
-            if (all.isEmpty()) {
-                return Page.empty();
-            }
+    private Page<ApplicationGrant> getApplicationGrantsPage(Pageable pageable, String filter, Long groupId) {
+        return offsetPager.find(ApplicationGrant.class, listSpecification(filter, groupId), pageable);
+    }
 
-            return applicationGrantRepository.findAllByIdInAndPermissionsGroupIdIn(all, groups, pageable);
+    private Specification<ApplicationGrant> listSpecification(String filter, Long groupId) {
+        Specification<ApplicationGrant> where = groupUserService.readableGroupScope("permissionsGroup.id", groupId);
+        if (filter != null) {
+            where = where.and(Specification.containsIgnoreCase(filter, "name", "permissionsGroup.name"));
         }
+        return where;
     }
 
     public Page<DetailedGrantDTO> findAllByApplicationId(Pageable pageable, Long applicationId) {
@@ -173,22 +154,7 @@ public class ApplicationGrantService {
     }
 
     public Publisher<HttpResponse<GrantDTO>> create(String grantToken, CreateGrantDTO createGrantDTO) {
-        return Publishers.map(jwtTokenValidator.validateToken(grantToken, null), authentication -> {
-            JWT jwt;
-            JwtClaims claims;
-            try {
-                jwt = JWTParser.parse(grantToken);
-                claims = new JwtClaimsSetAdapter(jwt.getJWTClaimsSet());
-                if (claims.get(JwtClaims.SUBJECT) != null) {
-                    Long applicationId = Long.valueOf((String) claims.get(JwtClaims.SUBJECT));
-                    return create(applicationId, createGrantDTO);
-                } else {
-                    throw new DPMException(ResponseStatusCodes.APPLICATION_GRANT_TOKEN_PARSE_EXCEPTION, HttpStatus.BAD_REQUEST);
-                }
-            } catch (ParseException e) {
-                throw new DPMException(ResponseStatusCodes.APPLICATION_GRANT_TOKEN_PARSE_EXCEPTION, HttpStatus.BAD_REQUEST);
-            }
-        });
+        return Publishers.map(grantTokenVerifier.verify(grantToken), applicationId -> create(applicationId, createGrantDTO));
     }
 
     public HttpResponse<GrantDTO> create(Long applicationId, CreateGrantDTO createGrantDTO) {
@@ -231,6 +197,8 @@ public class ApplicationGrantService {
                 grantDurationOptional.get()
         ));
 
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forApplication(applicationId));
+
         GrantDTO dto = createDTO(newGrant);
         return HttpResponse.created(dto);
     }
@@ -289,6 +257,8 @@ public class ApplicationGrantService {
 
         actionService.deleteAllActionsByApplicationGrantId(grantId);
         applicationGrantRepository.deleteById(grantId);
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forApplication(
+                applicationGrantOptional.get().getPermissionsApplication().getId()));
         return HttpResponse.noContent();
     }
 
@@ -323,7 +293,9 @@ public class ApplicationGrantService {
         applicationGrant.setName(grantDTO.getName().trim());
         applicationGrant.setGrantDuration(grantDurationOptional.get());
 
-        return HttpResponse.ok(createDTO(applicationGrantRepository.update(applicationGrant)));
+        ApplicationGrant updatedGrant = applicationGrantRepository.update(applicationGrant);
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forApplication(updatedGrant.getPermissionsApplication().getId()));
+        return HttpResponse.ok(createDTO(updatedGrant));
     }
 
     public void deleteAllByApplication(Application application) {
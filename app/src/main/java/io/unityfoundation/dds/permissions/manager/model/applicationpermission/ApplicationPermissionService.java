@@ -13,16 +13,11 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.applicationpermission;
 
-import com.nimbusds.jwt.JWT;
-import com.nimbusds.jwt.JWTParser;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
-import io.micronaut.security.token.jwt.generator.claims.JwtClaims;
-import io.micronaut.security.token.jwt.generator.claims.JwtClaimsSetAdapter;
-import io.micronaut.security.token.jwt.validator.JwtTokenValidator;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
 import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
 import io.unityfoundation.dds.permissions.manager.model.application.Application;
@@ -31,11 +26,11 @@ import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserServi
 import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
 import io.unityfoundation.dds.permissions.manager.model.topic.TopicRepository;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.security.GrantTokenVerifier;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
 import jakarta.inject.Singleton;
 import org.reactivestreams.Publisher;
 
-import java.text.ParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -51,12 +46,12 @@ public class ApplicationPermissionService {
     private final WritePartitionRepository writePartitionRepository;
     private final SecurityUtil securityUtil;
     private final GroupUserService groupUserService;
-    private final JwtTokenValidator jwtTokenValidator;
+    private final GrantTokenVerifier grantTokenVerifier;
 
     public ApplicationPermissionService(ApplicationPermissionRepository applicationPermissionRepository,
                                         ApplicationRepository applicationRepository, TopicRepository topicRepository,
                                         ReadPartitionRepository readPartitionRepository, WritePartitionRepository writePartitionRepository,
-                                        SecurityUtil securityUtil, GroupUserService groupUserService, JwtTokenValidator jwtTokenValidator) {
+                                        SecurityUtil securityUtil, GroupUserService groupUserService, GrantTokenVerifier grantTokenVerifier) {
         this.applicationPermissionRepository = applicationPermissionRepository;
         this.applicationRepository = applicationRepository;
         this.topicRepository = topicRepository;
@@ -64,7 +59,7 @@ public class ApplicationPermissionService {
         this.writePartitionRepository = writePartitionRepository;
         this.securityUtil = securityUtil;
         this.groupUserService = groupUserService;
-        this.jwtTokenValidator = jwtTokenValidator;
+        this.grantTokenVerifier = grantTokenVerifier;
     }
 
     public Page<AccessPermissionDTO> indexByTopicId(Long topicId, Pageable pageable) {
@@ -172,22 +167,7 @@ public class ApplicationPermissionService {
     }
 
     public Publisher<HttpResponse<AccessPermissionDTO>> addAccess(String grantToken, Long topicId, AccessPermissionBodyDTO accessPermissionBodyDTO) {
-        return Publishers.map(jwtTokenValidator.validateToken(grantToken, null), authentication -> {
-            JWT jwt;
-            JwtClaims claims;
-            try {
-                jwt = JWTParser.parse(grantToken);
-                claims = new JwtClaimsSetAdapter(jwt.getJWTClaimsSet());
-                if (claims.get(JwtClaims.SUBJECT) != null) {
-                    Long applicationId = Long.valueOf((String) claims.get(JwtClaims.SUBJECT));
-                    return addAccess(applicationId, topicId, accessPermissionBodyDTO);
-                } else {
-                    throw new DPMException(ResponseStatusCodes.APPLICATION_GRANT_TOKEN_PARSE_EXCEPTION, HttpStatus.BAD_REQUEST);
-                }
-            } catch (ParseException e) {
-                throw new DPMException(ResponseStatusCodes.APPLICATION_GRANT_TOKEN_PARSE_EXCEPTION, HttpStatus.BAD_REQUEST);
-            }
-        });
+        return Publishers.map(grantTokenVerifier.verify(grantToken), applicationId -> addAccess(applicationId, topicId, accessPermissionBodyDTO));
     }
 
     public HttpResponse<AccessPermissionDTO> addAccess(Long applicationId, Long topicId, AccessPermissionBodyDTO accessPermissionBodyDTO) {
@@ -14,23 +14,13 @@
 package io.unityfoundation.dds.permissions.manager.model.grantduration;
 
 import io.micronaut.data.annotation.Repository;
-import io.micronaut.data.model.Page;
-import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.PageableRepository;
 import io.unityfoundation.dds.permissions.manager.model.group.Group;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GrantDurationRepository extends PageableRepository<GrantDuration, Long> {
-    Page<GrantDuration> findAllByPermissionsGroupIdIn(List<Long> groupIds, Pageable pageable);
-
-    Page<GrantDuration> findAllByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String name, String groupName, Pageable pageable);
-
-    List<Long> findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String name, String groupName);
-
-    Page<GrantDuration> findAllByIdInAndPermissionsGroupIdIn(List<Long> grandDurationIds, List<Long> groupIds, Pageable pageable);
 
     Optional<GrantDuration> findByNameAndPermissionsGroup(String name, Group group);
 }
\ No newline at end of file
@@ -13,6 +13,7 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.grantduration;
 
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpResponse;
@@ -21,13 +22,19 @@ import io.micronaut.http.MutableHttpResponse;
 import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
 import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantRepository;
+import io.unityfoundation.dds.permissions.manager.model.application.PermissionsChangedEvent;
 import io.unityfoundation.dds.permissions.manager.model.grantduration.dto.GrantDurationDTO;
 import io.unityfoundation.dds.permissions.manager.model.grantduration.dto.CreateGrantDurationDTO;
 import io.unityfoundation.dds.permissions.manager.model.group.Group;
 import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
+import io.unityfoundation.dds.permissions.manager.paging.KeysetPager;
+import io.unityfoundation.dds.permissions.manager.paging.OffsetPager;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.util.AfterCommit;
 import jakarta.inject.Singleton;
 
 import javax.validation.constraints.NotNull;
@@ -43,65 +50,43 @@ public class GrantDurationService {
     private final GroupRepository groupRepository;
     private final SecurityUtil securityUtil;
     private final GroupUserService groupUserService;
+    private final ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher;
+    private final KeysetPager keysetPager;
+    private final OffsetPager offsetPager;
 
-    public GrantDurationService(GrantDurationRepository grantDurationRepository, ApplicationGrantRepository grantRepository, GroupRepository groupRepository, SecurityUtil securityUtil, GroupUserService groupUserService) {
+    public GrantDurationService(GrantDurationRepository grantDurationRepository, ApplicationGrantRepository grantRepository, GroupRepository groupRepository, SecurityUtil securityUtil, GroupUserService groupUserService, ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher, KeysetPager keysetPager, OffsetPager offsetPager) {
         this.grantDurationRepository = grantDurationRepository;
         this.grantRepository = grantRepository;
         this.groupRepository = groupRepository;
         this.securityUtil = securityUtil;
         this.groupUserService = groupUserService;
+        this.permissionsChangedEventPublisher = permissionsChangedEventPublisher;
+        this.keysetPager = keysetPager;
+        this.offsetPager = offsetPager;
     }
 
     public Page<GrantDurationDTO> findAll(Pageable pageable, String filter, Long groupId) {
         return getGrantDurationDTOPage(getGrantDurationPage(pageable, filter, groupId));
     }
 
-    private Page<GrantDuration> getGrantDurationPage(Pageable pageable, String filter, Long groupId) {
+    public CursorPage<GrantDurationDTO> findAll(String after, int size, String filter, Long groupId) {
+        return keysetPager.find(GrantDuration.class, listSpecification(filter, groupId), List.of("name", "permissionsGroup.name", "id"), after, size).map(this::createDTO);
+    }
 
+    private Page<GrantDuration> getGrantDurationPage(Pageable pageable, String filter, Long groupId) {
         if(!pageable.isSorted()) {
             pageable = pageable.order("name").order("permissionsGroup.name");
         }
 
-        List<Long> all;
-        if (securityUtil.isCurrentUserAdmin()) {
-            if (filter == null) {
-                if (groupId == null) {
-                    return grantDurationRepository.findAll(pageable);
-                }
-                return grantDurationRepository.findAllByPermissionsGroupIdIn(List.of(groupId), pageable);
-            }
-
-            if (groupId == null) {
-                return grantDurationRepository.findAllByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, pageable);
-            }
-
-            all = grantDurationRepository.findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter);
-
-            return grantDurationRepository.findAllByIdInAndPermissionsGroupIdIn(all, List.of(groupId), pageable);
-        } else {
-            User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-            List<Long> groups = groupUserService.getAllGroupsUserIsAMemberOf(user.getId());
-
-            if (groups.isEmpty() || (groupId != null && !groups.contains(groupId))) {
-                return Page.empty();
-            }
-
-            if (groupId != null) {
-                // implies groupId exists in member's groups
-                groups = List.of(groupId);
-            }
-
-            if (filter == null) {
-                return grantDurationRepository.findAllByPermissionsGroupIdIn(groups, pageable);
-            }
-
-            all = grantDurationRepository.findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter);
-            if (all.isEmpty()) {
-                return Page.empty();
-            }
+        return offsetPager.find(GrantDuration.class, listSpecification(filter, groupId), pageable);
+    }
 
-            return grantDurationRepository.findAllByIdInAndPermissionsGroupIdIn(all, groups, pageable);
+    private Specification<GrantDuration> listSpecification(String filter, Long groupId) {
+        Specification<GrantDuration> where = groupUserService.readableGroupScope("permissionsGroup.id", groupId);
+        if (filter != null) {
+            where = where.and(Specification.containsIgnoreCase(filter, "name", "permissionsGroup.name"));
         }
+        return where;
     }
 
     private Page<GrantDurationDTO> getGrantDurationDTOPage(Page<GrantDuration> page) {
@@ -175,6 +160,7 @@ public class GrantDurationService {
         grantDuration.setDurationMetadata(grantDurationDTO.getDurationMetadata());
 
         GrantDurationDTO dto = createDTO(grantDurationRepository.update(grantDuration));
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forGroup(grantDuration.getPermissionsGroup().getId()));
         return HttpResponse.ok(dto);
     }
 
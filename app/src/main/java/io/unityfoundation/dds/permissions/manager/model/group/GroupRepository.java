@@ -18,8 +18,10 @@ import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.PageableRepository;
+import io.unityfoundation.dds.permissions.manager.search.SearchDocument;
 
 import javax.validation.constraints.NotNull;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,9 +30,14 @@ public interface GroupRepository extends PageableRepository<Group, Long> {
     Optional<Group> findByName(@NotNull @NonNull String name);
     Page<Group> findAllByIdIn(List<Long> groupIds, Pageable pageable);
     Page<Group> findAllByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(String groupName, String groupDescription, Pageable pageable);
-    List<Long> findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(String groupName, String groupDescription);
     Page<Group> findAllByMakePublicTrue(Pageable pageable);
     List<Group> findTop50ByMakePublicTrue();
+    List<SearchDocument> queryByMakePublicTrue();
+    List<SearchDocument> queryByMakePublicTrue(Pageable pageable);
+    List<SearchDocument> queryByMakePublicTrueAndNameAndIdGreaterThan(String name, Long id, Pageable pageable);
+    List<SearchDocument> queryByMakePublicTrueAndNameGreaterThan(String name, Pageable pageable);
+    List<SearchDocument> queryByMakePublicTrueAndIdIn(Collection<Long> groupIds);
+    long countByMakePublicTrue();
     Page<Group> findByMakePublicTrueAndIdIn(List<Long> groupIds, Pageable pageable);
     List<Group> findTop50ByMakePublicTrueAndIdIn(List<Long> groupIds);
 }
@@ -13,6 +13,7 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.group;
 
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.model.Sort;
@@ -20,19 +21,27 @@ import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MutableHttpResponse;
 import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
-import io.unityfoundation.dds.permissions.manager.model.application.Application;
+import io.unityfoundation.dds.permissions.manager.model.DPMEntity;
 import io.unityfoundation.dds.permissions.manager.model.application.ApplicationRepository;
+import io.unityfoundation.dds.permissions.manager.model.application.PermissionsChangedEvent;
 import io.unityfoundation.dds.permissions.manager.model.applicationpermission.ApplicationPermissionRepository;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
-import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.MembershipChangedEvent;
 import io.unityfoundation.dds.permissions.manager.model.topic.TopicRepository;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
+import io.unityfoundation.dds.permissions.manager.paging.KeysetPager;
+import io.unityfoundation.dds.permissions.manager.paging.OffsetPager;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
+import io.unityfoundation.dds.permissions.manager.search.SearchIndex;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.util.AfterCommit;
 import jakarta.inject.Singleton;
 
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Singleton
@@ -42,33 +51,63 @@ public class GroupService {
     private final ApplicationRepository applicationRepository;
     private final TopicRepository topicRepository;
     private final ApplicationPermissionRepository applicationPermissionRepository;
+    private final GroupSummaryLoader groupSummaryLoader;
     private final SecurityUtil securityUtil;
     private final GroupUserService groupUserService;
-
-
-    public GroupService(GroupRepository groupRepository, ApplicationRepository applicationRepository, TopicRepository topicRepository, ApplicationPermissionRepository applicationPermissionRepository, SecurityUtil securityUtil,
-                        GroupUserService groupUserService) {
+    private final ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher;
+    private final ApplicationEventPublisher<MembershipChangedEvent> membershipChangedEventPublisher;
+    private final SearchIndex searchIndex;
+    private final KeysetPager keysetPager;
+    private final OffsetPager offsetPager;
+
+    public GroupService(GroupRepository groupRepository, ApplicationRepository applicationRepository, TopicRepository topicRepository, ApplicationPermissionRepository applicationPermissionRepository,
+                        GroupSummaryLoader groupSummaryLoader, SecurityUtil securityUtil,
+                        GroupUserService groupUserService, ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher,
+                        ApplicationEventPublisher<MembershipChangedEvent> membershipChangedEventPublisher, SearchIndex searchIndex, KeysetPager keysetPager, OffsetPager offsetPager) {
         this.groupRepository = groupRepository;
         this.applicationRepository = applicationRepository;
         this.topicRepository = topicRepository;
         this.applicationPermissionRepository = applicationPermissionRepository;
+        this.groupSummaryLoader = groupSummaryLoader;
         this.securityUtil = securityUtil;
         this.groupUserService = groupUserService;
+        this.permissionsChangedEventPublisher = permissionsChangedEventPublisher;
+        this.membershipChangedEventPublisher = membershipChangedEventPublisher;
+        this.searchIndex = searchIndex;
+        this.keysetPager = keysetPager;
+        this.offsetPager = offsetPager;
     }
 
     public Page<DetailedGroupDTO> findAll(Pageable pageable, String filter) {
-        return getGroupPage(pageable, filter).map(group -> {
-            DetailedGroupDTO groupsResponseDTO = new DetailedGroupDTO();
-            groupsResponseDTO.setGroupFields(group);
-            groupsResponseDTO.setTopics(group.getTopics().stream().map(Topic::getId).collect(Collectors.toSet()));
-            groupsResponseDTO.setApplications(group.getApplications().stream().map(Application::getId).collect(Collectors.toSet()));
-            groupsResponseDTO.setTopicCount(group.getTopics().size());
-            groupsResponseDTO.setApplicationCount(group.getApplications().size());
-            groupsResponseDTO.setGrantCount(group.getApplicationGrants().size());
-            groupsResponseDTO.setMembershipCount(groupUserService.getMembershipCountByGroup(group));
-
-            return groupsResponseDTO;
-        });
+        Page<Group> page = getGroupPage(pageable, filter);
+        GroupSummaryLoader.GroupSummaries summaries = loadSummaries(page.getContent());
+        return page.map(group -> createDetailedDTO(group, summaries));
+    }
+
+    public CursorPage<DetailedGroupDTO> findAll(String after, int size, String filter) {
+        CursorPage<Group> page = keysetPager.find(Group.class, listSpecification(filter), List.of("name", "id"), after, size);
+        GroupSummaryLoader.GroupSummaries summaries = loadSummaries(page.getContent());
+        return page.map(group -> createDetailedDTO(group, summaries));
+    }
+
+    // ids and counts for the whole page at once; the group's collections are lazy and stay unloaded
+    private GroupSummaryLoader.GroupSummaries loadSummaries(List<Group> groups) {
+        return groupSummaryLoader.load(groups.stream().map(Group::getId).collect(Collectors.toList()));
+    }
+
+    private DetailedGroupDTO createDetailedDTO(Group group, GroupSummaryLoader.GroupSummaries summaries) {
+        DetailedGroupDTO groupsResponseDTO = new DetailedGroupDTO();
+        groupsResponseDTO.setGroupFields(group);
+        Set<Long> topicIds = summaries.getTopicIds(group.getId());
+        Set<Long> applicationIds = summaries.getApplicationIds(group.getId());
+        groupsResponseDTO.setTopics(topicIds);
+        groupsResponseDTO.setApplications(applicationIds);
+        groupsResponseDTO.setTopicCount(topicIds.size());
+        groupsResponseDTO.setApplicationCount(applicationIds.size());
+        groupsResponseDTO.setGrantCount(summaries.getGrantCount(group.getId()));
+        groupsResponseDTO.setMembershipCount(summaries.getMembershipCount(group.getId()));
+
+        return groupsResponseDTO;
     }
 
     private Page<Group> getGroupPage(Pageable pageable, String filter) {
@@ -76,31 +115,19 @@ public class GroupService {
             pageable = pageable.order(Sort.Order.asc("name"));
         }
 
-        if (securityUtil.isCurrentUserAdmin()) {
-            if (filter == null) {
-                return groupRepository.findAll(pageable);
-            }
+        return offsetPager.find(Group.class, listSpecification(filter), pageable);
+    }
 
-            return groupRepository.findAllByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(filter, filter, pageable);
-        } else {
+    private Specification<Group> listSpecification(String filter) {
+        Specification<Group> where = Specification.all();
+        if (!securityUtil.isCurrentUserAdmin()) {
             User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-            List<Long> groupsList = groupUserService.getAllGroupsUserIsAMemberOf(user.getId());
-            if (groupsList.isEmpty()) {
-                return Page.empty();
-            }
-
-            if (filter == null) {
-                return groupRepository.findAllByIdIn(groupsList, pageable);
-            }
-
-            List<Long> searchByNameOrDescription = groupRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(filter, filter);
-            List<Long> intersection = searchByNameOrDescription.stream()
-                    .distinct()
-                    .filter(groupsList::contains)
-                    .collect(Collectors.toList());
-
-            return groupRepository.findAllByIdIn(intersection, pageable);
+            where = Specification.in("id", groupUserService.getAllGroupsUserIsAMemberOf(user.getId()));
         }
+        if (filter != null) {
+            where = where.and(Specification.containsIgnoreCase(filter, "name", "description"));
+        }
+        return where;
     }
 
     public MutableHttpResponse<?> save(SimpleGroupDTO groupRequestDTO) {
@@ -132,6 +159,8 @@ public class GroupService {
             }
 
             group = groupById.get();
+            // members see group names in their introspection attributes
+            boolean renamed = !group.getName().equals(groupRequestDTO.getName());
             group.setName(groupRequestDTO.getName());
             group.setDescription(groupRequestDTO.getDescription());
             if (group.getMakePublic() && !isPublic) {
@@ -140,26 +169,28 @@ public class GroupService {
             group.setMakePublic(isPublic);
 
             group = groupRepository.update(group);
+            if (renamed) {
+                AfterCommit.publish(membershipChangedEventPublisher, MembershipChangedEvent.forGroup(group.getId()));
+            }
         }
+        searchIndex.index(group);
 
         return HttpResponse.ok(new SimpleGroupDTO(group.getId(), group.getName(), group.getDescription(), group.getMakePublic()));
     }
 
     private void cascadePrivate(Group group) {
 
-        if (group.getApplications() != null) {
-            group.getApplications().forEach(application -> {
-                application.setMakePublic(false);
-                applicationRepository.update(application);
-            });
-        }
+        applicationRepository.findAllByPermissionsGroupId(group.getId()).forEach(application -> {
+            application.setMakePublic(false);
+            applicationRepository.update(application);
+            searchIndex.remove(DPMEntity.APPLICATION, application.getId());
+        });
 
-        if (group.getTopics() != null) {
-            group.getTopics().forEach(topic -> {
-                topic.setMakePublic(false);
-                topicRepository.update(topic);
-            });
-        }
+        topicRepository.findAllByPermissionsGroupId(group.getId()).forEach(topic -> {
+            topic.setMakePublic(false);
+            topicRepository.update(topic);
+            searchIndex.remove(DPMEntity.TOPIC, topic.getId());
+        });
     }
 
     public MutableHttpResponse<?> deleteById(Long id) {
@@ -169,10 +200,16 @@ public class GroupService {
         }
 
         Group group = groupOptional.get();
+        List<Long> applicationIds = applicationRepository.findIdByPermissionsGroupId(id);
+        List<Long> topicIds = topicRepository.findIdByPermissionsGroupId(id);
         groupUserService.removeByGroup(group);
-        applicationPermissionRepository.deleteByPermissionsApplicationIdIn(group.getApplications().stream().map(Application::getId).collect(Collectors.toList()));
-        applicationPermissionRepository.deleteByPermissionsTopicIdIn(group.getTopics().stream().map(Topic::getId).collect(Collectors.toList()));
+        applicationPermissionRepository.deleteByPermissionsApplicationIdIn(applicationIds);
+        applicationPermissionRepository.deleteByPermissionsTopicIdIn(topicIds);
         groupRepository.deleteById(id);
+        searchIndex.remove(DPMEntity.GROUP, id);
+        applicationIds.forEach(applicationId -> searchIndex.remove(DPMEntity.APPLICATION, applicationId));
+        topicIds.forEach(topicId -> searchIndex.remove(DPMEntity.TOPIC, topicId));
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forGroup(id));
 
         return HttpResponse.seeOther(URI.create("/api/groups"));
     }
@@ -0,0 +1,120 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.group;
+
+import io.unityfoundation.dds.permissions.manager.model.application.Application;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrant;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUser;
+import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
+import jakarta.inject.Singleton;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Root;
+import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads the child ids and counts shown for a page of groups with one grouped query per child type
+ * (topics, applications, grants, members) rather than a set of queries per group.
+ */
+@Singleton
+public class GroupSummaryLoader {
+
+    private static final String GROUP_ID = "permissionsGroup.id";
+
+    private final EntityManager entityManager;
+
+    public GroupSummaryLoader(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public GroupSummaries load(Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return new GroupSummaries(Map.of(), Map.of(), Map.of(), Map.of());
+        }
+
+        return new GroupSummaries(
+                idsByGroup(Topic.class, groupIds),
+                idsByGroup(Application.class, groupIds),
+                countByGroup(ApplicationGrant.class, groupIds),
+                countByGroup(GroupUser.class, groupIds));
+    }
+
+    private <T> Map<Long, Set<Long>> idsByGroup(Class<T> type, Collection<Long> groupIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(type);
+        Expression<Long> groupId = Specification.path(root, GROUP_ID);
+        query.multiselect(groupId, root.get("id")).where(groupId.in(groupIds));
+
+        Map<Long, Set<Long>> idsByGroup = new HashMap<>();
+        entityManager.createQuery(query).getResultList().forEach(row ->
+                idsByGroup.computeIfAbsent(row.get(0, Long.class), id -> new HashSet<>()).add(row.get(1, Long.class)));
+        return idsByGroup;
+    }
+
+    private <T> Map<Long, Integer> countByGroup(Class<T> type, Collection<Long> groupIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(type);
+        Expression<Long> groupId = Specification.path(root, GROUP_ID);
+        query.multiselect(groupId, criteriaBuilder.count(root)).where(groupId.in(groupIds)).groupBy(groupId);
+
+        Map<Long, Integer> countByGroup = new HashMap<>();
+        entityManager.createQuery(query).getResultList().forEach(row ->
+                countByGroup.put(row.get(0, Long.class), row.get(1, Long.class).intValue()));
+        return countByGroup;
+    }
+
+    public static class GroupSummaries {
+        private final Map<Long, Set<Long>> topicIds;
+        private final Map<Long, Set<Long>> applicationIds;
+        private final Map<Long, Integer> grantCounts;
+        private final Map<Long, Integer> membershipCounts;
+
+        GroupSummaries(Map<Long, Set<Long>> topicIds, Map<Long, Set<Long>> applicationIds,
+                       Map<Long, Integer> grantCounts, Map<Long, Integer> membershipCounts) {
+            this.topicIds = topicIds;
+            this.applicationIds = applicationIds;
+            this.grantCounts = grantCounts;
+            this.membershipCounts = membershipCounts;
+        }
+
+        public Set<Long> getTopicIds(Long groupId) {
+            return topicIds.getOrDefault(groupId, new HashSet<>());
+        }
+
+        public Set<Long> getApplicationIds(Long groupId) {
+            return applicationIds.getOrDefault(groupId, new HashSet<>());
+        }
+
+        public int getGrantCount(Long groupId) {
+            return grantCounts.getOrDefault(groupId, 0);
+        }
+
+        public int getMembershipCount(Long groupId) {
+            return membershipCounts.getOrDefault(groupId, 0);
+        }
+    }
+}
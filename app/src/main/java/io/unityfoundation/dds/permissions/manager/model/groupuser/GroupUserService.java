@@ -13,6 +13,8 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.groupuser;
 
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpResponse;
@@ -26,7 +28,13 @@ import io.unityfoundation.dds.permissions.manager.model.group.GroupAdminRole;
 import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
 import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
+import io.unityfoundation.dds.permissions.manager.paging.KeysetPager;
+import io.unityfoundation.dds.permissions.manager.paging.OffsetPager;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
+import io.unityfoundation.dds.permissions.manager.security.AuthorizationContext;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.util.AfterCommit;
 import jakarta.inject.Singleton;
 
 import javax.transaction.Transactional;
@@ -40,103 +48,103 @@ public class GroupUserService {
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final SecurityUtil securityUtil;
+    private final MembershipIndex membershipIndex;
+    private final UserAttributesCache userAttributesCache;
+    private final ApplicationEventPublisher<MembershipChangedEvent> membershipChangedEventPublisher;
+    private final KeysetPager keysetPager;
+    private final OffsetPager offsetPager;
 
     public GroupUserService(GroupUserRepository groupUserRepository, GroupRepository groupRepository,
-            UserRepository userRepository, SecurityUtil securityUtil) {
+            UserRepository userRepository, SecurityUtil securityUtil, MembershipIndex membershipIndex,
+            UserAttributesCache userAttributesCache, ApplicationEventPublisher<MembershipChangedEvent> membershipChangedEventPublisher,
+            KeysetPager keysetPager, OffsetPager offsetPager) {
         this.groupUserRepository = groupUserRepository;
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
         this.securityUtil = securityUtil;
+        this.membershipIndex = membershipIndex;
+        this.userAttributesCache = userAttributesCache;
+        this.membershipChangedEventPublisher = membershipChangedEventPublisher;
+        this.keysetPager = keysetPager;
+        this.offsetPager = offsetPager;
     }
 
     public Page<GroupUserResponseDTO> findAll(Pageable pageable, String filter, Long groupId) {
         return getGroupMembers(pageable, filter, groupId).map(GroupUserResponseDTO::new);
     }
 
-    private Page<GroupUser> getGroupMembers(Pageable pageable, String filter, Long groupId) {
-        if (!pageable.isSorted()) {
-            pageable = pageable.order("permissionsUser.email").order("permissionsGroup.name");
-        }
+    public CursorPage<GroupUserResponseDTO> findAll(String after, int size, String filter, Long groupId) {
+        return keysetPager.find(GroupUser.class, listSpecification(filter, groupId), List.of("permissionsUser.email", "permissionsGroup.name", "id"), after, size)
+                .map(GroupUserResponseDTO::new);
+    }
 
-        List<Long> all;
+    /**
+     * Restricts a list to the groups the current user may read: the requested group if one is given and, for
+     * non-admins, only groups they are a member of. Matches nothing when no group qualifies.
+     */
+    public <T> Specification<T> readableGroupScope(String groupIdProperty, @Nullable Long groupId) {
         if (securityUtil.isCurrentUserAdmin()) {
-            if (filter == null) {
-                if (groupId == null) {
-                    return groupUserRepository.findAll(pageable);
-                }
-                return groupUserRepository.findAllByPermissionsGroupIdIn(List.of(groupId), pageable);
-            }
-            if (groupId == null) {
-                return groupUserRepository.findAllByPermissionsGroupNameContainsIgnoreCaseOrPermissionsUserEmailContainsIgnoreCase(filter,
-                        filter, pageable);
-            }
-
-            all = groupUserRepository
-                        .findIdByPermissionsGroupNameContainsIgnoreCaseOrPermissionsUserEmailContainsIgnoreCase(filter, filter);
-
-            return groupUserRepository.findAllByIdInAndPermissionsGroupIdIn(all, List.of(groupId), pageable);
-        } else {
-            User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-            List<Long> groupsList = getAllGroupsUserIsAMemberOf(user.getId());
-
-            if (groupsList.isEmpty() || (groupId != null && !groupsList.contains(groupId))) {
-                return Page.empty();
-            }
+            return groupId == null ? Specification.all() : Specification.equal(groupIdProperty, groupId);
+        }
 
-            if (groupId != null) {
-                // implies groupId exists in member's groups
-                groupsList = List.of(groupId);
-            }
+        User user = securityUtil.getCurrentlyAuthenticatedUser().get();
+        List<Long> groups = getAllGroupsUserIsAMemberOf(user.getId());
+        if (groupId != null) {
+            groups = groups.contains(groupId) ? List.of(groupId) : List.of();
+        }
+        return Specification.in(groupIdProperty, groups);
+    }
 
-            if (filter == null) {
-                return groupUserRepository.findAllByPermissionsGroupIdIn(groupsList, pageable);
-            }
+    private Page<GroupUser> getGroupMembers(Pageable pageable, String filter, Long groupId) {
+        if (!pageable.isSorted()) {
+            pageable = pageable.order("permissionsUser.email").order("permissionsGroup.name");
+        }
 
-            all = groupUserRepository
-                    .findIdByPermissionsGroupNameContainsIgnoreCaseOrPermissionsUserEmailContainsIgnoreCase(filter, filter);
-            if (all.isEmpty()) {
-                return Page.empty();
-            }
+        return offsetPager.find(GroupUser.class, listSpecification(filter, groupId), pageable);
+    }
 
-            return groupUserRepository.findAllByIdInAndPermissionsGroupIdIn(all, groupsList, pageable);
+    private Specification<GroupUser> listSpecification(String filter, Long groupId) {
+        Specification<GroupUser> where = readableGroupScope("permissionsGroup.id", groupId);
+        if (filter != null) {
+            where = where.and(Specification.containsIgnoreCase(filter, "permissionsGroup.name", "permissionsUser.email"));
         }
+        return where;
     }
 
     @Transactional(Transactional.TxType.REQUIRES_NEW)
     public void removeUserFromAllGroups(Long userId) {
         groupUserRepository.deleteAllByPermissionsUserId(userId);
+        membershipsChanged(MembershipChangedEvent.forUser(userId));
     }
 
     public boolean isUserGroupAdminOfGroup(Long groupId, Long userId) {
-        int groupUserCount = groupUserRepository.countByPermissionsGroupIdAndPermissionsUserIdAndGroupAdminTrue(groupId,
-                userId);
-        return groupUserCount > 0;
+        return MembershipIndex.hasRole(getRolesByGroup(userId), groupId, MembershipIndex.GROUP_ADMIN);
     }
 
     public boolean isUserTopicAdminOfGroup(Long groupId, Long userId) {
-        int groupUserCount = groupUserRepository.countByPermissionsGroupIdAndPermissionsUserIdAndTopicAdminTrue(groupId,
-                userId);
-        return groupUserCount > 0;
+        return MembershipIndex.hasRole(getRolesByGroup(userId), groupId, MembershipIndex.TOPIC_ADMIN);
     }
 
     public boolean isUserApplicationAdminOfGroup(Long groupId, Long userId) {
-        int groupUserCount = groupUserRepository
-                .countByPermissionsGroupIdAndPermissionsUserIdAndApplicationAdminTrue(groupId, userId);
-        return groupUserCount > 0;
+        return MembershipIndex.hasRole(getRolesByGroup(userId), groupId, MembershipIndex.APPLICATION_ADMIN);
     }
 
     public List<Long> getAllGroupsUserIsAMemberOf(Long userId) {
-        return groupUserRepository.findAllByPermissionsUserId(userId).stream().map(GroupUser::getPermissionsGroup)
-                .map(Group::getId).collect(Collectors.toList());
+        return new ArrayList<>(getRolesByGroup(userId).keySet());
     }
 
     public boolean isUserMemberOfGroup(Long groupId, Long userId) {
-        return groupUserRepository.existsByPermissionsGroupIdAndPermissionsUserId(groupId, userId);
+        return MembershipIndex.hasRole(getRolesByGroup(userId), groupId, MembershipIndex.MEMBER);
+    }
+
+    // the current user's roles come from the request's authorization context, anyone else's from the index
+    private Map<Long, Integer> getRolesByGroup(Long userId) {
+        AuthorizationContext context = securityUtil.getAuthorizationContext();
+        return context.isFor(userId) ? context.getRolesByGroup() : membershipIndex.getRolesByGroup(userId);
     }
 
     public boolean isCurrentUserMemberOfGroup(Long groupId) {
-        Long userId = securityUtil.getCurrentlyAuthenticatedUser().get().getId();
-        return isUserMemberOfGroup(groupId, userId);
+        return securityUtil.getAuthorizationContext().isMemberOf(groupId);
     }
 
     public List<GroupUser> getUsersOfGroup(Long groupId) {
@@ -148,14 +156,12 @@ public class GroupUserService {
     }
 
     public boolean isAdminOrGroupAdmin(Long groupId) {
-        Optional<Group> group = groupRepository.findById(groupId);
-        Optional<User> user = securityUtil.getCurrentlyAuthenticatedUser();
-
-        if (group.isEmpty() || user.isEmpty()) {
+        AuthorizationContext context = securityUtil.getAuthorizationContext();
+        if (!context.isAuthenticatedUser() || !groupRepository.existsById(groupId)) {
             return false;
         }
 
-        return user.get().isAdmin() || isUserGroupAdminOfGroup(group.get().getId(), user.get().getId());
+        return context.isAdmin() || context.isGroupAdminOf(groupId);
     }
 
     @Transactional
@@ -206,7 +212,12 @@ public class GroupUserService {
         groupUser.setTopicAdmin(groupUserDTO.isTopicAdmin());
         groupUser.setApplicationAdmin(groupUserDTO.isApplicationAdmin());
 
-        return groupUserRepository.save(groupUser);
+        user.setPermissionsLastUpdated(System.currentTimeMillis());
+        userRepository.update(user);
+
+        GroupUser saved = groupUserRepository.save(groupUser);
+        membershipsChanged(MembershipChangedEvent.forUser(user.getId()));
+        return saved;
     }
 
     private GroupUser updateFromDTO(GroupUser groupUser, GroupUserDTO groupUserDTO) {
@@ -218,7 +229,9 @@ public class GroupUserService {
         user.setPermissionsLastUpdated(System.currentTimeMillis());
         userRepository.update(user);
 
-        return groupUserRepository.update(groupUser);
+        GroupUser updated = groupUserRepository.update(groupUser);
+        membershipsChanged(MembershipChangedEvent.forUser(user.getId()));
+        return updated;
     }
 
     public HttpResponse removeMember(Long id) {
@@ -245,6 +258,7 @@ public class GroupUserService {
             user.setPermissionsLastUpdated(System.currentTimeMillis());
             userRepository.update(user);
         }
+        membershipsChanged(MembershipChangedEvent.forUser(user.getId()));
 
         return HttpResponse.ok();
     }
@@ -292,24 +306,25 @@ public class GroupUserService {
         return groupUserRepository.countByPermissionsGroup(group);
     }
 
-    public HashMap<String, Object> checkUserValidity() {
+    public Map<String, Object> checkUserValidity() {
 
-        Optional<User> userOptional = securityUtil.getCurrentlyAuthenticatedUser();
-        if (userOptional.isEmpty()
-                || (!userOptional.get().isAdmin() && countMembershipsByUserId(userOptional.get().getId()) == 0)) {
+        AuthorizationContext context = securityUtil.getAuthorizationContext();
+        Optional<User> userOptional = context.getUser();
+        if (userOptional.isEmpty() || (!context.isAdmin() && context.getGroupIds().isEmpty())) {
             throw new DPMException(ResponseStatusCodes.USER_IS_NOT_VALID, HttpStatus.NOT_FOUND);
         }
 
         User user = userOptional.get();
-        HashMap<String, Object> attributes = new HashMap<>();
-        List<Map<String, Object>> permissions = getAllPermissionsPerGroupUserIsMemberOf(user.getId());
-        attributes.put("name", user.getEmail());
-        attributes.put("permissionsByGroup", permissions);
-        attributes.put("id", user.getId());
-        attributes.put("isAdmin", user.isAdmin());
-        attributes.put("permissionsLastUpdated", user.getPermissionsLastUpdated());
-
-        return attributes;
+        return userAttributesCache.get(user, context.getGroupIds(), () -> {
+            HashMap<String, Object> attributes = new HashMap<>();
+            List<Map<String, Object>> permissions = getAllPermissionsPerGroupUserIsMemberOf(user.getId());
+            attributes.put("name", user.getEmail());
+            attributes.put("permissionsByGroup", permissions);
+            attributes.put("id", user.getId());
+            attributes.put("isAdmin", user.isAdmin());
+            attributes.put("permissionsLastUpdated", user.getPermissionsLastUpdated());
+            return attributes;
+        });
     }
 
     public void removeByGroup(Group group) {
@@ -323,8 +338,19 @@ public class GroupUserService {
             int countByPermissionsUser = groupUserRepository.countByPermissionsUserIdAndPermissionsGroupIdNotEqual(user.getId(), group.getId());
             if (countByPermissionsUser == 0) {
                 userRepository.delete(user);
+            } else {
+                user.setPermissionsLastUpdated(System.currentTimeMillis());
+                userRepository.update(user);
             }
         });
+        membershipsChanged(MembershipChangedEvent.forGroup(group.getId()));
+    }
+
+    // invalidated index entries are reloaded from the database, so invalidating before the commit would let a
+    // concurrent request cache the old memberships again; this request's own context is dropped right away
+    private void membershipsChanged(MembershipChangedEvent event) {
+        AfterCommit.publish(membershipChangedEventPublisher, event);
+        securityUtil.invalidateAuthorizationContext();
     }
 
     public HttpResponse checkUserExists(Long id) {
@@ -0,0 +1,51 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.groupuser;
+
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * Published whenever group memberships or roles change, either for a single user or for every member of a group.
+ */
+public class MembershipChangedEvent {
+
+    @Nullable
+    private final Long userId;
+
+    @Nullable
+    private final Long groupId;
+
+    private MembershipChangedEvent(@Nullable Long userId, @Nullable Long groupId) {
+        this.userId = userId;
+        this.groupId = groupId;
+    }
+
+    public static MembershipChangedEvent forUser(Long userId) {
+        return new MembershipChangedEvent(userId, null);
+    }
+
+    public static MembershipChangedEvent forGroup(Long groupId) {
+        return new MembershipChangedEvent(null, groupId);
+    }
+
+    @Nullable
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Nullable
+    public Long getGroupId() {
+        return groupId;
+    }
+}
@@ -0,0 +1,136 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.groupuser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group roles of each user as a bitmask per group, loaded on first use and dropped on {@link MembershipChangedEvent}s.
+ * Entries also expire after a bounded time, which limits how long changes made by another instance go unnoticed.
+ */
+@Singleton
+public class MembershipIndex {
+
+    public static final String CACHE_NAME = "group-memberships";
+
+    public static final int MEMBER = 1;
+    public static final int GROUP_ADMIN = 1 << 1;
+    public static final int TOPIC_ADMIN = 1 << 2;
+    public static final int APPLICATION_ADMIN = 1 << 3;
+
+    @Property(name = "permissions-manager.membership-index.maximum-size", defaultValue = "10000")
+    protected Long maximumSize;
+
+    @Property(name = "permissions-manager.membership-index.expire-after-write", defaultValue = "1m")
+    protected Duration expireAfterWrite;
+
+    private final GroupUserRepository groupUserRepository;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong generation = new AtomicLong();
+    private Cache<Long, Map<Long, Integer>> cache;
+
+    public MembershipIndex(GroupUserRepository groupUserRepository, MeterRegistry meterRegistry) {
+        this.groupUserRepository = groupUserRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void initialize() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public static int roles(GroupUser groupUser) {
+        return roles(groupUser.isGroupAdmin(), groupUser.isTopicAdmin(), groupUser.isApplicationAdmin());
+    }
+
+    public static int roles(boolean groupAdmin, boolean topicAdmin, boolean applicationAdmin) {
+        return MEMBER |
+                (groupAdmin ? GROUP_ADMIN : 0) |
+                (topicAdmin ? TOPIC_ADMIN : 0) |
+                (applicationAdmin ? APPLICATION_ADMIN : 0);
+    }
+
+    public static boolean hasRole(Map<Long, Integer> rolesByGroup, Long groupId, int role) {
+        Integer roles = rolesByGroup.get(groupId);
+        return roles != null && (roles & role) == role;
+    }
+
+    public boolean hasRole(Long userId, Long groupId, int role) {
+        return hasRole(getRolesByGroup(userId), groupId, role);
+    }
+
+    public Map<Long, Integer> getRolesByGroup(Long userId) {
+        Map<Long, Integer> rolesByGroup = cache.getIfPresent(userId);
+        if (rolesByGroup != null) {
+            return rolesByGroup;
+        }
+
+        // a load that overlaps an invalidation may have read the old memberships, so it is not kept
+        long loadGeneration = generation.get();
+        rolesByGroup = load(userId);
+        cache.put(userId, rolesByGroup);
+        if (generation.get() != loadGeneration) {
+            cache.invalidate(userId);
+        }
+        return rolesByGroup;
+    }
+
+    private Map<Long, Integer> load(Long userId) {
+        List<GroupUser> groupUsers = groupUserRepository.findAllByPermissionsUserId(userId);
+        Map<Long, Integer> rolesByGroup = new LinkedHashMap<>();
+        groupUsers.stream()
+                .filter(groupUser -> groupUser.getPermissionsGroup() != null)
+                .forEach(groupUser -> rolesByGroup.merge(groupUser.getPermissionsGroup().getId(), roles(groupUser), (a, b) -> a | b));
+        return Collections.unmodifiableMap(rolesByGroup);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        generation.incrementAndGet();
+
+        Long userId = event.getUserId();
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+
+        Long groupId = event.getGroupId();
+        if (groupId != null) {
+            cache.asMap().values().removeIf(rolesByGroup -> rolesByGroup.containsKey(groupId));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.groupuser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.unityfoundation.dds.permissions.manager.model.user.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The attributes added to token introspection responses, per user and {@code permissionsLastUpdated}. An entry is
+ * used only while the user's {@code permissionsLastUpdated} is unchanged, and is dropped on {@link MembershipChangedEvent}s,
+ * which also cover renamed groups.
+ */
+@Singleton
+public class UserAttributesCache {
+
+    public static final String CACHE_NAME = "user-attributes";
+
+    @Property(name = "permissions-manager.user-attributes.maximum-size", defaultValue = "10000")
+    protected Long maximumSize;
+
+    @Property(name = "permissions-manager.user-attributes.expire-after-write", defaultValue = "10m")
+    protected Duration expireAfterWrite;
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong generation = new AtomicLong();
+    private Cache<Long, Entry> cache;
+
+    public UserAttributesCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void initialize() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Map<String, Object> get(User user, Set<Long> groupIds, Supplier<Map<String, Object>> loader) {
+        Entry entry = cache.getIfPresent(user.getId());
+        if (entry != null && Objects.equals(entry.permissionsLastUpdated, user.getPermissionsLastUpdated())) {
+            return entry.attributes;
+        }
+
+        // a load that overlaps an invalidation may have read the old memberships, so it is not kept
+        long loadGeneration = generation.get();
+        Map<String, Object> attributes = Collections.unmodifiableMap(new HashMap<>(loader.get()));
+        cache.put(user.getId(), new Entry(user.getPermissionsLastUpdated(), Set.copyOf(groupIds), attributes));
+        if (generation.get() != loadGeneration) {
+            cache.invalidate(user.getId());
+        }
+        return attributes;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        generation.incrementAndGet();
+
+        Long userId = event.getUserId();
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+
+        Long groupId = event.getGroupId();
+        if (groupId != null) {
+            cache.asMap().values().removeIf(entry -> entry.groupIds.contains(groupId));
+        }
+    }
+
+    private static final class Entry {
+        private final Long permissionsLastUpdated;
+        private final Set<Long> groupIds;
+        private final Map<String, Object> attributes;
+
+        private Entry(Long permissionsLastUpdated, Set<Long> groupIds, Map<String, Object> attributes) {
+            this.permissionsLastUpdated = permissionsLastUpdated;
+            this.groupIds = groupIds;
+            this.attributes = attributes;
+        }
+    }
+}
@@ -14,41 +14,54 @@
 package io.unityfoundation.dds.permissions.manager.model.topic;
 
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.data.annotation.Join;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.PageableRepository;
 import io.unityfoundation.dds.permissions.manager.model.group.Group;
+import io.unityfoundation.dds.permissions.manager.search.SearchDocument;
 
 import javax.validation.constraints.NotNull;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TopicRepository extends PageableRepository<Topic, Long> {
 
-    Page<Topic> findAllByPermissionsGroupIdIn(List<Long> groupIds, Pageable pageable);
-
-    Page<Topic> findAllByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String topic, String topicDescription, String group, Pageable pageable);
-
-    List<Long> findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String topic,String topicDescription, String group);
-
-    Page<Topic> findAllByIdInAndPermissionsGroupIdIn(List<Long> all, List<Long> groups, Pageable pageable);
-
     Optional<Topic> findByNameAndPermissionsGroup(@NotNull @NonNull String name,
                                                   @NotNull @NonNull Group group);
 
     List<Long> findIdByPermissionsGroupIdIn(List<Long> groups);
 
+    List<Long> findIdByPermissionsGroupId(Long groupId);
+
+    List<Topic> findAllByPermissionsGroupId(Long groupId);
+
     Page<Topic> findAllByMakePublicTrue(Pageable pageable);
 
     List<Topic> findTop50ByMakePublicTrue();
 
-    List<Long> findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(String topic, String topicDescription);
+    List<SearchDocument> queryByMakePublicTrue();
+
+    @Join(value = "permissionsGroup", type = Join.Type.FETCH)
+    List<Topic> findByMakePublicTrue(Pageable pageable);
+
+    @Join(value = "permissionsGroup", type = Join.Type.FETCH)
+    List<Topic> findByMakePublicTrueAndNameAndIdGreaterThan(String name, Long id, Pageable pageable);
+
+    @Join(value = "permissionsGroup", type = Join.Type.FETCH)
+    List<Topic> findByMakePublicTrueAndNameGreaterThan(String name, Pageable pageable);
+
+    long countByMakePublicTrue();
 
     Page<Topic> findByMakePublicTrueAndIdIn(List<Long> entityIds, Pageable pageable);
 
     List<Topic> findTop50ByMakePublicTrueAndIdIn(List<Long> secondEntityIds);
 
     Optional<Topic> findByIdAndPermissionsGroupId(Long id, Long groupId);
+
+    @Join(value = "permissionsGroup", type = Join.Type.FETCH)
+    List<Topic> findAllByMakePublicTrueAndIdIn(Collection<Long> ids);
 }
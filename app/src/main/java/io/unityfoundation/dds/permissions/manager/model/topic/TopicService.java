@@ -13,6 +13,7 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.topic;
 
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpResponse;
@@ -21,14 +22,22 @@ import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.security.authentication.AuthenticationException;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
 import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
+import io.unityfoundation.dds.permissions.manager.model.DPMEntity;
 import io.unityfoundation.dds.permissions.manager.model.actiontopic.ActionTopicRepository;
+import io.unityfoundation.dds.permissions.manager.model.application.PermissionsChangedEvent;
 import io.unityfoundation.dds.permissions.manager.model.applicationpermission.ApplicationPermissionService;
 import io.unityfoundation.dds.permissions.manager.model.group.Group;
 import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
 import io.unityfoundation.dds.permissions.manager.model.topicsettopic.TopicSetTopicRepository;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
+import io.unityfoundation.dds.permissions.manager.paging.KeysetPager;
+import io.unityfoundation.dds.permissions.manager.paging.OffsetPager;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
+import io.unityfoundation.dds.permissions.manager.search.SearchIndex;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.util.AfterCommit;
 import jakarta.inject.Singleton;
 
 import java.net.URI;
@@ -46,8 +55,12 @@ public class TopicService {
     private final TopicSetTopicRepository topicSetTopicRepository;
     private final ApplicationPermissionService applicationPermissionService;
     private final OnUpdateTopicWebSocket onUpdateTopicWebSocket;
+    private final ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher;
+    private final SearchIndex searchIndex;
+    private final KeysetPager keysetPager;
+    private final OffsetPager offsetPager;
 
-    public TopicService(TopicRepository topicRepository, SecurityUtil securityUtil, GroupUserService groupUserService, GroupRepository groupRepository, ActionTopicRepository actionTopicRepository, TopicSetTopicRepository topicSetTopicRepository, ApplicationPermissionService applicationPermissionService, OnUpdateTopicWebSocket onUpdateTopicWebSocket) {
+    public TopicService(TopicRepository topicRepository, SecurityUtil securityUtil, GroupUserService groupUserService, GroupRepository groupRepository, ActionTopicRepository actionTopicRepository, TopicSetTopicRepository topicSetTopicRepository, ApplicationPermissionService applicationPermissionService, OnUpdateTopicWebSocket onUpdateTopicWebSocket, ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher, SearchIndex searchIndex, KeysetPager keysetPager, OffsetPager offsetPager) {
         this.topicRepository = topicRepository;
         this.securityUtil = securityUtil;
         this.groupUserService = groupUserService;
@@ -56,58 +69,34 @@ public class TopicService {
         this.topicSetTopicRepository = topicSetTopicRepository;
         this.applicationPermissionService = applicationPermissionService;
         this.onUpdateTopicWebSocket = onUpdateTopicWebSocket;
+        this.permissionsChangedEventPublisher = permissionsChangedEventPublisher;
+        this.searchIndex = searchIndex;
+        this.keysetPager = keysetPager;
+        this.offsetPager = offsetPager;
     }
 
     public Page<TopicDTO> findAll(Pageable pageable, String filter, Long groupId) {
         return getTopicPage(pageable, filter, groupId).map(TopicDTO::new);
     }
 
-    private Page<Topic> getTopicPage(Pageable pageable, String filter, Long groupId) {
+    public CursorPage<TopicDTO> findAll(String after, int size, String filter, Long groupId) {
+        return keysetPager.find(Topic.class, listSpecification(filter, groupId), List.of("name", "permissionsGroup.name", "id"), after, size).map(TopicDTO::new);
+    }
 
+    private Page<Topic> getTopicPage(Pageable pageable, String filter, Long groupId) {
         if(!pageable.isSorted()) {
             pageable = pageable.order("name").order("permissionsGroup.name");
         }
 
-        List<Long> all;
-        if (securityUtil.isCurrentUserAdmin()) {
-            if (filter == null) {
-                if (groupId == null) {
-                    return topicRepository.findAll(pageable);
-                }
-                return topicRepository.findAllByPermissionsGroupIdIn(List.of(groupId), pageable);
-            }
-
-            if (groupId == null) {
-                return topicRepository.findAllByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, filter, pageable);
-            }
-
-            all = topicRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, filter);
-
-            return topicRepository.findAllByIdInAndPermissionsGroupIdIn(all, List.of(groupId), pageable);
-        } else {
-            User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-            List<Long> groups = groupUserService.getAllGroupsUserIsAMemberOf(user.getId());
-
-            if (groups.isEmpty() || (groupId != null && !groups.contains(groupId))) {
-                return Page.empty();
-            }
-
-            if (groupId != null) {
-                // implies groupId exists in member's groups
-                groups = List.of(groupId);
-            }
-
-            if (filter == null) {
-                return topicRepository.findAllByPermissionsGroupIdIn(groups, pageable);
-            }
-
-            all = topicRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, filter);
-            if (all.isEmpty()) {
-                return Page.empty();
-            }
+        return offsetPager.find(Topic.class, listSpecification(filter, groupId), pageable);
+    }
 
-            return topicRepository.findAllByIdInAndPermissionsGroupIdIn(all, groups, pageable);
+    private Specification<Topic> listSpecification(String filter, Long groupId) {
+        Specification<Topic> where = groupUserService.readableGroupScope("permissionsGroup.id", groupId);
+        if (filter != null) {
+            where = where.and(Specification.containsIgnoreCase(filter, "name", "description", "permissionsGroup.name"));
         }
+        return where;
     }
 
     public MutableHttpResponse<?> save(TopicDTO topicDTO) {
@@ -162,6 +151,7 @@ public class TopicService {
 
             topic = topicRepository.save(newTopic);
         }
+        searchIndex.index(topic);
 
         TopicDTO responseTopicDTO = new TopicDTO(topic);
         return HttpResponse.ok(responseTopicDTO);
@@ -183,6 +173,8 @@ public class TopicService {
         removeFromAssociatedActions(topic);
 
         topicRepository.deleteById(id);
+        searchIndex.remove(DPMEntity.TOPIC, id);
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forGroup(topic.getPermissionsGroup().getId()));
         onUpdateTopicWebSocket.broadcastResourceEvent(OnUpdateTopicWebSocket.TOPIC_DELETED, topic.getId());
         return HttpResponse.seeOther(URI.create("/api/topics"));
     }
@@ -14,23 +14,13 @@
 package io.unityfoundation.dds.permissions.manager.model.topicset;
 
 import io.micronaut.data.annotation.Repository;
-import io.micronaut.data.model.Page;
-import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.PageableRepository;
 import io.unityfoundation.dds.permissions.manager.model.group.Group;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TopicSetRepository extends PageableRepository<TopicSet, Long> {
-    Page<TopicSet> findAllByPermissionsGroupIdIn(List<Long> groupIds, Pageable pageable);
-
-    Page<TopicSet> findAllByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String name, String groupName, Pageable pageable);
-
-    List<Long> findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(String name, String groupName);
-
-    Page<TopicSet> findAllByIdInAndPermissionsGroupIdIn(List<Long> topicSets, List<Long> groupIds, Pageable pageable);
 
     Optional<TopicSet> findByNameAndPermissionsGroup(String name, Group group);
     Optional<TopicSet> findByIdAndPermissionsGroupId(Long id, Long groupId);
@@ -13,6 +13,7 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.topicset;
 
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpResponse;
@@ -20,6 +21,7 @@ import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MutableHttpResponse;
 import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
+import io.unityfoundation.dds.permissions.manager.model.application.PermissionsChangedEvent;
 import io.unityfoundation.dds.permissions.manager.model.group.Group;
 import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
@@ -31,7 +33,12 @@ import io.unityfoundation.dds.permissions.manager.model.topicset.dto.UpdateTopic
 import io.unityfoundation.dds.permissions.manager.model.topicsettopic.TopicSetTopic;
 import io.unityfoundation.dds.permissions.manager.model.topicsettopic.TopicSetTopicRepository;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.paging.CursorPage;
+import io.unityfoundation.dds.permissions.manager.paging.KeysetPager;
+import io.unityfoundation.dds.permissions.manager.paging.OffsetPager;
+import io.unityfoundation.dds.permissions.manager.paging.Specification;
 import io.unityfoundation.dds.permissions.manager.security.SecurityUtil;
+import io.unityfoundation.dds.permissions.manager.util.AfterCommit;
 import jakarta.inject.Singleton;
 
 import javax.validation.constraints.NotNull;
@@ -50,66 +57,44 @@ public class TopicSetService {
     private final GroupRepository groupRepository;
     private final SecurityUtil securityUtil;
     private final GroupUserService groupUserService;
+    private final ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher;
+    private final KeysetPager keysetPager;
+    private final OffsetPager offsetPager;
 
-    public TopicSetService(TopicSetRepository topicSetRepository, TopicRepository topicRepository, TopicSetTopicRepository topicSetTopicRepository, GroupRepository groupRepository, SecurityUtil securityUtil, GroupUserService groupUserService) {
+    public TopicSetService(TopicSetRepository topicSetRepository, TopicRepository topicRepository, TopicSetTopicRepository topicSetTopicRepository, GroupRepository groupRepository, SecurityUtil securityUtil, GroupUserService groupUserService, ApplicationEventPublisher<PermissionsChangedEvent> permissionsChangedEventPublisher, KeysetPager keysetPager, OffsetPager offsetPager) {
         this.topicSetRepository = topicSetRepository;
         this.topicRepository = topicRepository;
         this.topicSetTopicRepository = topicSetTopicRepository;
         this.groupRepository = groupRepository;
         this.securityUtil = securityUtil;
         this.groupUserService = groupUserService;
+        this.permissionsChangedEventPublisher = permissionsChangedEventPublisher;
+        this.keysetPager = keysetPager;
+        this.offsetPager = offsetPager;
     }
 
     public Page<TopicSetDTO> findAll(Pageable pageable, String filter, Long groupId) {
         return getTopicSetDTOPage(getTopicSetPage(pageable, filter, groupId));
     }
 
-    private Page<TopicSet> getTopicSetPage(Pageable pageable, String filter, Long groupId) {
+    public CursorPage<TopicSetDTO> findAll(String after, int size, String filter, Long groupId) {
+        return keysetPager.find(TopicSet.class, listSpecification(filter, groupId), List.of("name", "permissionsGroup.name", "id"), after, size).map(this::createDTO);
+    }
 
+    private Page<TopicSet> getTopicSetPage(Pageable pageable, String filter, Long groupId) {
         if(!pageable.isSorted()) {
             pageable = pageable.order("name").order("permissionsGroup.name");
         }
 
-        List<Long> all;
-        if (securityUtil.isCurrentUserAdmin()) {
-            if (filter == null) {
-                if (groupId == null) {
-                    return topicSetRepository.findAll(pageable);
-                }
-                return topicSetRepository.findAllByPermissionsGroupIdIn(List.of(groupId), pageable);
-            }
-
-            if (groupId == null) {
-                return topicSetRepository.findAllByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter, pageable);
-            }
-
-            all = topicSetRepository.findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter);
-
-            return topicSetRepository.findAllByIdInAndPermissionsGroupIdIn(all, List.of(groupId), pageable);
-        } else {
-            User user = securityUtil.getCurrentlyAuthenticatedUser().get();
-            List<Long> groups = groupUserService.getAllGroupsUserIsAMemberOf(user.getId());
-
-            if (groups.isEmpty() || (groupId != null && !groups.contains(groupId))) {
-                return Page.empty();
-            }
-
-            if (groupId != null) {
-                // implies groupId exists in member's groups
-                groups = List.of(groupId);
-            }
-
-            if (filter == null) {
-                return topicSetRepository.findAllByPermissionsGroupIdIn(groups, pageable);
-            }
-
-            all = topicSetRepository.findIdByNameContainsIgnoreCaseOrPermissionsGroupNameContainsIgnoreCase(filter, filter);
-            if (all.isEmpty()) {
-                return Page.empty();
-            }
+        return offsetPager.find(TopicSet.class, listSpecification(filter, groupId), pageable);
+    }
 
-            return topicSetRepository.findAllByIdInAndPermissionsGroupIdIn(all, groups, pageable);
+    private Specification<TopicSet> listSpecification(String filter, Long groupId) {
+        Specification<TopicSet> where = groupUserService.readableGroupScope("permissionsGroup.id", groupId);
+        if (filter != null) {
+            where = where.and(Specification.containsIgnoreCase(filter, "name", "permissionsGroup.name"));
         }
+        return where;
     }
 
     private Page<TopicSetDTO> getTopicSetDTOPage(Page<TopicSet> page) {
@@ -182,7 +167,9 @@ public class TopicSetService {
 
         checkExistenceAndAdminAuthorization(topicSetOptional);
 
-        topicSetRepository.delete(topicSetOptional.get());
+        TopicSet topicSet = topicSetOptional.get();
+        topicSetRepository.delete(topicSet);
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forGroup(topicSet.getPermissionsGroup().getId()));
         return HttpResponse.noContent();
     }
 
@@ -208,6 +195,7 @@ public class TopicSetService {
 
         topicSetTopicRepository.save(new TopicSetTopic(topicSet, topic));
         topicSet.setDateUpdated(Instant.now());
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forGroup(topicSet.getPermissionsGroup().getId()));
         return HttpResponse.created(createDTO(topicSetRepository.update(topicSet)));
     }
 
@@ -233,6 +221,7 @@ public class TopicSetService {
 
         topicSetTopicRepository.deleteByPermissionsTopicSetAndPermissionsTopic(topicSet, topic);
         topicSet.setDateUpdated(Instant.now());
+        AfterCommit.publish(permissionsChangedEventPublisher, PermissionsChangedEvent.forGroup(topicSet.getPermissionsGroup().getId()));
         return HttpResponse.ok(createDTO(topicSetRepository.update(topicSet)));
     }
 
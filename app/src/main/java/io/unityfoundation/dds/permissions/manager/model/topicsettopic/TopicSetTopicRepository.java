@@ -13,6 +13,7 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.model.topicsettopic;
 
+import io.micronaut.data.annotation.Join;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.repository.PageableRepository;
 import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
@@ -26,4 +27,6 @@ public interface TopicSetTopicRepository extends PageableRepository<TopicSetTopi
     void deleteByPermissionsTopicSetAndPermissionsTopic(TopicSet topicSet, Topic topic);
     List<Topic> findPermissionsTopicByPermissionsTopicSet(TopicSet topicSet);
     boolean existsByPermissionsTopicSetAndPermissionsTopic(TopicSet topicSet, Topic topic);
+    @Join("permissionsTopic")
+    List<TopicSetTopic> findAllByPermissionsTopicSetIdIn(List<Long> topicSetIds);
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.model.user;
+
+import io.micronaut.core.annotation.Introspected;
+
+/**
+ * The columns of a {@link User} needed to decide whether claims issued for them are still current.
+ */
+@Introspected
+public class UserPermissionsVersion {
+    private final Long id;
+    private final boolean admin;
+    private final Long permissionsLastUpdated;
+
+    public UserPermissionsVersion(Long id, boolean admin, Long permissionsLastUpdated) {
+        this.id = id;
+        this.admin = admin;
+        this.permissionsLastUpdated = permissionsLastUpdated;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public Long getPermissionsLastUpdated() {
+        return permissionsLastUpdated;
+    }
+}
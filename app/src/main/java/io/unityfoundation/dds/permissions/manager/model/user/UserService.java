@@ -98,6 +98,7 @@ public class UserService {
             user = userRepository.update(user);
             LOG.info(user.getEmail() + " is now a super admin");
         }
+        securityUtil.invalidateAuthorizationContext();
 
         return HttpResponse.ok(new AdminDTO(user.getId(), user.getEmail()));
     }
@@ -114,6 +115,7 @@ public class UserService {
     public void deleteById(Long id) {
         removeUserFromGroups(id);
         userRepository.deleteById(id);
+        securityUtil.invalidateAuthorizationContext();
     }
 
     @Transactional(Transactional.TxType.REQUIRES_NEW)
@@ -139,6 +141,7 @@ public class UserService {
             user.setAdmin(false);
             userRepository.update(user);
         }
+        securityUtil.invalidateAuthorizationContext();
 
         return true;
     }
@@ -0,0 +1,161 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.paging;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.json.JsonMapper;
+import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
+import io.unityfoundation.dds.permissions.manager.exception.DPMException;
+import jakarta.inject.Singleton;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reads lists in cursor mode: rows are ordered by a fixed set of sort keys ending in a unique one and each page
+ * starts strictly after the keys of the previous page's last row, so no rows are skipped by offset and no total
+ * is counted. Cursors are the last row's keys, opaque to clients.
+ */
+@Singleton
+public class KeysetPager {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    // same limit Micronaut Data applies to Pageable
+    private static final int MAX_SIZE = 100;
+
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+
+    public KeysetPager(EntityManager entityManager, JsonMapper jsonMapper) {
+        this.entityManager = entityManager;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * @param keys sort keys as dotted properties, all ascending; the last one must be unique, usually {@code id}
+     * @param after cursor returned with the previous page, or an empty string for the first page
+     * @param size rows per page, at least one; larger sizes than {@value #MAX_SIZE} are lowered to it
+     */
+    @Transactional
+    public <T> CursorPage<T> find(Class<T> type, Specification<T> where, List<String> keys, @Nullable String after, int size) {
+        if (size <= 0) {
+            throw new DPMException(ResponseStatusCodes.INVALID_PAGE_SIZE, HttpStatus.BAD_REQUEST);
+        }
+        size = Math.min(size, MAX_SIZE);
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(type);
+        List<Path<Comparable<Object>>> paths = keys.stream()
+                .map(key -> Specification.<Comparable<Object>>path(root, key))
+                .collect(Collectors.toList());
+
+        Predicate predicate = where.toPredicate(root, criteriaBuilder);
+        if (after != null && !after.isEmpty()) {
+            predicate = criteriaBuilder.and(predicate, seek(criteriaBuilder, paths, decode(after, paths)));
+        }
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root);
+        selections.addAll(paths);
+        query.multiselect(selections)
+                .where(predicate)
+                .orderBy(paths.stream().map(criteriaBuilder::asc).collect(Collectors.toList()));
+
+        // one extra row tells whether there is a next page without counting
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        List<T> content = rows.stream().limit(size).map(row -> row.get(0, type)).collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            Tuple last = rows.get(size - 1);
+            List<Object> values = new ArrayList<>();
+            for (int i = 1; i <= keys.size(); i++) {
+                values.add(last.get(i));
+            }
+            nextCursor = encode(values);
+        }
+        return new CursorPage<>(content, size, nextCursor);
+    }
+
+    // (k1 > v1) or (k1 = v1 and k2 > v2) or ...
+    private static Predicate seek(CriteriaBuilder criteriaBuilder, List<Path<Comparable<Object>>> paths, List<Comparable<Object>> values) {
+        Predicate[] alternatives = new Predicate[paths.size()];
+        for (int i = 0; i < paths.size(); i++) {
+            Predicate[] conjuncts = new Predicate[i + 1];
+            for (int j = 0; j < i; j++) {
+                conjuncts[j] = criteriaBuilder.equal(paths.get(j), values.get(j));
+            }
+            conjuncts[i] = criteriaBuilder.greaterThan(paths.get(i), values.get(i));
+            alternatives[i] = criteriaBuilder.and(conjuncts);
+        }
+        return criteriaBuilder.or(alternatives);
+    }
+
+    private String encode(List<Object> values) {
+        try {
+            return ENCODER.encodeToString(jsonMapper.writeValueAsBytes(values));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Comparable<Object>> decode(String cursor, List<Path<Comparable<Object>>> paths) {
+        List<?> values;
+        try {
+            values = jsonMapper.readValue(DECODER.decode(cursor), Argument.listOf(Object.class));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new DPMException(ResponseStatusCodes.INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+        if (values == null || values.size() != paths.size()) {
+            throw new DPMException(ResponseStatusCodes.INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+
+        List<Comparable<Object>> keys = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            keys.add((Comparable<Object>) convert(values.get(i), paths.get(i).getJavaType()));
+        }
+        return keys;
+    }
+
+    // JSON numbers come back as the narrowest type that holds them
+    private static Object convert(Object value, Class<?> javaType) {
+        if (value instanceof Number && (javaType == Long.class || javaType == long.class)) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Number && (javaType == Integer.class || javaType == int.class)) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String && javaType == String.class) {
+            return value;
+        }
+        throw new DPMException(ResponseStatusCodes.INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+    }
+}
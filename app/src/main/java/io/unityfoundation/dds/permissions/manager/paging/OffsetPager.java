@@ -0,0 +1,84 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.paging;
+
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import jakarta.inject.Singleton;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Root;
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reads lists in offset mode: the {@link Specification} is applied once to a paged select and once to a count,
+ * so filters and group scoping never have to be resolved to id lists first.
+ */
+@Singleton
+public class OffsetPager {
+
+    private final EntityManager entityManager;
+
+    public OffsetPager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional
+    public <T> Page<T> find(Class<T> type, Specification<T> where, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(type);
+        Root<T> root = query.from(type);
+        query.select(root)
+                .where(where.toPredicate(root, criteriaBuilder))
+                .orderBy(orderBy(criteriaBuilder, root, pageable.getSort()));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.getSize() > 0) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getSize());
+        }
+        List<T> content = typedQuery.getResultList();
+
+        // a short first page already holds every match
+        if (pageable.getOffset() == 0 && (pageable.getSize() <= 0 || content.size() < pageable.getSize())) {
+            return Page.of(content, pageable, content.size());
+        }
+        return Page.of(content, pageable, count(type, where));
+    }
+
+    private <T> long count(Class<T> type, Specification<T> where) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(criteriaBuilder.count(root)).where(where.toPredicate(root, criteriaBuilder));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Order> orderBy(CriteriaBuilder criteriaBuilder, Root<?> root, Sort sort) {
+        return sort.getOrderBy().stream().map(order -> {
+            Expression<String> expression = Specification.path(root, order.getProperty());
+            if (order.isIgnoreCase()) {
+                expression = criteriaBuilder.lower(expression);
+            }
+            return order.isAscending() ? criteriaBuilder.asc(expression) : criteriaBuilder.desc(expression);
+        }).collect(Collectors.toList());
+    }
+}
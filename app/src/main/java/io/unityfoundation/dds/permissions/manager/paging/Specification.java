@@ -0,0 +1,65 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.paging;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * A where clause over one entity, built with the criteria API so that filters and group scoping can be
+ * combined into a single query. Properties are given as dotted paths, for example {@code permissionsGroup.name}.
+ */
+@FunctionalInterface
+public interface Specification<T> {
+
+    Predicate toPredicate(From<?, T> root, CriteriaBuilder criteriaBuilder);
+
+    default Specification<T> and(Specification<T> other) {
+        return (root, criteriaBuilder) -> criteriaBuilder.and(toPredicate(root, criteriaBuilder), other.toPredicate(root, criteriaBuilder));
+    }
+
+    static <T> Specification<T> all() {
+        return (root, criteriaBuilder) -> criteriaBuilder.conjunction();
+    }
+
+    static <T> Specification<T> equal(String property, Object value) {
+        return (root, criteriaBuilder) -> criteriaBuilder.equal(path(root, property), value);
+    }
+
+    static <T> Specification<T> in(String property, Collection<?> values) {
+        return (root, criteriaBuilder) -> values.isEmpty() ? criteriaBuilder.disjunction() : path(root, property).in(values);
+    }
+
+    // same matching as the repositories' ContainsIgnoreCase methods, on any of the properties
+    static <T> Specification<T> containsIgnoreCase(String text, String... properties) {
+        String pattern = "%" + text.toLowerCase(Locale.ROOT) + "%";
+        return (root, criteriaBuilder) -> criteriaBuilder.or(Arrays.stream(properties)
+                .map(property -> criteriaBuilder.like(criteriaBuilder.lower(path(root, property)), pattern))
+                .toArray(Predicate[]::new));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <X> Path<X> path(From<?, ?> root, String property) {
+        Path<?> path = root;
+        for (String segment : property.split("\\.")) {
+            path = path.get(segment);
+        }
+        return (Path<X>) path;
+    }
+}
@@ -0,0 +1,118 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.search;
+
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Pages through several sources sorted by name and id as if they were one list sorted the same way. Each source
+ * is read with keyset queries of at most one page of rows, so no source is materialized and a page costs the
+ * rows before it plus one page per source.
+ */
+final class MergedPaginator {
+
+    interface Source {
+        // the first rows of the source if after is null
+        List<Row> fetch(@Nullable Row after, int limit);
+    }
+
+    static final class Row {
+        private final String name;
+        private final Long id;
+        private final SearchResponseDTO response;
+
+        Row(String name, Long id, SearchResponseDTO response) {
+            this.name = name;
+            this.id = id;
+            this.response = response;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Long getId() {
+            return id;
+        }
+    }
+
+    private MergedPaginator() {
+    }
+
+    static List<SearchResponseDTO> page(List<Source> sources, long offset, int size) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.<Cursor, String>comparing(cursor -> cursor.peek().name)
+                .thenComparing(cursor -> cursor.peek().id)
+                .thenComparingInt(cursor -> cursor.position));
+        for (int i = 0; i < sources.size(); i++) {
+            Cursor cursor = new Cursor(sources.get(i), i, size);
+            if (cursor.peek() != null) {
+                heads.add(cursor);
+            }
+        }
+
+        List<SearchResponseDTO> page = new ArrayList<>(size);
+        long skipped = 0;
+        while (page.size() < size && !heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            Row row = cursor.next();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(row.response);
+            }
+            if (cursor.peek() != null) {
+                heads.add(cursor);
+            }
+        }
+        return page;
+    }
+
+    private static final class Cursor {
+        private final Source source;
+        private final int position;
+        private final int fetchSize;
+        private final Deque<Row> buffer = new ArrayDeque<>();
+        private Row last;
+        private boolean exhausted;
+
+        private Cursor(Source source, int position, int fetchSize) {
+            this.source = source;
+            this.position = position;
+            this.fetchSize = fetchSize;
+        }
+
+        private Row peek() {
+            if (buffer.isEmpty() && !exhausted) {
+                List<Row> rows = source.fetch(last, fetchSize);
+                exhausted = rows.size() < fetchSize;
+                buffer.addAll(rows);
+            }
+            return buffer.peekFirst();
+        }
+
+        private Row next() {
+            Row row = peek();
+            buffer.removeFirst();
+            last = row;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.search;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import io.unityfoundation.dds.permissions.manager.model.DPMEntity;
+import io.unityfoundation.dds.permissions.manager.model.application.Application;
+import io.unityfoundation.dds.permissions.manager.model.application.ApplicationRepository;
+import io.unityfoundation.dds.permissions.manager.model.group.Group;
+import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
+import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
+import io.unityfoundation.dds.permissions.manager.model.topic.TopicRepository;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram index over the names and descriptions of public groups, topics and applications, answering
+ * universal searches without a {@code LIKE '%query%'} scan. The services keep it current as they write;
+ * it is also rebuilt from the database at startup, after {@link #invalidateAll()} and every rebuild interval,
+ * which picks up changes made by other instances or straight through the repositories.
+ */
+@Singleton
+public class SearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchIndex.class);
+    private static final int GRAM_LENGTH = 3;
+
+    @Property(name = "permissions-manager.search.index.rebuild-interval", defaultValue = "5m")
+    protected Duration rebuildInterval;
+
+    private final GroupRepository groupRepository;
+    private final TopicRepository topicRepository;
+    private final ApplicationRepository applicationRepository;
+    private final TaskScheduler taskScheduler;
+    private volatile Map<DPMEntity, Shard> shards = emptyShards();
+    private volatile boolean stale = true;
+    // writes made while a rebuild reads the database, replayed onto the rebuilt shards; guarded by this
+    private List<Consumer<Map<DPMEntity, Shard>>> replay;
+
+    public SearchIndex(GroupRepository groupRepository, TopicRepository topicRepository, ApplicationRepository applicationRepository,
+                       @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
+        this.groupRepository = groupRepository;
+        this.topicRepository = topicRepository;
+        this.applicationRepository = applicationRepository;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        rebuild();
+        taskScheduler.scheduleWithFixedDelay(rebuildInterval, rebuildInterval, () -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not rebuild the search index", e);
+            }
+        });
+    }
+
+    /**
+     * Public documents of the given type whose name or description contains the query, ignoring case.
+     * Exact name matches come first, then name prefixes, other name matches and description matches,
+     * each in id order.
+     */
+    public List<SearchDocument> search(DPMEntity type, String query) {
+        if (stale) {
+            rebuild();
+        }
+        return shards.get(type).search(query.toLowerCase(Locale.ROOT)).stream()
+                .map(match -> match.document)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Matches of several types merged into one ranking: by relevance first, then in the order the types
+     * are given, then by id.
+     */
+    public List<SearchHit> search(List<DPMEntity> types, String query) {
+        if (stale) {
+            rebuild();
+        }
+        Map<DPMEntity, Shard> current = shards;
+        String lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+
+        List<Map.Entry<Integer, SearchHit>> ranked = new ArrayList<>();
+        for (DPMEntity type : types) {
+            current.get(type).search(lowerCaseQuery)
+                    .forEach(match -> ranked.add(Map.entry(match.rank, new SearchHit(type, match.document))));
+        }
+
+        // each type's matches are already ranked, so a stable sort on rank alone keeps types and ids in order
+        ranked.sort(Map.Entry.comparingByKey());
+        return ranked.stream().map(Map.Entry::getValue).collect(Collectors.toList());
+    }
+
+    public void index(Group group) {
+        index(DPMEntity.GROUP, group.getId(), group.getName(), group.getDescription(), group.getMakePublic());
+    }
+
+    public void index(Topic topic) {
+        index(DPMEntity.TOPIC, topic.getId(), topic.getName(), topic.getDescription(), topic.getMakePublic());
+    }
+
+    public void index(Application application) {
+        index(DPMEntity.APPLICATION, application.getId(), application.getName(), application.getDescription(), application.getMakePublic());
+    }
+
+    public void index(DPMEntity type, SearchDocument document) {
+        apply(target -> target.get(type).put(document));
+    }
+
+    public void remove(DPMEntity type, Long id) {
+        apply(target -> target.get(type).remove(id));
+    }
+
+    public void invalidateAll() {
+        stale = true;
+    }
+
+    public void rebuild() {
+        synchronized (this) {
+            if (replay != null) {
+                // another thread is rebuilding and will pick up everything written before it swaps
+                return;
+            }
+            replay = new ArrayList<>();
+            stale = false;
+        }
+
+        Map<DPMEntity, Shard> rebuilt = emptyShards();
+        try {
+            groupRepository.queryByMakePublicTrue().forEach(rebuilt.get(DPMEntity.GROUP)::put);
+            topicRepository.queryByMakePublicTrue().forEach(rebuilt.get(DPMEntity.TOPIC)::put);
+            applicationRepository.queryByMakePublicTrue().forEach(rebuilt.get(DPMEntity.APPLICATION)::put);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                replay = null;
+                stale = true;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            replay.forEach(write -> write.accept(rebuilt));
+            replay = null;
+            shards = rebuilt;
+        }
+    }
+
+    private void index(DPMEntity type, Long id, String name, String description, boolean isPublic) {
+        if (isPublic) {
+            index(type, new SearchDocument(id, name, description));
+        } else {
+            remove(type, id);
+        }
+    }
+
+    private synchronized void apply(Consumer<Map<DPMEntity, Shard>> write) {
+        write.accept(shards);
+        if (replay != null) {
+            replay.add(write);
+        }
+    }
+
+    private static Map<DPMEntity, Shard> emptyShards() {
+        Map<DPMEntity, Shard> shards = new EnumMap<>(DPMEntity.class);
+        shards.put(DPMEntity.GROUP, new Shard());
+        shards.put(DPMEntity.TOPIC, new Shard());
+        shards.put(DPMEntity.APPLICATION, new Shard());
+        return shards;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class Shard {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+
+        private void put(SearchDocument document) {
+            Entry entry = new Entry(document);
+            lock.writeLock().lock();
+            try {
+                removeLocked(document.getId());
+                entries.put(document.getId(), entry);
+                for (String gram : entry.grams()) {
+                    postings.computeIfAbsent(gram, key -> new Postings()).add(document.getId());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(Long id) {
+            Entry previous = entries.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String gram : previous.grams()) {
+                Postings ids = postings.get(gram);
+                ids.remove(id);
+                if (ids.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        private List<Match> search(String query) {
+            lock.readLock().lock();
+            try {
+                // every match holds every trigram of the query, so the rarest one bounds the candidates;
+                // shorter queries have no trigram to look up and are checked against every entry
+                Collection<Entry> candidates = entries.values();
+                if (query.length() >= GRAM_LENGTH) {
+                    Postings rarest = null;
+                    for (String gram : grams(query)) {
+                        Postings ids = postings.get(gram);
+                        if (ids == null) {
+                            return List.of();
+                        } else if (rarest == null || ids.size < rarest.size) {
+                            rarest = ids;
+                        }
+                    }
+                    List<Entry> narrowed = new ArrayList<>(rarest.size);
+                    for (int i = 0; i < rarest.size; i++) {
+                        narrowed.add(entries.get(rarest.ids[i]));
+                    }
+                    candidates = narrowed;
+                }
+
+                List<Match> matches = new ArrayList<>();
+                for (Entry entry : candidates) {
+                    int rank = entry.rank(query);
+                    if (rank >= 0) {
+                        matches.add(new Match(rank, entry.document));
+                    }
+                }
+                matches.sort(Comparator.<Match>comparingInt(match -> match.rank)
+                        .thenComparing(match -> match.document.getId()));
+                return matches;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    // sorted ids rather than a set of boxed ones; new entities mostly have the highest id, so adds append
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final SearchDocument document;
+        private final String name;
+        private final String description;
+
+        private Entry(SearchDocument document) {
+            this.document = document;
+            this.name = document.getName() == null ? "" : document.getName().toLowerCase(Locale.ROOT);
+            this.description = document.getDescription() == null ? "" : document.getDescription().toLowerCase(Locale.ROOT);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = SearchIndex.grams(name);
+            grams.addAll(SearchIndex.grams(description));
+            return grams;
+        }
+
+        // lower is better; -1 if the query matches neither the name nor the description
+        private int rank(String query) {
+            if (name.equals(query)) {
+                return 0;
+            } else if (name.startsWith(query)) {
+                return 1;
+            } else if (name.contains(query)) {
+                return 2;
+            } else if (description.contains(query)) {
+                return 3;
+            }
+            return -1;
+        }
+    }
+
+    private static final class Match {
+        private final int rank;
+        private final SearchDocument document;
+
+        private Match(int rank, SearchDocument document) {
+            this.rank = rank;
+            this.document = document;
+        }
+    }
+}
@@ -16,6 +16,7 @@ package io.unityfoundation.dds.permissions.manager.search;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.unityfoundation.dds.permissions.manager.model.DPMEntity;
 import io.unityfoundation.dds.permissions.manager.model.application.Application;
 import io.unityfoundation.dds.permissions.manager.model.application.ApplicationDTO;
@@ -28,21 +29,31 @@ import io.unityfoundation.dds.permissions.manager.model.topic.TopicDTO;
 import io.unityfoundation.dds.permissions.manager.model.topic.TopicRepository;
 import jakarta.inject.Singleton;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Singleton
 public class UniversalSearchService {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final Sort BY_NAME = Sort.of(Sort.Order.asc("name"), Sort.Order.asc("id"));
+
     private final GroupRepository groupRepository;
     private final TopicRepository topicRepository;
     private final ApplicationRepository applicationRepository;
+    private final SearchIndex searchIndex;
 
-    public UniversalSearchService(GroupRepository groupRepository, TopicRepository topicRepository, ApplicationRepository applicationRepository) {
+    public UniversalSearchService(GroupRepository groupRepository, TopicRepository topicRepository, ApplicationRepository applicationRepository,
+                                  SearchIndex searchIndex) {
         this.groupRepository = groupRepository;
         this.topicRepository = topicRepository;
         this.applicationRepository = applicationRepository;
+        this.searchIndex = searchIndex;
     }
 
 
@@ -52,140 +63,159 @@ public class UniversalSearchService {
         boolean searchTopics = Boolean.TRUE.equals(searchParams.getTopics());
         boolean searchApplications = Boolean.TRUE.equals(searchParams.getApplications());
         String query = searchParams.getQuery();
-        List<Long> entityIds;
 
         Pageable searchParamsPageable = searchParams.getPageable();
-        int pageCount = Math.max(searchParamsPageable.getNumber(), 1);
-        int pageSize = 10;
-        if (searchParamsPageable.getSize() > 0) {
-            pageSize = searchParamsPageable.getSize();
+        Pageable pageable = searchParamsPageable;
+        if (searchParamsPageable.getSize() <= 0) {
+            pageable = Pageable.from(searchParamsPageable.getNumber(), DEFAULT_PAGE_SIZE);
         }
-        int start = (pageCount - 1) * pageSize;
-        int end = pageCount * pageSize;
-        if (searchGroups && !searchTopics && !searchApplications) {
-            // just groups
-            Page<Group> groups;
-            if (!StringUtils.hasText(query)) {
-                groups = groupRepository.findAllByMakePublicTrue(searchParamsPageable);
-            } else {
-                entityIds = groupRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                groups = groupRepository.findByMakePublicTrueAndIdIn(entityIds, searchParamsPageable);
-            }
-            return groups.map(group -> new SearchResponseDTO(DPMEntity.GROUP, new SimpleGroupDTO(group.getId(), group.getName(), group.getDescription(), group.getMakePublic())));
-        } else if (!searchGroups && searchTopics && !searchApplications) {
-            // just topics
-            Page<Topic> topics;
-            if (!StringUtils.hasText(query)) {
-                topics = topicRepository.findAllByMakePublicTrue(searchParamsPageable);
-            } else {
-                entityIds = topicRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                topics = topicRepository.findByMakePublicTrueAndIdIn(entityIds, searchParamsPageable);
-            }
-            return topics.map(topic -> new SearchResponseDTO(DPMEntity.TOPIC, new TopicDTO(topic)));
-        } else if (!searchGroups && !searchTopics && searchApplications) {
-            // just applications
-            Page<Application> applications;
-            if (!StringUtils.hasText(query)) {
-                applications = applicationRepository.findAllByMakePublicTrue(searchParamsPageable);
-            } else {
-                entityIds = applicationRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                applications = applicationRepository.findByMakePublicTrueAndIdIn(entityIds, searchParamsPageable);
+
+        List<DPMEntity> types = new ArrayList<>();
+        if (searchGroups == searchTopics && searchTopics == searchApplications) {
+            // none or all three
+            types.addAll(List.of(DPMEntity.GROUP, DPMEntity.TOPIC, DPMEntity.APPLICATION));
+        } else {
+            if (searchGroups) {
+                types.add(DPMEntity.GROUP);
             }
-            return applications.map(application -> new SearchResponseDTO(DPMEntity.APPLICATION, new ApplicationDTO(application)));
-        } else if (searchGroups && searchTopics && !searchApplications) {
-            // groups and topics
-
-            // the passed in pageable applies to the *combined* resultset (limited to 50 per resource)
-            List<Group> groupsTop50;
-            List<Topic> topicsTop50;
-            if (!StringUtils.hasText(query)) {
-                groupsTop50 = groupRepository.findTop50ByMakePublicTrue();
-                topicsTop50 = topicRepository.findTop50ByMakePublicTrue();
-            } else {
-                entityIds = groupRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                groupsTop50 = groupRepository.findTop50ByMakePublicTrueAndIdIn(entityIds);
-                entityIds = topicRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                topicsTop50 = topicRepository.findTop50ByMakePublicTrueAndIdIn(entityIds);
+            if (searchTopics) {
+                types.add(DPMEntity.TOPIC);
             }
-            List<SearchResponseDTO> combined = Stream.concat(
-                    groupsTop50.stream().map(group -> new SearchResponseDTO(DPMEntity.GROUP, new SimpleGroupDTO(group.getId(), group.getName(), group.getDescription(), group.getMakePublic()))),
-                    topicsTop50.stream().map(topic -> new SearchResponseDTO(DPMEntity.TOPIC, new TopicDTO(topic)))
-            ).collect(Collectors.toList());
-
-            end = Math.min(end, combined.size());
-
-            return Page.of(combined.subList(start, end), searchParamsPageable, combined.size());
-        } else if (searchGroups && !searchTopics && searchApplications) {
-            // groups and applications
-
-            List<Group> groupsTop50;
-            List<Application> applicationsTop50;
-            if (!StringUtils.hasText(query)) {
-                groupsTop50 = groupRepository.findTop50ByMakePublicTrue();
-                applicationsTop50 = applicationRepository.findTop50ByMakePublicTrue();
-            } else {
-                entityIds = groupRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                groupsTop50 = groupRepository.findTop50ByMakePublicTrueAndIdIn(entityIds);
-                entityIds = applicationRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                applicationsTop50 = applicationRepository.findTop50ByMakePublicTrueAndIdIn(entityIds);
+            if (searchApplications) {
+                types.add(DPMEntity.APPLICATION);
             }
-            List<SearchResponseDTO> combined = Stream.concat(
-                    groupsTop50.stream().map(group -> new SearchResponseDTO(DPMEntity.GROUP, new SimpleGroupDTO(group.getId(), group.getName(), group.getDescription(), group.getMakePublic()))),
-                    applicationsTop50.stream().map(application -> new SearchResponseDTO(DPMEntity.APPLICATION, new ApplicationDTO(application)))
-            ).collect(Collectors.toList());
-
-            end = Math.min(end, combined.size());
-
-            return Page.of(combined.subList(start, end), searchParamsPageable, combined.size());
-        } else if (!searchGroups && searchTopics && searchApplications) {
-            // topics and applications
-            List<Topic> topicsTop50;
-            List<Application> applicationsTop50;
-            if (!StringUtils.hasText(query)) {
-                topicsTop50 = topicRepository.findTop50ByMakePublicTrue();
-                applicationsTop50 = applicationRepository.findTop50ByMakePublicTrue();
-            } else {
-                entityIds = topicRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                topicsTop50 = topicRepository.findTop50ByMakePublicTrueAndIdIn(entityIds);
-                entityIds = applicationRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                applicationsTop50 = applicationRepository.findTop50ByMakePublicTrueAndIdIn(entityIds);
+        }
+
+        if (StringUtils.hasText(query)) {
+            // index matches are ranked by relevance, so any sort on the pageable is not applied
+            List<SearchHit> hits = searchIndex.search(types, query);
+            int from = (int) Math.min(pageable.getOffset(), hits.size());
+            int to = Math.min(from + pageable.getSize(), hits.size());
+            return Page.of(toResponses(hits.subList(from, to)), pageable, hits.size());
+        }
+
+        if (types.size() == 1) {
+            switch (types.get(0)) {
+                case GROUP:
+                    return groupRepository.findAllByMakePublicTrue(searchParamsPageable).map(UniversalSearchService::toResponse);
+                case TOPIC:
+                    return topicRepository.findAllByMakePublicTrue(searchParamsPageable).map(UniversalSearchService::toResponse);
+                default:
+                    return applicationRepository.findAllByMakePublicTrue(searchParamsPageable).map(UniversalSearchService::toResponse);
             }
-            List<SearchResponseDTO> combined = Stream.concat(
-                    topicsTop50.stream().map(topic -> new SearchResponseDTO(DPMEntity.TOPIC, new TopicDTO(topic))),
-                    applicationsTop50.stream().map(application -> new SearchResponseDTO(DPMEntity.APPLICATION, new ApplicationDTO(application)))
-            ).collect(Collectors.toList());
+        }
+
+        // several types are merged by name, reading each one only as far as the requested page
+        List<MergedPaginator.Source> sources = new ArrayList<>();
+        long total = 0;
+        if (types.contains(DPMEntity.GROUP)) {
+            sources.add(this::fetchGroups);
+            total += groupRepository.countByMakePublicTrue();
+        }
+        if (types.contains(DPMEntity.TOPIC)) {
+            sources.add(this::fetchTopics);
+            total += topicRepository.countByMakePublicTrue();
+        }
+        if (types.contains(DPMEntity.APPLICATION)) {
+            sources.add(this::fetchApplications);
+            total += applicationRepository.countByMakePublicTrue();
+        }
+        return Page.of(MergedPaginator.page(sources, pageable.getOffset(), pageable.getSize()), pageable, total);
+    }
+
+    private List<MergedPaginator.Row> fetchGroups(MergedPaginator.Row after, int limit) {
+        return fetchAfter(after, limit,
+                groupRepository::queryByMakePublicTrue,
+                groupRepository::queryByMakePublicTrueAndNameAndIdGreaterThan,
+                groupRepository::queryByMakePublicTrueAndNameGreaterThan,
+                group -> new MergedPaginator.Row(group.getName(), group.getId(), toResponse(group)));
+    }
 
-            end = Math.min(end, combined.size());
+    private List<MergedPaginator.Row> fetchTopics(MergedPaginator.Row after, int limit) {
+        return fetchAfter(after, limit,
+                topicRepository::findByMakePublicTrue,
+                topicRepository::findByMakePublicTrueAndNameAndIdGreaterThan,
+                topicRepository::findByMakePublicTrueAndNameGreaterThan,
+                topic -> new MergedPaginator.Row(topic.getName(), topic.getId(), toResponse(topic)));
+    }
+
+    private List<MergedPaginator.Row> fetchApplications(MergedPaginator.Row after, int limit) {
+        return fetchAfter(after, limit,
+                applicationRepository::findByMakePublicTrue,
+                applicationRepository::findByMakePublicTrueAndNameAndIdGreaterThan,
+                applicationRepository::findByMakePublicTrueAndNameGreaterThan,
+                application -> new MergedPaginator.Row(application.getName(), application.getId(), toResponse(application)));
+    }
 
-            return Page.of(combined.subList(start, end), searchParamsPageable, combined.size());
+    // rows after (name, id): the rest of the rows sharing that name, then rows with a greater name
+    private static <T> List<MergedPaginator.Row> fetchAfter(MergedPaginator.Row after, int limit,
+                                                            Function<Pageable, List<T>> first,
+                                                            KeysetQuery<T> sameNameAfterId,
+                                                            BiFunction<String, Pageable, List<T>> nameAfter,
+                                                            Function<T, MergedPaginator.Row> toRow) {
+        List<T> rows;
+        if (after == null) {
+            rows = first.apply(Pageable.from(0, limit, BY_NAME));
         } else {
-            // query all three entities in a pageable manner...
-            List<Group> groupsTop50;
-            List<Topic> topicsTop50;
-            List<Application> applicationsTop50;
-            if (!StringUtils.hasText(query)) {
-                groupsTop50 = groupRepository.findTop50ByMakePublicTrue();
-                topicsTop50 = topicRepository.findTop50ByMakePublicTrue();
-                applicationsTop50 = applicationRepository.findTop50ByMakePublicTrue();
-            } else {
-                entityIds = groupRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                groupsTop50 = groupRepository.findTop50ByMakePublicTrueAndIdIn(entityIds);
-                entityIds = topicRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                topicsTop50 = topicRepository.findTop50ByMakePublicTrueAndIdIn(entityIds);
-                entityIds = applicationRepository.findIdByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(query, query);
-                applicationsTop50 = applicationRepository.findTop50ByMakePublicTrueAndIdIn(entityIds);
+            rows = new ArrayList<>(sameNameAfterId.find(after.getName(), after.getId(), Pageable.from(0, limit, BY_NAME)));
+            if (rows.size() < limit) {
+                rows.addAll(nameAfter.apply(after.getName(), Pageable.from(0, limit - rows.size(), BY_NAME)));
             }
+        }
+        return rows.stream().map(toRow).collect(Collectors.toList());
+    }
 
-            List<SearchResponseDTO> combined = Stream.concat(
-                    groupsTop50.stream().map(group -> new SearchResponseDTO(DPMEntity.GROUP, new SimpleGroupDTO(group.getId(), group.getName(), group.getDescription(), group.getMakePublic()))),
-                    Stream.concat(
-                        topicsTop50.stream().map(topic -> new SearchResponseDTO(DPMEntity.TOPIC, new TopicDTO(topic))),
-                        applicationsTop50.stream().map(application -> new SearchResponseDTO(DPMEntity.APPLICATION, new ApplicationDTO(application))))
-            ).collect(Collectors.toList());
+    @FunctionalInterface
+    private interface KeysetQuery<T> {
+        List<T> find(String name, Long id, Pageable pageable);
+    }
 
-            end = Math.min(end, combined.size());
+    // only the entities on the requested page are loaded, and only while they are still public; ids the index still
+    // holds but that are gone or were made private since are skipped
+    private List<SearchResponseDTO> toResponses(List<SearchHit> matches) {
+        Map<Long, SearchDocument> groups = load(matches, DPMEntity.GROUP, groupRepository::queryByMakePublicTrueAndIdIn, SearchDocument::getId);
+        Map<Long, Topic> topics = load(matches, DPMEntity.TOPIC, topicRepository::findAllByMakePublicTrueAndIdIn, Topic::getId);
+        Map<Long, Application> applications = load(matches, DPMEntity.APPLICATION, applicationRepository::findAllByMakePublicTrueAndIdIn, Application::getId);
+
+        List<SearchResponseDTO> responses = new ArrayList<>();
+        for (SearchHit match : matches) {
+            SearchDocument document = match.getDocument();
+            if (match.getType() == DPMEntity.GROUP && groups.containsKey(document.getId())) {
+                responses.add(toResponse(groups.get(document.getId())));
+            } else if (match.getType() == DPMEntity.TOPIC && topics.containsKey(document.getId())) {
+                responses.add(toResponse(topics.get(document.getId())));
+            } else if (match.getType() == DPMEntity.APPLICATION && applications.containsKey(document.getId())) {
+                responses.add(toResponse(applications.get(document.getId())));
+            }
+        }
+        return responses;
+    }
 
-            return Page.of(combined.subList(start, end), searchParamsPageable, combined.size());
+    private static <T> Map<Long, T> load(List<SearchHit> matches, DPMEntity type,
+                                         Function<Collection<Long>, List<T>> finder, Function<T, Long> idOf) {
+        List<Long> ids = matches.stream()
+                .filter(match -> match.getType() == type)
+                .map(match -> match.getDocument().getId())
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return Map.of();
         }
+        return finder.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+    }
+
+    private static SearchResponseDTO toResponse(Group group) {
+        return new SearchResponseDTO(DPMEntity.GROUP, new SimpleGroupDTO(group.getId(), group.getName(), group.getDescription(), group.getMakePublic()));
+    }
+
+    private static SearchResponseDTO toResponse(SearchDocument group) {
+        return new SearchResponseDTO(DPMEntity.GROUP, new SimpleGroupDTO(group.getId(), group.getName(), group.getDescription(), true));
+    }
+
+    private static SearchResponseDTO toResponse(Topic topic) {
+        return new SearchResponseDTO(DPMEntity.TOPIC, new TopicDTO(topic));
+    }
+
+    private static SearchResponseDTO toResponse(Application application) {
+        return new SearchResponseDTO(DPMEntity.APPLICATION, new ApplicationDTO(application));
     }
 }
@@ -40,6 +40,7 @@ import java.security.interfaces.RSAPublicKey;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Singleton
 public class AuthConfigService {
@@ -52,17 +53,49 @@ public class AuthConfigService {
     @Property(name = "permissions-manager.application.jwt.signature.private")
     protected String privateKey;
 
+    private final AtomicReference<Versioned<PublicKeyPem>> loadedPublicKey = new AtomicReference<>();
+    private final AtomicReference<Versioned<RSAPrivateKey>> loadedPrivateKey = new AtomicReference<>();
+
     public AuthConfigService() {
     }
 
     public HttpResponse<?> getPublicKeys() throws Exception {
-        String publicKey = objectToPEMString(readX509PublicKey());
-        return HttpResponse.ok(List.of(Map.of("public", publicKey)));
+        return HttpResponse.ok(List.of(Map.of("public", getPublicKeyPem().pem)));
+    }
+
+    public RSAPublicKey getPublicKey() throws Exception {
+        return getPublicKeyPem().key;
+    }
+
+    public RSAPrivateKey getPrivateKey() throws Exception {
+        return resolve(loadedPrivateKey, this::findPKCS8PrivateKeyFile, this::readPKCS8PrivateKey);
+    }
+
+    private PublicKeyPem getPublicKeyPem() throws Exception {
+        return resolve(loadedPublicKey, this::findX509PublicKeyFile, file -> {
+            RSAPublicKey key = readX509PublicKey(file);
+            return new PublicKeyPem(key, objectToPEMString(key));
+        });
+    }
+
+    // keys are parsed once and again only after their file was modified
+    private <T> T resolve(AtomicReference<Versioned<T>> holder, KeyFileFinder finder, KeyReader<T> reader) throws Exception {
+        Versioned<T> current = holder.get();
+        File file = current != null ? current.file : finder.find();
+        long lastModified = file.lastModified();
+        if (current == null || current.lastModified != lastModified) {
+            // concurrent callers may both read a changed file; either result is equivalent
+            current = new Versioned<>(file, lastModified, reader.read(file));
+            holder.set(current);
+        }
+        return current.value;
     }
 
     public RSAPublicKey readX509PublicKey() throws Exception {
-        KeyFactory factory = KeyFactory.getInstance("RSA");
+        return readX509PublicKey(findX509PublicKeyFile());
+    }
 
+    private File findX509PublicKeyFile() throws URISyntaxException {
         File file;
         if (publicKey != null ) {
             file = new File(publicKey);
@@ -74,6 +107,11 @@ public class AuthConfigService {
             LOG.warn("Public Key is null. Using fallback resource key.");
             file = getFileFromResource(publicKey);
         }
+        return file;
+    }
+
+    private RSAPublicKey readX509PublicKey(File file) throws Exception {
+        KeyFactory factory = KeyFactory.getInstance("RSA");
 
         try (FileReader keyReader = new FileReader(file);
              PemReader pemReader = new PemReader(keyReader)) {
@@ -86,6 +124,10 @@ public class AuthConfigService {
     }
 
     public RSAPrivateKey readPKCS8PrivateKey() throws IOException, URISyntaxException {
+        return readPKCS8PrivateKey(findPKCS8PrivateKeyFile());
+    }
+
+    private File findPKCS8PrivateKeyFile() throws URISyntaxException {
         File file;
         if (privateKey != null ) {
             file = new File(privateKey);
@@ -97,7 +139,10 @@ public class AuthConfigService {
             LOG.warn("Private Key is null. Using fallback resource key.");
             file = getFileFromResource(privateKey);
         }
+        return file;
+    }
 
+    private RSAPrivateKey readPKCS8PrivateKey(File file) throws IOException {
         try (FileReader keyReader = new FileReader(file)) {
 
             PEMParser pemParser = new PEMParser(keyReader);
@@ -125,4 +170,36 @@ public class AuthConfigService {
         pemWriter.close();
         return sWrt.toString();
     }
+
+    @FunctionalInterface
+    private interface KeyFileFinder {
+        File find() throws URISyntaxException;
+    }
+
+    @FunctionalInterface
+    private interface KeyReader<T> {
+        T read(File file) throws Exception;
+    }
+
+    private static final class PublicKeyPem {
+        private final RSAPublicKey key;
+        private final String pem;
+
+        private PublicKeyPem(RSAPublicKey key, String pem) {
+            this.key = key;
+            this.pem = pem;
+        }
+    }
+
+    private static final class Versioned<T> {
+        private final File file;
+        private final long lastModified;
+        private final T value;
+
+        private Versioned(File file, long lastModified, T value) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
 }
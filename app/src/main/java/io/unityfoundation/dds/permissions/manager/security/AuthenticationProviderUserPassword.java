@@ -70,7 +70,8 @@ public class AuthenticationProviderUserPassword implements AuthenticationProvide
         } else {
             // application login
             try {
-                return Publishers.just(applicationService.passwordMatches(Long.valueOf(identity), password));
+                // hashing completes on the passphrase verification pool rather than on this thread
+                return Publishers.fromCompletableFuture(applicationService.passwordMatches(Long.valueOf(identity), password));
             } catch (NumberFormatException numberFormatException) {
                 Publishers.just(AuthenticationResponse.exception("Incorrect Application Id format."));
             }
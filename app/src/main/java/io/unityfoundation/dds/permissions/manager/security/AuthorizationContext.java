@@ -0,0 +1,106 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import io.unityfoundation.dds.permissions.manager.model.groupuser.MembershipIndex;
+import io.unityfoundation.dds.permissions.manager.model.user.User;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The authenticated user of a request together with their group memberships. Resolved once per
+ * HTTP request by {@link SecurityUtil}; the user entity and group roles are only loaded when a check needs them.
+ */
+public class AuthorizationContext {
+
+    private final String name;
+    private final Long userId;
+    private final boolean admin;
+    private final Supplier<Optional<User>> userLoader;
+    private final Supplier<Map<Long, Integer>> rolesLoader;
+    private Optional<User> user;
+    private Map<Long, Integer> rolesByGroup;
+
+    AuthorizationContext(String name, Long userId, boolean admin, Supplier<Optional<User>> userLoader,
+                         Supplier<Map<Long, Integer>> rolesLoader) {
+        this.name = name;
+        this.userId = userId;
+        this.admin = admin;
+        this.userLoader = userLoader;
+        this.rolesLoader = rolesLoader;
+    }
+
+    static AuthorizationContext unauthenticated(String name) {
+        return new AuthorizationContext(name, null, false, Optional::empty, Map::of);
+    }
+
+    boolean isFor(String name) {
+        return Objects.equals(this.name, name);
+    }
+
+    public boolean isFor(Long userId) {
+        return this.userId != null && this.userId.equals(userId);
+    }
+
+    public boolean isAuthenticatedUser() {
+        return userId != null;
+    }
+
+    public Optional<Long> getUserId() {
+        return Optional.ofNullable(userId);
+    }
+
+    public synchronized Optional<User> getUser() {
+        if (user == null) {
+            user = userId == null ? Optional.empty() : userLoader.get();
+        }
+        return user;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public Set<Long> getGroupIds() {
+        return getRolesByGroup().keySet();
+    }
+
+    public boolean isMemberOf(Long groupId) {
+        return MembershipIndex.hasRole(getRolesByGroup(), groupId, MembershipIndex.MEMBER);
+    }
+
+    public boolean isGroupAdminOf(Long groupId) {
+        return MembershipIndex.hasRole(getRolesByGroup(), groupId, MembershipIndex.GROUP_ADMIN);
+    }
+
+    public boolean isTopicAdminOf(Long groupId) {
+        return MembershipIndex.hasRole(getRolesByGroup(), groupId, MembershipIndex.TOPIC_ADMIN);
+    }
+
+    public boolean isApplicationAdminOf(Long groupId) {
+        return MembershipIndex.hasRole(getRolesByGroup(), groupId, MembershipIndex.APPLICATION_ADMIN);
+    }
+
+    // group id to a bitmask of MembershipIndex roles
+    public synchronized Map<Long, Integer> getRolesByGroup() {
+        if (rolesByGroup == null) {
+            rolesByGroup = userId == null ? Map.of() : rolesLoader.get();
+        }
+        return rolesByGroup;
+    }
+}
@@ -23,7 +23,6 @@ import org.bouncycastle.util.encoders.Hex;
 
 import javax.validation.constraints.NotBlank;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 
 @Singleton
 public class BCryptPasswordEncoderService {
@@ -31,19 +30,20 @@ public class BCryptPasswordEncoderService {
     @Property(name = "permissions-manager.application.passphrase.salt")
     protected String salt;
 
-    private Argon2BytesGenerator generator;
+    private Argon2Parameters parameters;
 
     @PostConstruct
-    private Argon2BytesGenerator getGenerator() {
-        Argon2Parameters.Builder builder = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
-                .withSalt(salt.getBytes(StandardCharsets.UTF_8));
-
-        generator = new Argon2BytesGenerator();
-        generator.init(builder.build());
-        return generator;
+    void initialize() {
+        parameters = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                .withSalt(salt.getBytes(StandardCharsets.UTF_8))
+                .build();
     }
 
+    // Argon2BytesGenerator keeps per-hash state, so every call gets its own
     public String encode(@NotBlank @NonNull String rawPassword) {
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(parameters);
+
         byte[] result = new byte[32];
         generator.generateBytes(rawPassword.getBytes(StandardCharsets.UTF_8), result);
 
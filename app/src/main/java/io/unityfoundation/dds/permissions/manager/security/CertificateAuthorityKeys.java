@@ -0,0 +1,115 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import jakarta.inject.Singleton;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.openssl.PEMKeyPair;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.security.PrivateKey;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.unityfoundation.dds.permissions.manager.security.ApplicationSecretsClient.*;
+
+/**
+ * Parsed CA certificates and keys, held per secret version. A secret is parsed again only once
+ * {@link ApplicationSecretsClient} reports a different ETag (or content) for it.
+ */
+@Singleton
+public class CertificateAuthorityKeys {
+
+    private final ApplicationSecretsClient applicationSecretsClient;
+    private final AtomicReference<Versioned<X509Certificate>> identityCACert = new AtomicReference<>();
+    private final AtomicReference<Versioned<PrivateKey>> identityCAKey = new AtomicReference<>();
+    private final AtomicReference<Versioned<X509Certificate>> permissionsCACert = new AtomicReference<>();
+    private final AtomicReference<Versioned<PrivateKey>> permissionsCAKey = new AtomicReference<>();
+
+    public CertificateAuthorityKeys(ApplicationSecretsClient applicationSecretsClient) {
+        this.applicationSecretsClient = applicationSecretsClient;
+    }
+
+    public Optional<X509Certificate> getIdentityCACert() throws IOException, CertificateException {
+        return resolve(identityCACert, IDENTITY_CA_CERT, applicationSecretsClient.getIdentityCACert(), CertificateAuthorityKeys::readCertificate);
+    }
+
+    public Optional<PrivateKey> getIdentityCAKey() throws IOException, CertificateException {
+        return resolve(identityCAKey, IDENTITY_CA_KEY, applicationSecretsClient.getIdentityCAKey(), CertificateAuthorityKeys::readPrivateKey);
+    }
+
+    public Optional<X509Certificate> getPermissionsCACert() throws IOException, CertificateException {
+        return resolve(permissionsCACert, PERMISSIONS_CA_CERT, applicationSecretsClient.getPermissionsCACert(), CertificateAuthorityKeys::readCertificate);
+    }
+
+    public Optional<PrivateKey> getPermissionsCAKey() throws IOException, CertificateException {
+        return resolve(permissionsCAKey, PERMISSIONS_CA_KEY, applicationSecretsClient.getPermissionsCAKey(), CertificateAuthorityKeys::readPrivateKey);
+    }
+
+    private <T> Optional<T> resolve(AtomicReference<Versioned<T>> holder, String file, Optional<String> pem,
+                                    PemReader<T> reader) throws IOException, CertificateException {
+        if (pem.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String etag = applicationSecretsClient.getCorrespondingEtag(file);
+        Versioned<T> current = holder.get();
+        if (current == null || !current.isVersion(etag, pem.get())) {
+            // concurrent callers may both parse a new version; either result is equivalent
+            current = new Versioned<>(etag, pem.get(), reader.read(pem.get()));
+            holder.set(current);
+        }
+        return Optional.of(current.value);
+    }
+
+    public static X509Certificate readCertificate(String pemEncoding) throws IOException, CertificateException {
+        PEMParser parser = new PEMParser(new StringReader(pemEncoding));
+        X509CertificateHolder certHolder = (X509CertificateHolder) parser.readObject();
+        return new JcaX509CertificateConverter().getCertificate(certHolder);
+    }
+
+    public static PrivateKey readPrivateKey(String pemEncoding) throws IOException {
+        PEMParser parser = new PEMParser(new StringReader(pemEncoding.trim()));
+        PEMKeyPair pemKeyPair = (PEMKeyPair) parser.readObject();
+        return new JcaPEMKeyConverter().getPrivateKey(pemKeyPair.getPrivateKeyInfo());
+    }
+
+    @FunctionalInterface
+    private interface PemReader<T> {
+        T read(String pemEncoding) throws IOException, CertificateException;
+    }
+
+    private static final class Versioned<T> {
+        private final String etag;
+        private final String pem;
+        private final T value;
+
+        private Versioned(String etag, String pem, T value) {
+            this.etag = etag;
+            this.pem = pem;
+            this.value = value;
+        }
+
+        private boolean isVersion(String etag, String pem) {
+            return Objects.equals(this.etag, etag) && this.pem.equals(pem);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.async.annotation.SingleResult;
 import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MutableHttpResponse;
@@ -41,8 +42,11 @@ import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.xml.bind.DatatypeConverter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import java.util.Optional;
 
@@ -95,10 +99,27 @@ public class DPMIntrospectionController {
     }
 
     private Publisher<MutableHttpResponse<?>> getIntrospectionAndValidResponse(Authentication authentication, HttpRequest<?> request) {
-        return Publishers.map(Publishers.map(processor.introspect(authentication, request), response -> {
+        String ifNoneMatch = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+        return Publishers.map(processor.introspect(authentication, request), response -> {
             groupUserService.checkUserValidity().forEach(response::addExtension);
-            return introspectionResponseAsJsonString(response);
-        }), HttpResponse::ok);
+            return okOrNotModified(introspectionResponseAsJsonString(response), ifNoneMatch);
+        });
+    }
+
+    // the frontend polls this endpoint; an unchanged session is answered without a body
+    public static MutableHttpResponse<?> okOrNotModified(String body, @Nullable String ifNoneMatch) {
+        String etag;
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            etag = DatatypeConverter.printHexBinary(md.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            return HttpResponse.ok(body);
+        }
+
+        if (etag.equals(ifNoneMatch)) {
+            return HttpResponse.notModified();
+        }
+        return HttpResponse.ok(body).header(HttpHeaders.ETAG, etag);
     }
 
     @NonNull
@@ -36,7 +36,7 @@ public class DPMRSASignatureConfig implements RSASignatureGeneratorConfiguration
 
         RSAPrivateKey rsaPrivateKey = null;
         try {
-            rsaPrivateKey = authConfigService.readPKCS8PrivateKey();
+            rsaPrivateKey = authConfigService.getPrivateKey();
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -54,7 +54,7 @@ public class DPMRSASignatureConfig implements RSASignatureGeneratorConfiguration
 
         RSAPublicKey rsaPublicKey = null;
         try {
-            rsaPublicKey = authConfigService.readX509PublicKey();
+            rsaPublicKey = authConfigService.getPublicKey();
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
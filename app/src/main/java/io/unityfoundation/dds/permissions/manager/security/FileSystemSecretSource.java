@@ -0,0 +1,132 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Requires;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Reads each secret from a file of the same name in a local directory. The ETag of a secret is the SHA-256 of
+ * its content, so rewriting a file with identical content is not reported as a rotation. The content hashed for
+ * an ETag is also what the following {@link #getLatestSecret} returns, so a rotated file is read once per refresh
+ * and its content always matches the ETag it is stored under.
+ */
+@Singleton
+@Requires(property = FileSystemSecretSource.DIRECTORY_PROPERTY)
+public class FileSystemSecretSource implements SecretSource {
+
+    public static final String DIRECTORY_PROPERTY = "permissions-manager.secrets.directory";
+
+    @Property(name = DIRECTORY_PROPERTY)
+    protected String directory;
+
+    private final Map<String, byte[]> hashedContent = new ConcurrentHashMap<>();
+    private WatchService watchService;
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileSystemSecretSource.class);
+
+    @Override
+    public String getLatestETag(String file) throws IOException {
+        byte[] content = read(file);
+        if (content == null) {
+            hashedContent.remove(file);
+            return null;
+        }
+        hashedContent.put(file, content);
+
+        try {
+            return DatatypeConverter.printHexBinary(MessageDigest.getInstance("SHA-256").digest(content)).toLowerCase();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String getLatestSecret(String file) throws IOException {
+        byte[] content = hashedContent.remove(file);
+        if (content == null) {
+            content = read(file);
+        }
+        return content == null ? null : new String(content, StandardCharsets.UTF_8);
+    }
+
+    private byte[] read(String file) throws IOException {
+        try {
+            return Files.readAllBytes(Path.of(directory).resolve(file));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // any event in the directory triggers a refresh: mounted secrets are often rotated by swapping a symlink
+    // rather than writing the files themselves, and the refresh only picks up content whose hash changed
+    @Override
+    public synchronized void watch(Runnable onChange) {
+        if (watchService != null) {
+            return;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Path.of(directory).register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (IOException e) {
+            LOG.error("Could not watch secrets directory {}, relying on the scheduled refresh", directory, e);
+            return;
+        }
+
+        WatchService service = watchService;
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = service.take();
+                    key.pollEvents();
+                    onChange.run();
+                    if (!key.reset()) {
+                        LOG.warn("Secrets directory {} is no longer accessible, relying on the scheduled refresh", directory);
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ClosedWatchServiceException e) {
+                // shutting down
+            }
+        }, "secrets-directory-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+}
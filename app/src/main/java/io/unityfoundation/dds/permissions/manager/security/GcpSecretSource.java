@@ -0,0 +1,69 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import com.google.cloud.secretmanager.v1.*;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+
+@Singleton
+@Requires(property = "gcp.credentials.enabled", value = StringUtils.TRUE)
+@Requires(property = "gcp.project-id")
+@Requires(missingProperty = FileSystemSecretSource.DIRECTORY_PROPERTY)
+public class GcpSecretSource implements SecretSource {
+
+    @Property(name = "gcp.project-id")
+    protected String project;
+
+    private SecretManagerServiceClient client;
+
+    @Override
+    public String getLatestSecret(String file) throws IOException {
+        AccessSecretVersionResponse response = getClient().accessSecretVersion(AccessSecretVersionRequest
+                .newBuilder()
+                .setName(SecretVersionName.of(project, file, "latest").toString())
+                .build());
+        return response.getPayload().getData().toStringUtf8();
+    }
+
+    @Override
+    public String getLatestETag(String file) throws IOException {
+        SecretVersion secretVersion = getClient().getSecretVersion(GetSecretVersionRequest
+                .newBuilder()
+                .setName(SecretVersionName.of(project, file, "latest").toString())
+                .build());
+        return secretVersion.getEtag();
+    }
+
+    // one client for the lifetime of the application rather than one per lookup
+    private synchronized SecretManagerServiceClient getClient() throws IOException {
+        if (client == null) {
+            client = SecretManagerServiceClient.create();
+        }
+        return client;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (client != null) {
+            client.close();
+            client = null;
+        }
+    }
+}
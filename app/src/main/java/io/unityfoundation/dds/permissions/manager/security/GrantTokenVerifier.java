@@ -0,0 +1,126 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.security.token.jwt.validator.JwtTokenValidator;
+import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
+import io.unityfoundation.dds.permissions.manager.exception.DPMException;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+import org.bouncycastle.util.encoders.Hex;
+import org.reactivestreams.Publisher;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Verifies application grant tokens and remembers the ones that passed, keyed by a SHA-256 of the token, until they
+ * expire. Scripts that reuse one grant token for a burst of requests pay for the signature check once.
+ * Tokens that fail verification are never remembered.
+ */
+@Singleton
+public class GrantTokenVerifier {
+
+    public static final String CACHE_NAME = "grant-tokens";
+
+    @Property(name = "permissions-manager.application.grant-token.cache.maximum-size", defaultValue = "10000")
+    protected Long maximumSize;
+
+    @Property(name = "permissions-manager.application.grant-token.cache.expire-after-write", defaultValue = "10m")
+    protected Duration expireAfterWrite;
+
+    private final JwtTokenValidator jwtTokenValidator;
+    private final MeterRegistry meterRegistry;
+    private Cache<String, VerifiedGrantToken> cache;
+
+    public GrantTokenVerifier(JwtTokenValidator jwtTokenValidator, MeterRegistry meterRegistry) {
+        this.jwtTokenValidator = jwtTokenValidator;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void initialize() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Emits the application id the grant token was issued for, or nothing if the token is not valid.
+     */
+    public Publisher<Long> verify(String grantToken) {
+        String key = hash(grantToken);
+        VerifiedGrantToken verified = cache.getIfPresent(key);
+        if (verified != null) {
+            if (verified.expiresAt == null || verified.expiresAt.isAfter(Instant.now())) {
+                return Publishers.just(verified.applicationId);
+            }
+            cache.invalidate(key);
+        }
+
+        return Publishers.map(jwtTokenValidator.validateToken(grantToken, null), authentication -> {
+            VerifiedGrantToken token = parse(grantToken);
+            cache.put(key, token);
+            return token.applicationId;
+        });
+    }
+
+    private static VerifiedGrantToken parse(String grantToken) {
+        try {
+            JWTClaimsSet claims = JWTParser.parse(grantToken).getJWTClaimsSet();
+            if (claims.getSubject() == null) {
+                throw new DPMException(ResponseStatusCodes.APPLICATION_GRANT_TOKEN_PARSE_EXCEPTION, HttpStatus.BAD_REQUEST);
+            }
+            Instant expiresAt = claims.getExpirationTime() != null ? claims.getExpirationTime().toInstant() : null;
+            return new VerifiedGrantToken(Long.valueOf(claims.getSubject()), expiresAt);
+        } catch (ParseException | NumberFormatException e) {
+            throw new DPMException(ResponseStatusCodes.APPLICATION_GRANT_TOKEN_PARSE_EXCEPTION, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static String hash(String grantToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Hex.toHexString(digest.digest(grantToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class VerifiedGrantToken {
+        private final Long applicationId;
+        private final Instant expiresAt;
+
+        private VerifiedGrantToken(Long applicationId, Instant expiresAt) {
+            this.applicationId = applicationId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * P-256 key pairs generated ahead of time for client certificates. When the pool drops below the low watermark
+ * a background thread tops it up to the high watermark; if it runs dry, the caller generates its own key pair.
+ * Every key pair is handed out at most once.
+ */
+@Singleton
+public class KeyPairPool {
+
+    private static final String METRIC_PREFIX = "permissions-manager.key-pair-pool";
+
+    @Property(name = "permissions-manager.application.client-certificate.key-pair-pool.low-watermark", defaultValue = "16")
+    protected Integer lowWatermark;
+
+    @Property(name = "permissions-manager.application.client-certificate.key-pair-pool.high-watermark", defaultValue = "64")
+    protected Integer highWatermark;
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private BlockingQueue<KeyPair> keyPairs;
+    private ExecutorService refillExecutor;
+    private Counter generated;
+    private Counter exhausted;
+
+    private static final Logger LOG = LoggerFactory.getLogger(KeyPairPool.class);
+
+    public KeyPairPool(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void initialize() {
+        keyPairs = new ArrayBlockingQueue<>(highWatermark);
+        refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "key-pair-pool-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder(METRIC_PREFIX + ".size", keyPairs, BlockingQueue::size)
+                .description("Pre-generated key pairs waiting to be issued")
+                .register(meterRegistry);
+        generated = Counter.builder(METRIC_PREFIX + ".generated")
+                .description("Key pairs generated by the background refill")
+                .register(meterRegistry);
+        exhausted = Counter.builder(METRIC_PREFIX + ".exhausted")
+                .description("Key pairs generated on the request thread because the pool was empty")
+                .register(meterRegistry);
+
+        triggerRefill();
+    }
+
+    @PreDestroy
+    void close() {
+        refillExecutor.shutdownNow();
+    }
+
+    public KeyPair take() throws GeneralSecurityException {
+        KeyPair keyPair = keyPairs.poll();
+        if (keyPairs.size() < lowWatermark) {
+            triggerRefill();
+        }
+        if (keyPair != null) {
+            return keyPair;
+        }
+
+        exhausted.increment();
+        return generateKeyPair();
+    }
+
+    public int size() {
+        return keyPairs.size();
+    }
+
+    private void triggerRefill() {
+        if (refilling.compareAndSet(false, true)) {
+            refillExecutor.execute(this::refill);
+        }
+    }
+
+    private void refill() {
+        try {
+            while (keyPairs.size() < highWatermark && !Thread.currentThread().isInterrupted()) {
+                if (!keyPairs.offer(generateKeyPair())) {
+                    break;
+                }
+                generated.increment();
+            }
+        } catch (GeneralSecurityException e) {
+            LOG.error("Could not pre-generate key pairs", e);
+            refilling.set(false);
+            return;
+        }
+        refilling.set(false);
+
+        // a take() between the last size check and clearing the flag would not have started a refill
+        if (keyPairs.size() < lowWatermark && !refillExecutor.isShutdown()) {
+            triggerRefill();
+        }
+    }
+
+    private static KeyPair generateKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        return keyPairGenerator.generateKeyPair();
+    }
+}
@@ -0,0 +1,157 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpStatus;
+import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
+import io.unityfoundation.dds.permissions.manager.exception.DPMException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.bouncycastle.util.encoders.Hex;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies application passphrases on a bounded pool so that Argon2 hashing never runs on request threads.
+ * Once the pool and its queue are full, further verifications are refused with 429 instead of piling up.
+ * Successful verifications can optionally be remembered for a short time, keyed by an HMAC of the application id
+ * and passphrase under a key that only lives in this process, so the passphrase itself is never held.
+ */
+@Singleton
+public class PassphraseVerifier {
+
+    public static final String CACHE_NAME = "passphrase-verifications";
+
+    @Property(name = "permissions-manager.application.passphrase.verification.threads", defaultValue = "0")
+    protected Integer threads;
+
+    @Property(name = "permissions-manager.application.passphrase.verification.queue-capacity", defaultValue = "256")
+    protected Integer queueCapacity;
+
+    @Property(name = "permissions-manager.application.passphrase.verification.cache.enabled", defaultValue = StringUtils.FALSE)
+    protected boolean cacheEnabled;
+
+    @Property(name = "permissions-manager.application.passphrase.verification.cache.expire-after-write", defaultValue = "10s")
+    protected Duration cacheExpireAfterWrite;
+
+    @Property(name = "permissions-manager.application.passphrase.verification.cache.maximum-size", defaultValue = "10000")
+    protected Long cacheMaximumSize;
+
+    private final BCryptPasswordEncoderService passwordEncoderService;
+    private final MeterRegistry meterRegistry;
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+    private SecretKey cacheKey;
+    // HMAC of application id and passphrase to the encoded passphrase it was verified against
+    private Cache<String, String> verified;
+
+    public PassphraseVerifier(BCryptPasswordEncoderService passwordEncoderService, MeterRegistry meterRegistry) {
+        this.passwordEncoderService = passwordEncoderService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void initialize() throws GeneralSecurityException {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "passphrase-verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("permissions-manager.passphrase-verification.queue-size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("permissions-manager.passphrase-verification.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        rejected = meterRegistry.counter("permissions-manager.passphrase-verification.rejected");
+
+        if (cacheEnabled) {
+            cacheKey = KeyGenerator.getInstance("HmacSHA256").generateKey();
+            verified = Caffeine.newBuilder()
+                    .maximumSize(cacheMaximumSize)
+                    .expireAfterWrite(cacheExpireAfterWrite)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verified, CACHE_NAME);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Completes with whether {@code rawPassword} hashes to {@code encodedPassword}.
+     *
+     * @throws DPMException with 429 if the verification pool is saturated
+     */
+    public CompletableFuture<Boolean> verify(Long applicationId, String rawPassword, String encodedPassword) {
+        String cacheEntry = verified == null ? null : cacheEntry(applicationId, rawPassword);
+        if (cacheEntry != null && encodedPassword.equals(verified.getIfPresent(cacheEntry))) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    boolean matches = passwordEncoderService.matches(rawPassword, encodedPassword);
+                    if (matches && cacheEntry != null) {
+                        verified.put(cacheEntry, encodedPassword);
+                    }
+                    result.complete(matches);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new DPMException(ResponseStatusCodes.APPLICATION_PASSPHRASE_VERIFICATION_BUSY, HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return result;
+    }
+
+    private String cacheEntry(Long applicationId, String rawPassword) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            mac.update(applicationId.toString().getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Hex.toHexString(mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -35,6 +35,9 @@ import java.util.*;
 @Named("google")
 public class PermissionsManagerAuthenticationMapper implements OpenIdAuthenticationMapper {
 
+    public static final String PERMISSIONS_BY_GROUP_CLAIM = "permissionsByGroup";
+    public static final String PERMISSIONS_LAST_UPDATED_CLAIM = "permissionsLastUpdated";
+
     private final UserService userService;
     private final GroupUserService groupUserService;
 
@@ -72,8 +75,8 @@ public class PermissionsManagerAuthenticationMapper implements OpenIdAuthenticat
         HashMap<String, Object> attributes = new HashMap<>();
         List<Map<String, Object>> permissions = groupUserService.getAllPermissionsPerGroupUserIsMemberOf(user.getId());
         attributes.put("name", userEmail);
-        attributes.put("permissionsByGroup", permissions);
-        attributes.put("permissionsLastUpdated", user.getPermissionsLastUpdated());
+        attributes.put(PERMISSIONS_BY_GROUP_CLAIM, permissions);
+        attributes.put(PERMISSIONS_LAST_UPDATED_CLAIM, user.getPermissionsLastUpdated());
         return attributes;
     }
 }
\ No newline at end of file
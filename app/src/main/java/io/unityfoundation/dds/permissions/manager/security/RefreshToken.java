@@ -48,6 +48,15 @@ class RefreshToken {
     @NotNull
     Instant dateCreated;
 
+    public RefreshToken() {
+    }
+
+    public RefreshToken(@NonNull String username, @NonNull String refreshToken, @NonNull Boolean revoked) {
+        this.username = username;
+        this.refreshToken = refreshToken;
+        this.revoked = revoked;
+    }
+
     public Long getId() {
         return id;
     }
@@ -82,4 +91,9 @@ class RefreshToken {
     public void setRefreshToken(@NonNull String refreshToken) {
         this.refreshToken = refreshToken;
     }
+
+    @NonNull
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
 }
\ No newline at end of file
@@ -13,30 +13,53 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.micronaut.context.annotation.Property;
 import io.micronaut.context.env.Environment;
+import io.micronaut.context.event.StartupEvent;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
 import io.micronaut.security.authentication.Authentication;
 import io.micronaut.security.errors.OauthErrorResponseException;
 import io.micronaut.security.token.event.RefreshTokenGeneratedEvent;
 import io.micronaut.security.token.refresh.RefreshTokenPersistence;
+import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
 import io.unityfoundation.dds.permissions.manager.model.user.UserRole;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import static io.micronaut.security.errors.IssuingAnAccessTokenErrorCode.INVALID_CLIENT;
 import static io.micronaut.security.errors.IssuingAnAccessTokenErrorCode.INVALID_GRANT;
 
+/**
+ * Refresh tokens are looked up in the database once and then served from memory for as long as the refresh cookie
+ * lives; new tokens are written by {@link RefreshTokenWriter}. Revocations are read back periodically into a set
+ * that is consulted before the cache. For OAuth users the cached authentication is rebuilt only once the user's
+ * permissions changed since it was built.
+ */
 @Singleton
 public class RefreshTokenPersistenceImpl implements RefreshTokenPersistence {
 
+    public static final String CACHE_NAME = "refresh-tokens";
+
     private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenPersistenceImpl.class);
 
     @Nullable
@@ -46,14 +69,63 @@ public class RefreshTokenPersistenceImpl implements RefreshTokenPersistence {
     @Property(name = "permissions-manager.test.is-admin", defaultValue = "false")
     protected boolean testUserIsAdmin;
 
+    @Property(name = "micronaut.security.token.refresh.cookie.cookie-max-age", defaultValue = "30d")
+    protected Duration refreshTokenMaxAge;
+
+    @Property(name = "permissions-manager.refresh-token.cache.maximum-size", defaultValue = "10000")
+    protected Long cacheMaximumSize;
+
+    @Property(name = "permissions-manager.refresh-token.revocation-refresh-interval", defaultValue = "1m")
+    protected Duration revocationRefreshInterval;
+
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenWriter refreshTokenWriter;
     private final PermissionsManagerAuthenticationMapper authenticationMapper;
+    private final UserRepository userRepository;
     private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final TaskScheduler taskScheduler;
+    private Cache<String, CachedAuthentication> cache;
+    private volatile Set<String> revokedTokens = Set.of();
 
-    public RefreshTokenPersistenceImpl(RefreshTokenRepository refreshTokenRepository, PermissionsManagerAuthenticationMapper authenticationMapper, Environment environment) {
+    public RefreshTokenPersistenceImpl(RefreshTokenRepository refreshTokenRepository, RefreshTokenWriter refreshTokenWriter,
+                                       PermissionsManagerAuthenticationMapper authenticationMapper, UserRepository userRepository,
+                                       Environment environment, MeterRegistry meterRegistry,
+                                       @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
         this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenWriter = refreshTokenWriter;
         this.authenticationMapper = authenticationMapper;
+        this.userRepository = userRepository;
         this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @PostConstruct
+    void initialize() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(refreshTokenMaxAge)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        refreshRevocations();
+        taskScheduler.scheduleWithFixedDelay(revocationRefreshInterval, revocationRefreshInterval, this::refreshRevocations);
+    }
+
+    public void refreshRevocations() {
+        try {
+            Set<String> revoked = new HashSet<>(refreshTokenRepository.findRefreshTokenByRevokedTrue());
+            cache.invalidateAll(revoked);
+            revokedTokens = revoked;
+        } catch (RuntimeException e) {
+            // keep the last known revocations; the next run tries again
+            LOG.warn("Could not refresh revoked refresh tokens", e);
+        }
     }
 
     @Override
@@ -62,40 +134,96 @@ public class RefreshTokenPersistenceImpl implements RefreshTokenPersistence {
         Authentication authentication = event.getAuthentication();
         if (refreshToken != null && authentication != null &&
                 authentication.getName() != null) {
-            refreshTokenRepository.save(authentication.getName(), refreshToken, false);
+            refreshTokenWriter.enqueue(authentication.getName(), refreshToken);
         } else {
-            LOG.debug("DEBUG in persistToken");
+            LOG.debug("Not persisting refresh token: token or authentication missing");
         }
     }
 
     @Override
     public Publisher<Authentication> getAuthentication(String refreshToken) {
+        if (revokedTokens.contains(refreshToken)) {
+            throw new OauthErrorResponseException(INVALID_GRANT, "refresh token revoked", null);
+        }
+
+        CachedAuthentication cached = cache.getIfPresent(refreshToken);
+        if (cached != null) {
+            if (cached.expiresAt.isBefore(Instant.now())) {
+                cache.invalidate(refreshToken);
+                throw new OauthErrorResponseException(INVALID_GRANT, "refresh token expired", null);
+            }
+            if (isCurrent(cached.authentication)) {
+                return Publishers.just(cached.authentication);
+            }
+        }
+
+        CachedAuthentication loaded = loadAuthentication(refreshToken);
+        cache.put(refreshToken, loaded);
+        return Publishers.just(loaded.authentication);
+    }
+
+    // only OAuth users carry permissions in their authentication; those are current until the user changes
+    private boolean isCurrent(Authentication authentication) {
+        Object permissionsLastUpdated = authentication.getAttributes().get(PermissionsManagerAuthenticationMapper.PERMISSIONS_LAST_UPDATED_CLAIM);
+        if (!authentication.getAttributes().containsKey(PermissionsManagerAuthenticationMapper.PERMISSIONS_BY_GROUP_CLAIM)) {
+            return true;
+        }
+
+        return userRepository.queryByEmail(authentication.getName())
+                .map(version -> Objects.equals(version.getPermissionsLastUpdated(), permissionsLastUpdated))
+                .orElse(false);
+    }
+
+    private CachedAuthentication loadAuthentication(String refreshToken) {
+        Optional<String> pendingUsername = refreshTokenWriter.getPendingUsername(refreshToken);
+        if (pendingUsername.isPresent()) {
+            return new CachedAuthentication(authenticate(pendingUsername.get()), Instant.now().plus(refreshTokenMaxAge));
+        }
+
         Optional<RefreshToken> tokenOpt = refreshTokenRepository.findByRefreshToken(refreshToken);
         if (tokenOpt.isPresent()) {
             RefreshToken token = tokenOpt.get();
             if (token.getRevoked()) {
                 throw new OauthErrorResponseException(INVALID_GRANT, "refresh token revoked", null);
-            } else {
-                String username = token.getUsername();
-                if (username.matches("\\d+")) {
-                    // application login
-                    return Publishers.just(Authentication.build(username, List.of(UserRole.APPLICATION.toString())));
-                } else if ( testUsername != null && username.equals(testUsername)  &&
-                        (environment.getActiveNames().contains("dev") || environment.getActiveNames().contains("test")) ) {
-                        // test/dev login
-                    return Publishers.just(Authentication.build(username));
-                }
-
-                // oauth user login
-                Optional<Authentication> authentication =
-                        authenticationMapper.getAuthenticationResponse(username).getAuthentication();
-                if (authentication.isEmpty()) {
-                    throw new OauthErrorResponseException(INVALID_CLIENT);
-                }
-                return Publishers.just(authentication.get());
             }
+
+            Instant expiresAt = token.getDateCreated().plus(refreshTokenMaxAge);
+            if (expiresAt.isBefore(Instant.now())) {
+                throw new OauthErrorResponseException(INVALID_GRANT, "refresh token expired", null);
+            }
+            return new CachedAuthentication(authenticate(token.getUsername()), expiresAt);
         } else {
             throw new OauthErrorResponseException(INVALID_GRANT, "refresh token not found", null);
         }
     }
+
+    private Authentication authenticate(String username) {
+        if (username.matches("\\d+")) {
+            // application login
+            return Authentication.build(username, List.of(UserRole.APPLICATION.toString()));
+        } else if ( testUsername != null && username.equals(testUsername)  &&
+                (environment.getActiveNames().contains("dev") || environment.getActiveNames().contains("test")) ) {
+                // test/dev login
+            return Authentication.build(username);
+        }
+
+        // oauth user login
+        Optional<Authentication> authentication =
+                authenticationMapper.getAuthenticationResponse(username).getAuthentication();
+        if (authentication.isEmpty()) {
+            throw new OauthErrorResponseException(INVALID_CLIENT);
+        }
+        return authentication.get();
+    }
+
+    private static final class CachedAuthentication {
+        private final Authentication authentication;
+        // refresh tokens expire with the cookie that carries them, counted from when they were issued
+        private final Instant expiresAt;
+
+        private CachedAuthentication(Authentication authentication, Instant expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
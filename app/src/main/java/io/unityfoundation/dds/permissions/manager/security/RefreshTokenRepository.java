@@ -15,11 +15,15 @@ package io.unityfoundation.dds.permissions.manager.security;
 
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.CrudRepository;
 
 import javax.transaction.Transactional;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -35,4 +39,14 @@ interface RefreshTokenRepository extends CrudRepository<RefreshToken, Long> {
 
     long updateByUsername(@NonNull @NotBlank String username,
                           boolean revoked);
+
+    List<String> findRefreshTokenByRevokedTrue();
+
+    List<Long> findIdByDateCreatedLessThan(@NonNull Instant dateCreated, @NonNull Pageable pageable);
+
+    @Transactional
+    void deleteByIdIn(@NonNull Collection<Long> ids);
+
+    @Transactional
+    void deleteByRefreshTokenIn(@NonNull Collection<String> refreshTokens);
 }
\ No newline at end of file
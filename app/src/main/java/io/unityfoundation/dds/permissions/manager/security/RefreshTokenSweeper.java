@@ -0,0 +1,123 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes refresh tokens that outlived the refresh cookie, and revoked ones, in chunks so that no single
+ * statement holds the table for long. A revoked token is only deleted at the sweep after the one that first
+ * saw it, so every instance has read it into its revocations by then.
+ */
+@Singleton
+public class RefreshTokenSweeper {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenSweeper.class);
+
+    @Property(name = "micronaut.security.token.refresh.cookie.cookie-max-age", defaultValue = "30d")
+    protected Duration refreshTokenMaxAge;
+
+    @Property(name = "permissions-manager.refresh-token.sweep.interval", defaultValue = "1h")
+    protected Duration sweepInterval;
+
+    @Property(name = "permissions-manager.refresh-token.sweep.chunk-size", defaultValue = "500")
+    protected Integer chunkSize;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MeterRegistry meterRegistry;
+    private final TaskScheduler taskScheduler;
+    private final AtomicLong tokenCount = new AtomicLong();
+    private Set<String> revokedAtLastSweep = Set.of();
+    private Timer sweepTimer;
+    private Counter swept;
+
+    public RefreshTokenSweeper(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry,
+                               @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.meterRegistry = meterRegistry;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @PostConstruct
+    void initialize() {
+        Gauge.builder("permissions-manager.refresh-tokens.count", tokenCount, AtomicLong::get)
+                .description("Refresh tokens stored after the last sweep")
+                .register(meterRegistry);
+        sweepTimer = Timer.builder("permissions-manager.refresh-tokens.sweep")
+                .description("Time spent deleting expired and revoked refresh tokens")
+                .register(meterRegistry);
+        swept = Counter.builder("permissions-manager.refresh-tokens.swept")
+                .description("Refresh tokens deleted by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        taskScheduler.scheduleWithFixedDelay(sweepInterval, sweepInterval, () -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not sweep refresh tokens", e);
+            }
+        });
+    }
+
+    public synchronized void sweep() {
+        sweepTimer.record(() -> {
+            Instant expiry = Instant.now().minus(refreshTokenMaxAge);
+            List<Long> expiredIds;
+            while (!(expiredIds = refreshTokenRepository.findIdByDateCreatedLessThan(expiry, Pageable.from(0, chunkSize))).isEmpty()) {
+                refreshTokenRepository.deleteByIdIn(expiredIds);
+                swept.increment(expiredIds.size());
+            }
+
+            Set<String> revoked = new HashSet<>(refreshTokenRepository.findRefreshTokenByRevokedTrue());
+            List<String> seenBefore = revoked.stream()
+                    .filter(revokedAtLastSweep::contains)
+                    .collect(Collectors.toList());
+            for (int from = 0; from < seenBefore.size(); from += chunkSize) {
+                List<String> chunk = new ArrayList<>(seenBefore.subList(from, Math.min(from + chunkSize, seenBefore.size())));
+                refreshTokenRepository.deleteByRefreshTokenIn(chunk);
+                swept.increment(chunk.size());
+            }
+            revoked.removeAll(seenBefore);
+            revokedAtLastSweep = revoked;
+
+            tokenCount.set(refreshTokenRepository.count());
+        });
+    }
+}
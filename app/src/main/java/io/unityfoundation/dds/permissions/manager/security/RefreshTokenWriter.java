@@ -0,0 +1,168 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Queues new refresh tokens and writes them in batches, one transaction per batch, instead of on the request
+ * that issued them. Tokens still waiting in the queue are looked up here, so they can be used before they
+ * reach the database.
+ */
+@Singleton
+public class RefreshTokenWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenWriter.class);
+
+    @Property(name = "permissions-manager.refresh-token.write.batch-size", defaultValue = "100")
+    protected Integer batchSize;
+
+    // until a token is flushed it lives only in the memory of the instance that issued it: other instances
+    // answer "refresh token not found" for it, and it is lost if this instance stops without a successful flush
+    @Property(name = "permissions-manager.refresh-token.write.flush-interval", defaultValue = "1s")
+    protected Duration flushInterval;
+
+    @Property(name = "permissions-manager.refresh-token.write.max-attempts", defaultValue = "5")
+    protected Integer maxAttempts;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MeterRegistry meterRegistry;
+    private final TaskScheduler taskScheduler;
+    // refresh token to username until the token is written
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    // failed writes per refresh token; only touched while flushing
+    private final Map<String, Integer> failedAttempts = new HashMap<>();
+
+    public RefreshTokenWriter(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry,
+                              @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.meterRegistry = meterRegistry;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @PostConstruct
+    void initialize() {
+        Gauge.builder("permissions-manager.refresh-tokens.pending", pending, Map::size)
+                .description("Refresh tokens waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        taskScheduler.scheduleWithFixedDelay(flushInterval, flushInterval, this::flush);
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    void enqueue(String username, String refreshToken) {
+        pending.put(refreshToken, username);
+        queue.add(refreshToken);
+        if (pending.size() >= batchSize) {
+            taskScheduler.schedule(Duration.ZERO, this::flush);
+        }
+    }
+
+    Optional<String> getPendingUsername(String refreshToken) {
+        return Optional.ofNullable(pending.get(refreshToken));
+    }
+
+    public synchronized void flush() {
+        List<String> batch = new ArrayList<>(batchSize);
+        String refreshToken;
+        while ((refreshToken = queue.poll()) != null) {
+            batch.add(refreshToken);
+            if (batch.size() == batchSize) {
+                if (!write(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private boolean write(List<String> batch) {
+        List<RefreshToken> refreshTokens = batch.stream()
+                .map(refreshToken -> new RefreshToken(pending.get(refreshToken), refreshToken, false))
+                .collect(Collectors.toList());
+        try {
+            refreshTokenRepository.saveAll(refreshTokens);
+            batch.forEach(this::written);
+            return true;
+        } catch (RuntimeException e) {
+            LOG.warn("Could not write a batch of {} refresh tokens, writing them one at a time", batch.size(), e);
+        }
+
+        // a single token the database rejects must not keep the rest of its batch out; fresh entities are
+        // used because the ones from the failed batch may carry state from the rolled back transaction
+        boolean allWritten = true;
+        for (String refreshToken : batch) {
+            try {
+                refreshTokenRepository.save(new RefreshToken(pending.get(refreshToken), refreshToken, false));
+                written(refreshToken);
+            } catch (RuntimeException e) {
+                failed(refreshToken, e);
+                allWritten = false;
+            }
+        }
+        return allWritten;
+    }
+
+    private void written(String refreshToken) {
+        pending.remove(refreshToken);
+        failedAttempts.remove(refreshToken);
+    }
+
+    private void failed(String refreshToken, RuntimeException e) {
+        if (failedAttempts.merge(refreshToken, 1, Integer::sum) < maxAttempts) {
+            // the token stays usable from memory; the next flush tries again
+            LOG.error("Could not write a refresh token", e);
+            queue.add(refreshToken);
+        } else {
+            // its user has to log in again
+            LOG.error("Dropped a refresh token after {} failed writes", maxAttempts, e);
+            failedAttempts.remove(refreshToken);
+            pending.remove(refreshToken);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import java.io.IOException;
+
+/**
+ * Where {@link ApplicationSecretsClient} reads the CA material and governance file from. Secrets are identified
+ * by the file names declared on {@link ApplicationSecretsClient}; a source returns {@code null} for a secret it
+ * does not hold.
+ */
+public interface SecretSource {
+
+    String getLatestETag(String file) throws IOException;
+
+    String getLatestSecret(String file) throws IOException;
+
+    /**
+     * Registers a callback for sources that can detect rotations themselves. Sources that can only be polled
+     * ignore it and rely on the scheduled refresh.
+     */
+    default void watch(Runnable onChange) {
+    }
+}
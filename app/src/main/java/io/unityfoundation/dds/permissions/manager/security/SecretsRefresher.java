@@ -0,0 +1,69 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loads the secrets at startup and then re-reads them in the background, so serving a CA certificate or the
+ * governance file never waits on the secret store. Each run is delayed by the interval plus a random jitter
+ * to keep replicas from polling the store in lockstep. Sources that detect rotations themselves also trigger
+ * a refresh as soon as they see one.
+ */
+@Singleton
+public class SecretsRefresher {
+
+    @Property(name = "permissions-manager.secrets.refresh-interval", defaultValue = "5m")
+    protected Duration refreshInterval;
+
+    @Property(name = "permissions-manager.secrets.refresh-jitter", defaultValue = "30s")
+    protected Duration refreshJitter;
+
+    private final ApplicationSecretsClient applicationSecretsClient;
+    private final TaskScheduler taskScheduler;
+
+    public SecretsRefresher(ApplicationSecretsClient applicationSecretsClient, @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler) {
+        this.applicationSecretsClient = applicationSecretsClient;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        if (applicationSecretsClient.isEnabled()) {
+            applicationSecretsClient.refresh();
+            applicationSecretsClient.watchForChanges();
+            scheduleNextRefresh();
+        }
+    }
+
+    private void scheduleNextRefresh() {
+        long jitterMillis = refreshJitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(refreshJitter.toMillis() + 1);
+        taskScheduler.schedule(refreshInterval.plusMillis(jitterMillis), () -> {
+            try {
+                applicationSecretsClient.refresh();
+            } finally {
+                scheduleNextRefresh();
+            }
+        });
+    }
+}
@@ -0,0 +1,67 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable view of the secret store: the content and ETag of each secret at the time it was read.
+ */
+public final class SecretsSnapshot {
+
+    public static final SecretsSnapshot EMPTY = new SecretsSnapshot(Map.of(), Map.of());
+
+    private final Map<String, String> secrets;
+    private final Map<String, String> etags;
+
+    private SecretsSnapshot(Map<String, String> secrets, Map<String, String> etags) {
+        this.secrets = secrets;
+        this.etags = etags;
+    }
+
+    public Optional<String> getSecret(String file) {
+        return Optional.ofNullable(secrets.get(file));
+    }
+
+    public String getETag(String file) {
+        return etags.get(file);
+    }
+
+    public Builder toBuilder() {
+        return new Builder(secrets, etags);
+    }
+
+    public static final class Builder {
+        private final Map<String, String> secrets;
+        private final Map<String, String> etags;
+
+        private Builder(Map<String, String> secrets, Map<String, String> etags) {
+            this.secrets = new HashMap<>(secrets);
+            this.etags = new HashMap<>(etags);
+        }
+
+        public Builder put(String file, String secret, String etag) {
+            secrets.put(file, secret);
+            etags.put(file, etag);
+            return this;
+        }
+
+        public SecretsSnapshot build() {
+            return new SecretsSnapshot(Collections.unmodifiableMap(secrets), Collections.unmodifiableMap(etags));
+        }
+    }
+}
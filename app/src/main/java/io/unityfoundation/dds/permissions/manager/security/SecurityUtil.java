@@ -13,44 +13,165 @@
 // limitations under the License.
 package io.unityfoundation.dds.permissions.manager.security;
 
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpStatus;
+import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.jwt.generator.claims.JwtClaims;
 import io.micronaut.security.utils.SecurityService;
 import io.unityfoundation.dds.permissions.manager.ResponseStatusCodes;
 import io.unityfoundation.dds.permissions.manager.exception.DPMException;
 import io.unityfoundation.dds.permissions.manager.model.application.Application;
 import io.unityfoundation.dds.permissions.manager.model.application.ApplicationRepository;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.MembershipIndex;
 import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.model.user.UserPermissionsVersion;
 import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
 import jakarta.inject.Singleton;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 @Singleton
 public class SecurityUtil {
 
+    static final String AUTHORIZATION_CONTEXT_ATTRIBUTE = "dpm.authorization-context";
+
+    @Property(name = "permissions-manager.authorization.trust-token-claims", defaultValue = StringUtils.FALSE)
+    protected boolean trustTokenClaims;
+
     private final SecurityService securityService;
     private final UserRepository userRepository;
     private final ApplicationRepository applicationRepository;
+    private final MembershipIndex membershipIndex;
 
-    public SecurityUtil(SecurityService securityService, UserRepository userRepository, ApplicationRepository applicationRepository) {
+    public SecurityUtil(SecurityService securityService, UserRepository userRepository, ApplicationRepository applicationRepository,
+                        MembershipIndex membershipIndex) {
         this.securityService = securityService;
         this.userRepository = userRepository;
         this.applicationRepository = applicationRepository;
+        this.membershipIndex = membershipIndex;
     }
 
     public boolean isCurrentUserAdmin() {
-        Optional<User> currentlyAuthenticatedUser = getCurrentlyAuthenticatedUser();
-        if (currentlyAuthenticatedUser.isEmpty()) {
+        AuthorizationContext context = getAuthorizationContext();
+        if (!context.isAuthenticatedUser()) {
             throw new DPMException(ResponseStatusCodes.USER_NOT_FOUND, HttpStatus.UNAUTHORIZED);
         }
-        return currentlyAuthenticatedUser.get().isAdmin();
+        return context.isAdmin();
     }
 
     public Optional<User> getCurrentlyAuthenticatedUser() {
-        Authentication authentication = securityService.getAuthentication().get();
-        String userEmail = authentication.getName();
-        return userRepository.findByEmail(userEmail);
+        return getAuthorizationContext().getUser();
+    }
+
+    /**
+     * The authorization context of the current HTTP request, resolved on first use and kept as a request
+     * attribute. Outside of a request (or once the authentication changed) a fresh context is resolved.
+     */
+    public AuthorizationContext getAuthorizationContext() {
+        Optional<Authentication> authentication = securityService.getAuthentication();
+        if (authentication.isEmpty()) {
+            return AuthorizationContext.unauthenticated(null);
+        }
+
+        String name = authentication.get().getName();
+        Optional<HttpRequest<Object>> request = ServerRequestContext.currentRequest();
+
+        if (request.isPresent()) {
+            Optional<AuthorizationContext> cached = request.get().getAttribute(AUTHORIZATION_CONTEXT_ATTRIBUTE, AuthorizationContext.class);
+            if (cached.isPresent() && cached.get().isFor(name)) {
+                return cached.get();
+            }
+        }
+
+        AuthorizationContext context = trustTokenClaims ? resolveFromClaims(authentication.get()) : resolve(name);
+        request.ifPresent(httpRequest -> httpRequest.setAttribute(AUTHORIZATION_CONTEXT_ATTRIBUTE, context));
+        return context;
+    }
+
+    private AuthorizationContext resolve(String name) {
+        Optional<User> user = userRepository.findByEmail(name);
+        if (user.isEmpty()) {
+            return AuthorizationContext.unauthenticated(name);
+        }
+
+        Long userId = user.get().getId();
+        return new AuthorizationContext(name, userId, user.get().isAdmin(), () -> user, () -> membershipIndex.getRolesByGroup(userId));
+    }
+
+    // memberships come from the token unless the user's permissions changed after it was issued
+    private AuthorizationContext resolveFromClaims(Authentication authentication) {
+        String name = authentication.getName();
+        Optional<UserPermissionsVersion> version = userRepository.queryByEmail(name);
+        if (version.isEmpty()) {
+            return AuthorizationContext.unauthenticated(name);
+        }
+
+        Long userId = version.get().getId();
+        Map<String, Object> claims = authentication.getAttributes();
+        Optional<Map<Long, Integer>> claimedRoles = isCurrent(claims, version.get()) ?
+                readRoles(claims.get(PermissionsManagerAuthenticationMapper.PERMISSIONS_BY_GROUP_CLAIM)) : Optional.empty();
+
+        return new AuthorizationContext(name, userId, version.get().isAdmin(), () -> userRepository.findById(userId),
+                () -> claimedRoles.orElseGet(() -> membershipIndex.getRolesByGroup(userId)));
+    }
+
+    private static boolean isCurrent(Map<String, Object> claims, UserPermissionsVersion version) {
+        Long lastUpdated = version.getPermissionsLastUpdated();
+        Object claimedLastUpdated = claims.get(PermissionsManagerAuthenticationMapper.PERMISSIONS_LAST_UPDATED_CLAIM);
+        if (lastUpdated != null && claimedLastUpdated instanceof Number && lastUpdated == ((Number) claimedLastUpdated).longValue()) {
+            return true;
+        }
+
+        Long issuedAt = toEpochMillis(claims.get(JwtClaims.ISSUED_AT));
+        return issuedAt != null && (lastUpdated == null || lastUpdated <= issuedAt);
+    }
+
+    private static Long toEpochMillis(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value instanceof Instant) {
+            return ((Instant) value).toEpochMilli();
+        }
+        if (value instanceof Number) {
+            // numeric date claims are in seconds
+            return ((Number) value).longValue() * 1000;
+        }
+        return null;
+    }
+
+    private static Optional<Map<Long, Integer>> readRoles(Object claim) {
+        if (!(claim instanceof Collection)) {
+            return Optional.empty();
+        }
+
+        Map<Long, Integer> rolesByGroup = new LinkedHashMap<>();
+        for (Object entry : (Collection<?>) claim) {
+            if (!(entry instanceof Map) || !(((Map<?, ?>) entry).get("groupId") instanceof Number)) {
+                return Optional.empty();
+            }
+            Map<?, ?> permissions = (Map<?, ?>) entry;
+            rolesByGroup.put(((Number) permissions.get("groupId")).longValue(), MembershipIndex.roles(
+                    Boolean.TRUE.equals(permissions.get("isGroupAdmin")),
+                    Boolean.TRUE.equals(permissions.get("isTopicAdmin")),
+                    Boolean.TRUE.equals(permissions.get("isApplicationAdmin"))));
+        }
+        return Optional.of(Collections.unmodifiableMap(rolesByGroup));
+    }
+
+    // called after the current request changed users or memberships, so later checks see the new state
+    public void invalidateAuthorizationContext() {
+        ServerRequestContext.currentRequest()
+                .ifPresent(httpRequest -> httpRequest.removeAttribute(AUTHORIZATION_CONTEXT_ATTRIBUTE, AuthorizationContext.class));
     }
 
     public Optional<Application> getCurrentlyAuthenticatedApplication() {
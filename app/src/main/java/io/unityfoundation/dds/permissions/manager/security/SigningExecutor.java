@@ -0,0 +1,88 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.security;
+
+import io.micronaut.context.annotation.Property;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A fixed pool for CPU-bound signing work (client certificates, permissions documents) issued in bulk.
+ */
+@Singleton
+public class SigningExecutor {
+
+    @Property(name = "permissions-manager.application.signing.parallelism", defaultValue = "0")
+    protected Integer parallelism;
+
+    private ExecutorService executor;
+    private int threads;
+
+    @PostConstruct
+    void initialize() {
+        threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "signer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs {@code task} for every input on the pool and hands the results to {@code sink} in input order, on the
+     * calling thread. At most two tasks per thread are in flight, so a large batch never queues up ahead of a slow
+     * sink. Pending tasks are cancelled if a task or the sink fails.
+     */
+    public <T, R> void mapInOrder(List<T> inputs, Task<T, R> task, Sink<R> sink) throws IOException, InterruptedException, ExecutionException {
+        Deque<Future<R>> inFlight = new ArrayDeque<>();
+        Iterator<T> pending = inputs.iterator();
+        try {
+            while (pending.hasNext() || !inFlight.isEmpty()) {
+                while (pending.hasNext() && inFlight.size() < threads * 2) {
+                    T input = pending.next();
+                    inFlight.add(executor.submit(() -> task.apply(input)));
+                }
+                sink.accept(inFlight.remove().get());
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @FunctionalInterface
+    public interface Task<T, R> {
+        R apply(T input) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Sink<R> {
+        void accept(R result) throws IOException;
+    }
+}
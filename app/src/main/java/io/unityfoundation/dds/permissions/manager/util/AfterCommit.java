@@ -0,0 +1,44 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager.util;
+
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.transaction.support.TransactionSynchronization;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes change events once the surrounding transaction has committed. Listeners drop or rebuild cached state
+ * from the database, so an event published inside the transaction could be handled before the change is visible
+ * and leave the old state cached; an event of a transaction that rolls back is not published at all.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static <E> void publish(ApplicationEventPublisher<E> publisher, E event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // no transaction is open, so every write before this call has already committed
+            publisher.publishEvent(event);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publisher.publishEvent(event);
+            }
+        });
+    }
+}
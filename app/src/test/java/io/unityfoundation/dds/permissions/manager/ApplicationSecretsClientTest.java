@@ -0,0 +1,163 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.unityfoundation.dds.permissions.manager.security.ApplicationSecretsClient;
+import io.unityfoundation.dds.permissions.manager.security.FileSystemSecretSource;
+import io.unityfoundation.dds.permissions.manager.security.SecretSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.unityfoundation.dds.permissions.manager.security.ApplicationSecretsClient.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApplicationSecretsClientTest {
+
+    static class FakeSecretSource implements SecretSource {
+        final Map<String, String> secrets = new HashMap<>();
+        final Map<String, String> etags = new HashMap<>();
+        final List<String> fetched = new ArrayList<>();
+        boolean unavailable = false;
+
+        void rotate(String file, String secret, String etag) {
+            secrets.put(file, secret);
+            etags.put(file, etag);
+        }
+
+        @Override
+        public String getLatestSecret(String file) {
+            fetched.add(file);
+            return secrets.get(file);
+        }
+
+        @Override
+        public String getLatestETag(String file) throws IOException {
+            if (unavailable) {
+                throw new IOException("secret store unavailable");
+            }
+            return etags.get(file);
+        }
+    }
+
+    static class DirectorySecretSource extends FileSystemSecretSource {
+        DirectorySecretSource(Path path) {
+            directory = path.toString();
+        }
+    }
+
+    @Test
+    void refreshOnlyFetchesRotatedSecrets() {
+        FakeSecretSource source = new FakeSecretSource();
+        ApplicationSecretsClient client = new ApplicationSecretsClient(source);
+        FILES.forEach(file -> source.rotate(file, file + "-v1", "v1"));
+
+        assertTrue(client.getIdentityCACert().isEmpty());
+        assertTrue(client.refresh());
+        assertEquals(FILES.size(), source.fetched.size());
+        assertEquals("identity_ca_pem-v1", client.getIdentityCACert().get());
+        assertEquals("governance_xml_p7s-v1", client.getGovernanceFile().get());
+        assertEquals("v1", client.getCorrespondingEtag(PERMISSIONS_CA_CERT));
+
+        source.fetched.clear();
+        assertFalse(client.refresh());
+        assertTrue(source.fetched.isEmpty());
+
+        source.rotate(PERMISSIONS_CA_CERT, "permissions_ca_pem-v2", "v2");
+        assertTrue(client.refresh());
+        assertEquals(List.of(PERMISSIONS_CA_CERT), source.fetched);
+        assertEquals("permissions_ca_pem-v2", client.getPermissionsCACert().get());
+        assertEquals("v2", client.getCorrespondingEtag(PERMISSIONS_CA_CERT));
+        assertEquals("identity_ca_pem-v1", client.getIdentityCACert().get());
+        assertEquals("v1", client.getCorrespondingEtag(IDENTITY_CA_CERT));
+    }
+
+    @Test
+    void failedRefreshKeepsLastSnapshot() {
+        FakeSecretSource source = new FakeSecretSource();
+        ApplicationSecretsClient client = new ApplicationSecretsClient(source);
+        FILES.forEach(file -> source.rotate(file, file + "-v1", "v1"));
+        assertTrue(client.refresh());
+
+        source.rotate(IDENTITY_CA_KEY, "identity_ca_key_pem-v2", "v2");
+        source.unavailable = true;
+        assertFalse(client.refresh());
+        assertEquals("identity_ca_key_pem-v1", client.getIdentityCAKey().get());
+        assertEquals("v1", client.getCorrespondingEtag(IDENTITY_CA_KEY));
+
+        source.unavailable = false;
+        assertTrue(client.refresh());
+        assertEquals("identity_ca_key_pem-v2", client.getIdentityCAKey().get());
+    }
+
+    @Test
+    void fileSystemSourceHashesContentAndReportsRotations(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve(IDENTITY_CA_CERT), "identity-v1");
+        Files.writeString(directory.resolve(GOVERNANCE_FILE), "governance-v1");
+        ApplicationSecretsClient client = new ApplicationSecretsClient(new DirectorySecretSource(directory));
+
+        assertTrue(client.refresh());
+        assertEquals("identity-v1", client.getIdentityCACert().get());
+        assertEquals("governance-v1", client.getGovernanceFile().get());
+        assertTrue(client.getPermissionsCAKey().isEmpty());
+        String identityETag = client.getCorrespondingEtag(IDENTITY_CA_CERT);
+        assertNotNull(identityETag);
+
+        // rewriting identical content or only touching the file keeps the ETag
+        Files.writeString(directory.resolve(IDENTITY_CA_CERT), "identity-v1");
+        assertFalse(client.refresh());
+        Path identityFile = directory.resolve(IDENTITY_CA_CERT);
+        Files.setLastModifiedTime(identityFile, FileTime.fromMillis(Files.getLastModifiedTime(identityFile).toMillis() + 60_000));
+        assertFalse(client.refresh());
+        assertEquals(identityETag, client.getCorrespondingEtag(IDENTITY_CA_CERT));
+
+        CountDownLatch rotated = new CountDownLatch(1);
+        DirectorySecretSource watched = new DirectorySecretSource(directory);
+        watched.watch(rotated::countDown);
+        try {
+            Files.writeString(directory.resolve(IDENTITY_CA_CERT), "identity-v2");
+            assertTrue(rotated.await(30, TimeUnit.SECONDS));
+        } finally {
+            watched.close();
+        }
+
+        assertTrue(client.refresh());
+        assertEquals("identity-v2", client.getIdentityCACert().get());
+        assertNotEquals(identityETag, client.getCorrespondingEtag(IDENTITY_CA_CERT));
+    }
+
+    @Test
+    void fileSystemSourceReturnsTheContentItHashed(@TempDir Path directory) throws Exception {
+        DirectorySecretSource source = new DirectorySecretSource(directory);
+        Files.writeString(directory.resolve(IDENTITY_CA_KEY), "key-v1");
+
+        String etag = source.getLatestETag(IDENTITY_CA_KEY);
+        // a rotation between the two calls is picked up by the next refresh, not mixed into this one
+        Files.writeString(directory.resolve(IDENTITY_CA_KEY), "key-v2");
+        assertEquals("key-v1", source.getLatestSecret(IDENTITY_CA_KEY));
+
+        assertNotEquals(etag, source.getLatestETag(IDENTITY_CA_KEY));
+        assertEquals("key-v2", source.getLatestSecret(IDENTITY_CA_KEY));
+    }
+}
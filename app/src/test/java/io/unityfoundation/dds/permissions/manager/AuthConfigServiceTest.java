@@ -0,0 +1,55 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micronaut.http.HttpResponse;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.security.AuthConfigService;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.security.interfaces.RSAPublicKey;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+public class AuthConfigServiceTest {
+
+    @Inject
+    AuthConfigService authConfigService;
+
+    @Test
+    void keysAreReadOnceUntilTheirFileChanges() throws Exception {
+        RSAPublicKey publicKey = authConfigService.getPublicKey();
+        assertSame(publicKey, authConfigService.getPublicKey());
+        assertSame(authConfigService.getPrivateKey(), authConfigService.getPrivateKey());
+
+        File file = authConfigService.getFileFromResource("publickey.crt");
+        assertTrue(file.setLastModified(file.lastModified() + 1000));
+
+        RSAPublicKey reloaded = authConfigService.getPublicKey();
+        assertNotSame(publicKey, reloaded);
+        assertEquals(publicKey, reloaded);
+    }
+
+    @Test
+    void publicKeysAreServedAsPem() throws Exception {
+        HttpResponse<?> response = authConfigService.getPublicKeys();
+        List<Map<String, String>> body = (List<Map<String, String>>) response.body();
+        assertEquals(authConfigService.objectToPEMString(authConfigService.readX509PublicKey()), body.get(0).get("public"));
+    }
+}
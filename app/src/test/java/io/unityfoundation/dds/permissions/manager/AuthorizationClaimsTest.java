@@ -0,0 +1,137 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.security.authentication.ServerAuthentication;
+import io.micronaut.security.utils.SecurityService;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.model.group.Group;
+import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUser;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserRepository;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
+import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
+import io.unityfoundation.dds.permissions.manager.testing.util.DbCleanup;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "spec.name", value = "AuthorizationClaimsTest")
+@Property(name = "permissions-manager.authorization.trust-token-claims", value = StringUtils.TRUE)
+public class AuthorizationClaimsTest {
+
+    @Inject
+    MockSecurityService mockSecurityService;
+
+    @Inject
+    GroupUserService groupUserService;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    GroupRepository groupRepository;
+
+    @Inject
+    GroupUserRepository groupUserRepository;
+
+    @Inject
+    DbCleanup dbCleanup;
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    @Requires(property = "spec.name", value = "AuthorizationClaimsTest")
+    @Replaces(SecurityService.class)
+    @Singleton
+    static class MockSecurityService extends SecurityServiceReplacement {
+    }
+
+    private User user;
+    private Group group;
+
+    @BeforeEach
+    void setup() {
+        dbCleanup.cleanup();
+        user = userRepository.save(new User("jjones@test.test"));
+        group = groupRepository.save(new Group("PrimaryGroup"));
+        groupUserRepository.save(new GroupUser(group, user));
+    }
+
+    @Test
+    void rolesAreReadFromCurrentClaims() {
+        loginWithClaims(user.getPermissionsLastUpdated(), true);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertTrue(groupUserService.isUserGroupAdminOfGroup(group.getId(), user.getId()));
+        assertTrue(groupUserService.isCurrentUserMemberOfGroup(group.getId()));
+        assertEquals(List.of(group.getId()), groupUserService.getAllGroupsUserIsAMemberOf(user.getId()));
+        assertEquals(0, countExecutions(statistics, "model.groupuser.GroupUser AS"));
+    }
+
+    @Test
+    void rolesAreReadFromDatabaseOnceClaimsAreStale() {
+        loginWithClaims(user.getPermissionsLastUpdated() - 1000, true);
+
+        assertFalse(groupUserService.isUserGroupAdminOfGroup(group.getId(), user.getId()));
+        assertTrue(groupUserService.isCurrentUserMemberOfGroup(group.getId()));
+    }
+
+    @Test
+    void rolesAreReadFromDatabaseWithoutClaims() {
+        mockSecurityService.setServerAuthentication(new ServerAuthentication(user.getEmail(), Collections.emptyList(), Map.of()));
+
+        assertFalse(groupUserService.isUserGroupAdminOfGroup(group.getId(), user.getId()));
+        assertTrue(groupUserService.isCurrentUserMemberOfGroup(group.getId()));
+    }
+
+    // claims deliberately disagree with the database so it is visible which one was used
+    private void loginWithClaims(Long permissionsLastUpdated, boolean groupAdmin) {
+        Map<String, Object> permissions = Map.of(
+                "groupId", group.getId(),
+                "groupName", group.getName(),
+                "isGroupAdmin", groupAdmin,
+                "isTopicAdmin", false,
+                "isApplicationAdmin", false);
+        mockSecurityService.setServerAuthentication(new ServerAuthentication(user.getEmail(), Collections.emptyList(), Map.of(
+                "permissionsByGroup", List.of(permissions),
+                "permissionsLastUpdated", permissionsLastUpdated)));
+    }
+
+    private long countExecutions(Statistics statistics, String entity) {
+        return Arrays.stream(statistics.getQueries())
+                .filter(query -> query.contains(entity))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .sum();
+    }
+}
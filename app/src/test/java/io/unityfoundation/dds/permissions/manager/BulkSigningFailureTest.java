@@ -0,0 +1,250 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.security.utils.SecurityService;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.model.action.ActionRepository;
+import io.unityfoundation.dds.permissions.manager.model.actiontopic.ActionTopicRepository;
+import io.unityfoundation.dds.permissions.manager.model.application.ApplicationDTO;
+import io.unityfoundation.dds.permissions.manager.model.application.ClientCertificateBatchIssuer;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrant;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantGraph;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantGraphLoader;
+import io.unityfoundation.dds.permissions.manager.model.applicationgrant.ApplicationGrantRepository;
+import io.unityfoundation.dds.permissions.manager.model.group.Group;
+import io.unityfoundation.dds.permissions.manager.model.topicsettopic.TopicSetTopicRepository;
+import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
+import io.unityfoundation.dds.permissions.manager.security.KeyPairPool;
+import io.unityfoundation.dds.permissions.manager.testing.util.DbCleanup;
+import io.unityfoundation.dds.permissions.manager.testing.util.EntityLifecycleUtil;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import static io.micronaut.http.HttpStatus.OK;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk endpoints send their status before the first item is signed, so a failure part way through has to be
+ * recognisable in the body itself rather than as a response that merely stops.
+ */
+@Property(name = "spec.name", value = "BulkSigningFailureTest")
+@MicronautTest
+public class BulkSigningFailureTest {
+
+    private BlockingHttpClient blockingClient;
+
+    @Inject
+    MockSecurityService mockSecurityService;
+
+    @Inject
+    MockAuthenticationFetcher mockAuthenticationFetcher;
+
+    @Inject
+    FailingKeyPairPool keyPairPool;
+
+    @Inject
+    FailingApplicationGrantGraphLoader applicationGrantGraphLoader;
+
+    @Inject
+    EntityLifecycleUtil entityUtil;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    DbCleanup dbCleanup;
+
+    @Inject
+    @Client("/api")
+    HttpClient client;
+
+    @Requires(property = "spec.name", value = "BulkSigningFailureTest")
+    @Singleton
+    static class MockAuthenticationFetcher extends AuthenticationFetcherReplacement {
+    }
+
+    @Requires(property = "spec.name", value = "BulkSigningFailureTest")
+    @Replaces(SecurityService.class)
+    @Singleton
+    static class MockSecurityService extends SecurityServiceReplacement {
+    }
+
+    @Requires(property = "spec.name", value = "BulkSigningFailureTest")
+    @Replaces(KeyPairPool.class)
+    @Singleton
+    static class FailingKeyPairPool extends KeyPairPool {
+
+        private final AtomicInteger remaining = new AtomicInteger(Integer.MAX_VALUE);
+
+        FailingKeyPairPool(MeterRegistry meterRegistry) {
+            super(meterRegistry);
+        }
+
+        void failAfter(int keyPairs) {
+            remaining.set(keyPairs);
+        }
+
+        @Override
+        public KeyPair take() throws GeneralSecurityException {
+            if (remaining.getAndDecrement() <= 0) {
+                throw new IllegalStateException("key pair pool failed");
+            }
+            return super.take();
+        }
+    }
+
+    @Requires(property = "spec.name", value = "BulkSigningFailureTest")
+    @Replaces(ApplicationGrantGraphLoader.class)
+    @Singleton
+    static class FailingApplicationGrantGraphLoader extends ApplicationGrantGraphLoader {
+
+        private Long failingApplicationId;
+
+        FailingApplicationGrantGraphLoader(ApplicationGrantRepository applicationGrantRepository, ActionRepository actionRepository,
+                                           ActionTopicRepository actionTopicRepository, TopicSetTopicRepository topicSetTopicRepository) {
+            super(applicationGrantRepository, actionRepository, actionTopicRepository, topicSetTopicRepository);
+        }
+
+        void failFor(Long applicationId) {
+            failingApplicationId = applicationId;
+        }
+
+        @Override
+        @Transactional
+        public Map<Long, ApplicationGrantGraph> loadByGroup(Long groupId) {
+            Map<Long, ApplicationGrantGraph> grantGraphs = new HashMap<>(super.loadByGroup(groupId));
+            if (failingApplicationId != null) {
+                grantGraphs.put(failingApplicationId, new ApplicationGrantGraph(List.of(), Map.of(), Map.of()) {
+                    @Override
+                    public List<ApplicationGrant> getGrants() {
+                        throw new IllegalStateException("grant graph failed");
+                    }
+                });
+            }
+            return grantGraphs;
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        blockingClient = client.toBlocking();
+        dbCleanup.cleanup();
+        userRepository.save(new User("montesm@test.test.com", true));
+        mockSecurityService.postConstruct();
+        mockAuthenticationFetcher.setAuthentication(mockSecurityService.getAuthentication().get());
+        keyPairPool.failAfter(Integer.MAX_VALUE);
+        applicationGrantGraphLoader.failFor(null);
+    }
+
+    private Group createGroup() {
+        HttpResponse<?> response = entityUtil.createGroup("PrimaryGroup");
+        assertEquals(OK, response.getStatus());
+        Optional<Group> groupOptional = response.getBody(Group.class);
+        assertTrue(groupOptional.isPresent());
+        return groupOptional.get();
+    }
+
+    private ApplicationDTO createApplication(String name, Long groupId) {
+        HttpResponse<?> response = entityUtil.createApplication(name, groupId);
+        assertEquals(OK, response.getStatus());
+        Optional<ApplicationDTO> applicationOptional = response.getBody(ApplicationDTO.class);
+        assertTrue(applicationOptional.isPresent());
+        return applicationOptional.get();
+    }
+
+    @Test
+    void keyPairBatchFailingPartWayEndsWithAnErrorLine() {
+        ApplicationDTO application = createApplication("ApplicationOne", createGroup().getId());
+        keyPairPool.failAfter(3);
+
+        List<String> nonces = IntStream.range(0, 20).mapToObj(i -> "nonce" + i).collect(Collectors.toList());
+        HttpRequest<?> request = HttpRequest.POST("/applications/key_pairs/" + application.getId(), nonces)
+                .accept(ClientCertificateBatchIssuer.NDJSON);
+        HttpResponse<String> response = blockingClient.exchange(request, String.class);
+        assertEquals(OK, response.getStatus());
+        Optional<String> bodyOptional = response.getBody(String.class);
+        assertTrue(bodyOptional.isPresent());
+
+        // key pairs are signed in parallel, so which nonce hits the failure first is not fixed
+        List<String> lines = bodyOptional.get().lines().collect(Collectors.toList());
+        assertTrue(lines.size() <= nonces.size());
+        String last = lines.get(lines.size() - 1);
+        assertTrue(last.startsWith("{\"error\":"));
+        assertFalse(last.contains("\"nonce\""));
+        for (int i = 0; i < lines.size() - 1; i++) {
+            assertTrue(lines.get(i).startsWith("{\"nonce\":\"" + nonces.get(i) + "\""));
+        }
+    }
+
+    @Test
+    void permissionsExportFailingPartWayIsATruncatedArchive() throws IOException {
+        Group group = createGroup();
+        createApplication("ApplicationOne", group.getId());
+        ApplicationDTO applicationTwo = createApplication("ApplicationTwo", group.getId());
+        createApplication("ApplicationThree", group.getId());
+
+        assertEquals(3, exportEntries(group.getId()));
+
+        applicationGrantGraphLoader.failFor(applicationTwo.getId());
+        assertThrows(ZipException.class, () -> exportEntries(group.getId()));
+    }
+
+    private int exportEntries(Long groupId) throws IOException {
+        HttpRequest<?> request = HttpRequest.GET("/applications/permissions_export/" + groupId + "?nonce=unity");
+        HttpResponse<byte[]> response = blockingClient.exchange(request, byte[].class);
+        assertEquals(OK, response.getStatus());
+        Optional<byte[]> bodyOptional = response.getBody(byte[].class);
+        assertTrue(bodyOptional.isPresent());
+
+        // ZipFile reads the central directory, which is only written once every entry made it into the archive
+        Path archive = Files.createTempFile("permissions", ".zip");
+        try {
+            Files.write(archive, bodyOptional.get());
+            try (ZipFile zip = new ZipFile(archive.toFile())) {
+                return zip.size();
+            }
+        } finally {
+            Files.delete(archive);
+        }
+    }
+}
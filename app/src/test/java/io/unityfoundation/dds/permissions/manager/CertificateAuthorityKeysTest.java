@@ -0,0 +1,62 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.security.CertificateAuthorityKeys;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+public class CertificateAuthorityKeysTest {
+    @Inject
+    CertificateAuthorityKeys certificateAuthorityKeys;
+
+    @Inject
+    MockApplicationSecretsClient mockApplicationSecretsClient;
+
+    @AfterEach
+    void resetEtag() {
+        mockApplicationSecretsClient.setEtag("abc");
+    }
+
+    @Test
+    void parsedKeysAreReusedUntilSecretETagChanges() throws Exception {
+        X509Certificate identityCACert = certificateAuthorityKeys.getIdentityCACert().orElseThrow();
+        PrivateKey identityCAKey = certificateAuthorityKeys.getIdentityCAKey().orElseThrow();
+        X509Certificate permissionsCACert = certificateAuthorityKeys.getPermissionsCACert().orElseThrow();
+        PrivateKey permissionsCAKey = certificateAuthorityKeys.getPermissionsCAKey().orElseThrow();
+
+        assertSame(identityCACert, certificateAuthorityKeys.getIdentityCACert().orElseThrow());
+        assertSame(identityCAKey, certificateAuthorityKeys.getIdentityCAKey().orElseThrow());
+        assertSame(permissionsCACert, certificateAuthorityKeys.getPermissionsCACert().orElseThrow());
+        assertSame(permissionsCAKey, certificateAuthorityKeys.getPermissionsCAKey().orElseThrow());
+
+        mockApplicationSecretsClient.setEtag("xyz");
+
+        X509Certificate reparsedCert = certificateAuthorityKeys.getIdentityCACert().orElseThrow();
+        PrivateKey reparsedKey = certificateAuthorityKeys.getPermissionsCAKey().orElseThrow();
+        assertNotSame(identityCACert, reparsedCert);
+        assertNotSame(permissionsCAKey, reparsedKey);
+        assertEquals(identityCACert, reparsedCert);
+        assertEquals(permissionsCAKey, reparsedKey);
+        assertSame(reparsedCert, certificateAuthorityKeys.getIdentityCACert().orElseThrow());
+    }
+}
@@ -0,0 +1,70 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.security.token.jwt.generator.JwtTokenGenerator;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.security.GrantTokenVerifier;
+import io.unityfoundation.dds.permissions.manager.testing.util.CacheMetrics;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static io.unityfoundation.dds.permissions.manager.testing.util.PublisherResults.collect;
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+public class GrantTokenVerifierTest {
+
+    @Inject
+    GrantTokenVerifier grantTokenVerifier;
+
+    @Inject
+    JwtTokenGenerator jwtTokenGenerator;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void verifiedTokensAreRemembered() {
+        String grantToken = jwtTokenGenerator.generateToken(Map.of(
+                "sub", "42",
+                "exp", Instant.now().plusSeconds(3600).getEpochSecond())).get();
+
+        assertEquals(List.of(42L), collect(grantTokenVerifier.verify(grantToken)));
+        double hits = hits();
+
+        assertEquals(List.of(42L), collect(grantTokenVerifier.verify(grantToken)));
+        assertEquals(hits + 1, hits());
+    }
+
+    @Test
+    void invalidTokensAreNotRemembered() {
+        String grantToken = jwtTokenGenerator.generateToken(Map.of("sub", "42")).get();
+        String tampered = grantToken.substring(0, grantToken.lastIndexOf('.') + 1) + "c2lnbmF0dXJl";
+
+        assertTrue(collect(grantTokenVerifier.verify(tampered)).isEmpty());
+        double hits = hits();
+        assertTrue(collect(grantTokenVerifier.verify(tampered)).isEmpty());
+        assertEquals(hits, hits());
+    }
+
+    private double hits() {
+        return CacheMetrics.hits(meterRegistry, GrantTokenVerifier.CACHE_NAME);
+    }
+}
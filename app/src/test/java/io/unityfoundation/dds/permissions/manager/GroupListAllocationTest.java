@@ -0,0 +1,179 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.security.utils.SecurityService;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.model.application.Application;
+import io.unityfoundation.dds.permissions.manager.model.application.ApplicationRepository;
+import io.unityfoundation.dds.permissions.manager.model.group.DetailedGroupDTO;
+import io.unityfoundation.dds.permissions.manager.model.group.Group;
+import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
+import io.unityfoundation.dds.permissions.manager.model.group.GroupService;
+import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
+import io.unityfoundation.dds.permissions.manager.model.topic.TopicKind;
+import io.unityfoundation.dds.permissions.manager.model.topic.TopicRepository;
+import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
+import io.unityfoundation.dds.permissions.manager.testing.util.DbCleanup;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "spec.name", value = "GroupListAllocationTest")
+public class GroupListAllocationTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GroupListAllocationTest.class);
+
+    private static final int GROUPS = 20;
+    private static final int TOPICS_PER_GROUP = 100;
+    private static final int APPLICATIONS_PER_GROUP = 20;
+
+    @Inject
+    GroupService groupService;
+
+    @Inject
+    GroupRepository groupRepository;
+
+    @Inject
+    TopicRepository topicRepository;
+
+    @Inject
+    ApplicationRepository applicationRepository;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    DbCleanup dbCleanup;
+
+    @Inject
+    MockSecurityService mockSecurityService;
+
+    @Requires(property = "spec.name", value = "GroupListAllocationTest")
+    @Replaces(SecurityService.class)
+    @Singleton
+    static class MockSecurityService extends SecurityServiceReplacement {
+    }
+
+    @BeforeEach
+    void setup() {
+        dbCleanup.cleanup();
+        userRepository.save(new User("montesm@test.test.com", true));
+        mockSecurityService.postConstruct();
+
+        for (int g = 0; g < GROUPS; g++) {
+            Group group = groupRepository.save(new Group(String.format("Group%02d", g)));
+            List<Topic> topics = new ArrayList<>();
+            for (int t = 0; t < TOPICS_PER_GROUP; t++) {
+                topics.add(new Topic("Topic" + t, TopicKind.B, "description of topic " + t, false, group));
+            }
+            topicRepository.saveAll(topics);
+            List<Application> applications = new ArrayList<>();
+            for (int a = 0; a < APPLICATIONS_PER_GROUP; a++) {
+                applications.add(new Application("Application" + a, group, "description of application " + a, false));
+            }
+            applicationRepository.saveAll(applications);
+        }
+    }
+
+    @Test
+    void loadingAGroupLeavesItsChildrenUnloaded() {
+        Group group = groupRepository.findByName("Group00").get();
+        assertFalse(entityManagerFactory.getPersistenceUnitUtil().isLoaded(group, "topics"));
+        assertFalse(entityManagerFactory.getPersistenceUnitUtil().isLoaded(group, "applications"));
+    }
+
+    @Test
+    void groupListPageRunsAFixedNumberOfStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        groupService.findAll(Pageable.from(0, 2), null);
+        long smallPage = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        groupService.findAll(Pageable.from(0, 10), null);
+        assertEquals(smallPage, statistics.getPrepareStatementCount());
+    }
+
+    // the eagerly fetched aggregate materialised every topic and application of the page's groups; the page
+    // must now cost less than loading just those children as entities
+    @Test
+    void groupListPageAllocatesLessThanItsChildEntities() {
+        Pageable pageable = Pageable.from(0, 10);
+        List<Long> groupIds = groupService.findAll(pageable, null).getContent().stream()
+                .map(DetailedGroupDTO::getId)
+                .collect(Collectors.toList());
+
+        long pageAllocated = allocatedPerRun(() -> groupService.findAll(pageable, null));
+        long childrenAllocated = allocatedPerRun(() -> groupIds.forEach(groupId -> {
+            topicRepository.findAllByPermissionsGroupId(groupId);
+            applicationRepository.findAllByPermissionsGroupId(groupId);
+        }));
+        LOG.info("Group list page of {} groups ({} topics, {} applications each): {} KB allocated; their child entities: {} KB",
+                groupIds.size(), TOPICS_PER_GROUP, APPLICATIONS_PER_GROUP, pageAllocated / 1024, childrenAllocated / 1024);
+
+        assertTrue(pageAllocated < childrenAllocated);
+
+        Page<DetailedGroupDTO> page = groupService.findAll(pageable, null);
+        assertEquals(GROUPS, page.getTotalSize());
+        assertEquals(10, page.getContent().size());
+        DetailedGroupDTO first = page.getContent().get(0);
+        assertEquals("Group00", first.getName());
+        assertEquals(TOPICS_PER_GROUP, first.getTopicCount());
+        assertEquals(TOPICS_PER_GROUP, first.getTopics().size());
+        assertEquals(APPLICATIONS_PER_GROUP, first.getApplicationCount());
+        assertEquals(APPLICATIONS_PER_GROUP, first.getApplications().size());
+        assertEquals(0, first.getGrantCount());
+        assertEquals(0, first.getMembershipCount());
+    }
+
+    private static long allocatedPerRun(Runnable run) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < 5; i++) {
+            run.run();
+        }
+
+        int iterations = 20;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            run.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / iterations;
+    }
+}
@@ -18,6 +18,7 @@ import io.micronaut.context.annotation.Replaces;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.data.model.Page;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
@@ -1339,6 +1340,56 @@ public class GroupMembershipApiTest {
             assertEquals(OK, response.getStatus());
         }
 
+        @Test
+        public void shouldNotResendUnchangedTokenInfo() {
+            mockSecurityService.postConstruct();
+            mockDPMIntrospectionController.setAuthentication(mockSecurityService.getAuthentication().get());
+
+            HttpRequest request;
+            HttpResponse response;
+
+            Group secondaryGroup = new Group("SecondaryGroup");
+            request = HttpRequest.POST("/groups/save", secondaryGroup);
+            response = blockingClient.exchange(request, Group.class);
+            assertEquals(OK, response.getStatus());
+            secondaryGroup = (Group) response.getBody(Group.class).get();
+
+            GroupUserDTO dto1 = new GroupUserDTO();
+            dto1.setPermissionsGroup(secondaryGroup.getId());
+            dto1.setEmail("jjones@test.test");
+            request = HttpRequest.POST("/group_membership", dto1);
+            response = blockingClient.exchange(request);
+            assertEquals(OK, response.getStatus());
+
+            loginAsNonAdmin();
+
+            request = HttpRequest.GET("/token_info");
+            response = blockingClient.exchange(request, Map.class);
+            assertEquals(OK, response.getStatus());
+            String etag = response.getHeaders().get(HttpHeaders.ETAG);
+            assertNotNull(etag);
+
+            request = HttpRequest.GET("/token_info").header(HttpHeaders.IF_NONE_MATCH, etag);
+            response = blockingClient.exchange(request);
+            assertEquals(NOT_MODIFIED, response.getStatus());
+
+            // renaming a group changes what its members are sent
+            mockSecurityService.postConstruct();
+            secondaryGroup.setName("RenamedGroup");
+            request = HttpRequest.POST("/groups/save", secondaryGroup);
+            response = blockingClient.exchange(request, Group.class);
+            assertEquals(OK, response.getStatus());
+
+            loginAsNonAdmin();
+
+            request = HttpRequest.GET("/token_info").header(HttpHeaders.IF_NONE_MATCH, etag);
+            response = blockingClient.exchange(request, Map.class);
+            assertEquals(OK, response.getStatus());
+            assertNotEquals(etag, response.getHeaders().get(HttpHeaders.ETAG));
+            List<Map> permissionsByGroup = (List<Map>) response.getBody(Map.class).get().get("permissionsByGroup");
+            assertEquals("RenamedGroup", permissionsByGroup.get(0).get("groupName"));
+        }
+
         @Test
         public void shouldHaveGroupPermissionsUpdatedIfAdminUpdatesMembership() {
             mockSecurityService.postConstruct();
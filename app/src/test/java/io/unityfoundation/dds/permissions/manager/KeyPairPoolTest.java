@@ -0,0 +1,57 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.security.KeyPairPool;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "permissions-manager.application.client-certificate.key-pair-pool.low-watermark", value = "2")
+@Property(name = "permissions-manager.application.client-certificate.key-pair-pool.high-watermark", value = "4")
+public class KeyPairPoolTest {
+    @Inject
+    KeyPairPool keyPairPool;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void keyPairsAreIssuedOnceAndRefilled() throws Exception {
+        Set<KeyPair> issued = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            KeyPair keyPair = keyPairPool.take();
+            assertTrue(issued.add(keyPair));
+            assertEquals(256, ((ECPublicKey) keyPair.getPublic()).getParams().getCurve().getField().getFieldSize());
+        }
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (keyPairPool.size() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(4, keyPairPool.size());
+        assertEquals(4.0, meterRegistry.get("permissions-manager.key-pair-pool.size").gauge().value());
+        assertTrue(meterRegistry.get("permissions-manager.key-pair-pool.generated").counter().count() >= 4);
+    }
+}
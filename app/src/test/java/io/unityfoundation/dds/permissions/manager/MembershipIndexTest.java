@@ -0,0 +1,92 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.model.group.Group;
+import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUser;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserRepository;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.MembershipChangedEvent;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.MembershipIndex;
+import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
+import io.unityfoundation.dds.permissions.manager.testing.util.CacheMetrics;
+import io.unityfoundation.dds.permissions.manager.testing.util.DbCleanup;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+public class MembershipIndexTest {
+    @Inject
+    MembershipIndex membershipIndex;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    GroupRepository groupRepository;
+
+    @Inject
+    GroupUserRepository groupUserRepository;
+
+    @Inject
+    DbCleanup dbCleanup;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        dbCleanup.cleanup();
+    }
+
+    @Test
+    void rolesAreIndexedUntilMembershipChanges() {
+        User user = userRepository.save(new User("jjones@test.test"));
+        Group groupOne = groupRepository.save(new Group("GroupOne"));
+        Group groupTwo = groupRepository.save(new Group("GroupTwo"));
+        GroupUser membership = new GroupUser(groupOne, user);
+        membership.setTopicAdmin(true);
+        membership = groupUserRepository.save(membership);
+
+        double hits = hits();
+        assertTrue(membershipIndex.hasRole(user.getId(), groupOne.getId(), MembershipIndex.MEMBER));
+        assertTrue(membershipIndex.hasRole(user.getId(), groupOne.getId(), MembershipIndex.TOPIC_ADMIN));
+        assertFalse(membershipIndex.hasRole(user.getId(), groupOne.getId(), MembershipIndex.GROUP_ADMIN));
+        assertFalse(membershipIndex.hasRole(user.getId(), groupTwo.getId(), MembershipIndex.MEMBER));
+        assertEquals(hits + 3, hits());
+
+        // changes made behind the index's back stay invisible until an event drops the entry
+        membership.setGroupAdmin(true);
+        groupUserRepository.update(membership);
+        groupUserRepository.save(new GroupUser(groupTwo, user));
+        assertFalse(membershipIndex.hasRole(user.getId(), groupOne.getId(), MembershipIndex.GROUP_ADMIN));
+
+        membershipIndex.onMembershipChanged(MembershipChangedEvent.forUser(user.getId()));
+        assertTrue(membershipIndex.hasRole(user.getId(), groupOne.getId(), MembershipIndex.GROUP_ADMIN));
+        assertTrue(membershipIndex.hasRole(user.getId(), groupTwo.getId(), MembershipIndex.MEMBER));
+
+        membershipIndex.onMembershipChanged(MembershipChangedEvent.forGroup(groupTwo.getId()));
+        assertEquals(0.0, meterRegistry.get("cache.size").tag("cache", MembershipIndex.CACHE_NAME).gauge().value());
+    }
+
+    private double hits() {
+        return CacheMetrics.hits(meterRegistry, MembershipIndex.CACHE_NAME);
+    }
+}
@@ -24,9 +24,9 @@ import java.util.Optional;
 public class MockApplicationSecretsClient extends ApplicationSecretsClient {
 
     private String etag = "abc";
-    private boolean hasCachedFileBeenUpdated = false;
 
     public MockApplicationSecretsClient() {
+        super(null);
     }
 
     public Optional<String> getIdentityCACert() {
@@ -173,10 +173,6 @@ public class MockApplicationSecretsClient extends ApplicationSecretsClient {
                 "-----END EC PRIVATE KEY-----\n");
     }
 
-    public boolean hasCachedFileBeenUpdated(String file) {
-        return this.hasCachedFileBeenUpdated;
-    }
-
     @Override
     public String getCorrespondingEtag(String file) {
         return this.etag;
@@ -185,8 +181,4 @@ public class MockApplicationSecretsClient extends ApplicationSecretsClient {
     public void setEtag(String etag) {
         this.etag = etag;
     }
-
-    public void setHasCachedFileBeenUpdated(boolean hasCachedFileBeenUpdated) {
-        this.hasCachedFileBeenUpdated = hasCachedFileBeenUpdated;
-    }
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import io.micronaut.context.env.Environment;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.async.annotation.SingleResult;
 import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MutableHttpResponse;
@@ -36,6 +37,7 @@ import io.micronaut.security.endpoints.introspection.IntrospectionResponse;
 import io.micronaut.security.rules.SecurityRule;
 import io.micronaut.security.token.validator.RefreshTokenValidator;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserService;
+import io.unityfoundation.dds.permissions.manager.security.DPMIntrospectionController;
 import org.reactivestreams.Publisher;
 
 import java.io.IOException;
@@ -90,10 +92,11 @@ public class MockDPMIntrospectionController {
     }
 
     private Publisher<MutableHttpResponse<?>> getIntrospectionAndValidResponse(Authentication authentication, HttpRequest<?> request) {
-        return Publishers.map(Publishers.map(processor.introspect(authentication, request), response -> {
+        String ifNoneMatch = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+        return Publishers.map(processor.introspect(authentication, request), response -> {
             groupUserService.checkUserValidity().forEach(response::addExtension);
-            return introspectionResponseAsJsonString(response);
-        }), HttpResponse::ok);
+            return DPMIntrospectionController.okOrNotModified(introspectionResponseAsJsonString(response), ifNoneMatch);
+        });
     }
 
     @NonNull
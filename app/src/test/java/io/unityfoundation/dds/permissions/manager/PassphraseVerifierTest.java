@@ -0,0 +1,85 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.exception.DPMException;
+import io.unityfoundation.dds.permissions.manager.security.BCryptPasswordEncoderService;
+import io.unityfoundation.dds.permissions.manager.security.PassphraseVerifier;
+import io.unityfoundation.dds.permissions.manager.testing.util.CacheMetrics;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "permissions-manager.application.passphrase.verification.threads", value = "1")
+@Property(name = "permissions-manager.application.passphrase.verification.queue-capacity", value = "1")
+@Property(name = "permissions-manager.application.passphrase.verification.cache.enabled", value = StringUtils.TRUE)
+public class PassphraseVerifierTest {
+    @Inject
+    PassphraseVerifier passphraseVerifier;
+
+    @Inject
+    BCryptPasswordEncoderService passwordEncoderService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void verifiedPassphrasesAreRememberedPerApplicationAndEncoding() {
+        String encoded = passwordEncoderService.encode("correct horse");
+
+        assertFalse(passphraseVerifier.verify(1L, "wrong horse", encoded).join());
+        assertTrue(passphraseVerifier.verify(1L, "correct horse", encoded).join());
+        double hits = hits();
+
+        assertTrue(passphraseVerifier.verify(1L, "correct horse", encoded).join());
+        assertEquals(hits + 1, hits());
+
+        // another application is hashed again, and a regenerated passphrase does not match the remembered one
+        assertTrue(passphraseVerifier.verify(2L, "correct horse", encoded).join());
+        assertEquals(hits + 1, hits());
+        assertFalse(passphraseVerifier.verify(1L, "correct horse", passwordEncoderService.encode("battery staple")).join());
+    }
+
+    @Test
+    void saturatedPoolRefusesVerifications() {
+        String encoded = passwordEncoderService.encode("correct horse");
+        List<CompletableFuture<Boolean>> accepted = new ArrayList<>();
+
+        DPMException exception = assertThrows(DPMException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                accepted.add(passphraseVerifier.verify(100L + i, "correct horse", encoded));
+            }
+        });
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getHttpStatus());
+        assertEquals(ResponseStatusCodes.APPLICATION_PASSPHRASE_VERIFICATION_BUSY, exception.getResponseStatusCode());
+        assertTrue(meterRegistry.get("permissions-manager.passphrase-verification.rejected").counter().count() >= 1);
+
+        accepted.forEach(future -> assertTrue(future.join()));
+    }
+
+    private double hits() {
+        return CacheMetrics.hits(meterRegistry, PassphraseVerifier.CACHE_NAME);
+    }
+}
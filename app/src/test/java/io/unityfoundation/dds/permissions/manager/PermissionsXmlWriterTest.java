@@ -0,0 +1,91 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.model.application.ApplicationService;
+import io.unityfoundation.dds.permissions.manager.model.application.PermissionsXmlWriter;
+import io.unityfoundation.dds.permissions.manager.model.application.TemplateService;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+public class PermissionsXmlWriterTest {
+    @Inject
+    PermissionsXmlWriter permissionsXmlWriter;
+
+    @Inject
+    TemplateService templateService;
+
+    @Test
+    void writesGoldenDocument() throws IOException {
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("subject", "CN=1234_unity,GN=App &amp; Co,SN=7");
+        dataModel.put("applicationId", 1234L);
+        dataModel.put("validStart", "2023-01-01T00:00:00Z");
+        dataModel.put("validEnd", "2023-01-03T00:00:00Z");
+        dataModel.put("domain", 1L);
+
+        List<ApplicationService.PubSubEntry> publishList = new ArrayList<>();
+        publishList.add(new ApplicationService.PubSubEntry(List.of("7.topic&lt;A&gt;", "7.topicB"),
+                List.of("partition1", "partition2"), "2023-01-01", "2023-02-01"));
+        publishList.add(new ApplicationService.PubSubEntry(List.of("7.topicC"), new ArrayList<>(), "2023-01-01", "2023-03-01"));
+        dataModel.put("publishes", publishList);
+
+        List<ApplicationService.PubSubEntry> subscribeList = new ArrayList<>();
+        subscribeList.add(new ApplicationService.PubSubEntry(List.of("7.topicB"), List.of("p&amp;3"), "2023-01-01", "2023-04-01"));
+        dataModel.put("subscribes", subscribeList);
+
+        String golden = readGolden("golden/permissions.xml");
+
+        // the template stays the reference for the document layout
+        assertEquals(golden, templateService.mergeDataAndTemplate(dataModel));
+        assertEquals(golden, permissionsXmlWriter.write(dataModel));
+        try (InputStream in = permissionsXmlWriter.writeDataSource(dataModel).getInputStream()) {
+            assertEquals(golden, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void writesSameDocumentAsTemplateWithoutRules() throws IOException {
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("subject", "CN=Alice,C=US");
+        dataModel.put("applicationId", 20L);
+        dataModel.put("validStart", "today");
+        dataModel.put("validEnd", "tomorrow");
+        dataModel.put("domain", 123L);
+        dataModel.put("publishes", new ArrayList<>());
+        dataModel.put("subscribes", new ArrayList<>());
+
+        String content = permissionsXmlWriter.write(dataModel);
+        assertTrue(content.contains("<grant name=\"application_20\">"));
+        assertFalse(content.contains("<publish>"));
+        assertFalse(content.contains("<subscribe>"));
+        assertEquals(templateService.mergeDataAndTemplate(dataModel), content);
+    }
+
+    private String readGolden(String resource) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            assertNotNull(in);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
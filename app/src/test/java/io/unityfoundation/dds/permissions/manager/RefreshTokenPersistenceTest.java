@@ -0,0 +1,206 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.errors.OauthErrorResponseException;
+import io.micronaut.security.token.event.RefreshTokenGeneratedEvent;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.model.user.User;
+import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
+import io.unityfoundation.dds.permissions.manager.model.user.UserRole;
+import io.unityfoundation.dds.permissions.manager.security.PermissionsManagerAuthenticationMapper;
+import io.unityfoundation.dds.permissions.manager.security.RefreshTokenPersistenceImpl;
+import io.unityfoundation.dds.permissions.manager.security.RefreshTokenSweeper;
+import io.unityfoundation.dds.permissions.manager.security.RefreshTokenWriter;
+import io.unityfoundation.dds.permissions.manager.testing.util.DbCleanup;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.unityfoundation.dds.permissions.manager.testing.util.PublisherResults.first;
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+@Property(name = "permissions-manager.refresh-token.write.flush-interval", value = "1h")
+@Property(name = "permissions-manager.refresh-token.write.max-attempts", value = "2")
+public class RefreshTokenPersistenceTest {
+
+    @Inject
+    RefreshTokenPersistenceImpl refreshTokenPersistence;
+
+    @Inject
+    RefreshTokenWriter refreshTokenWriter;
+
+    @Inject
+    RefreshTokenSweeper refreshTokenSweeper;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject
+    DbCleanup dbCleanup;
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setup() {
+        dbCleanup.cleanup();
+    }
+
+    @Test
+    void knownTokensAreServedFromMemory() {
+        String token = persist(Authentication.build("123", List.of(UserRole.APPLICATION.toString())));
+        assertEquals("123", first(refreshTokenPersistence.getAuthentication(token)).getName());
+        refreshTokenWriter.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals("123", first(refreshTokenPersistence.getAuthentication(token)).getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userAuthenticationIsRebuiltOncePermissionsChange() {
+        User user = userRepository.save(new User("jjones@test.test"));
+        String token = persist(Authentication.build(user.getEmail()));
+
+        Authentication authentication = first(refreshTokenPersistence.getAuthentication(token));
+        assertEquals(user.getPermissionsLastUpdated(), permissionsLastUpdated(authentication));
+        assertSame(authentication, first(refreshTokenPersistence.getAuthentication(token)));
+
+        Long bumped = user.getPermissionsLastUpdated() + 1000;
+        execute("UPDATE User u SET u.permissionsLastUpdated = :value WHERE u.id = :id", Map.of("value", bumped, "id", user.getId()));
+
+        Authentication rebuilt = first(refreshTokenPersistence.getAuthentication(token));
+        assertNotSame(authentication, rebuilt);
+        assertEquals(bumped, permissionsLastUpdated(rebuilt));
+    }
+
+    @Test
+    void revokedTokensAreRefusedOnceRevocationsAreRead() {
+        String token = persist(Authentication.build("123", List.of(UserRole.APPLICATION.toString())));
+        first(refreshTokenPersistence.getAuthentication(token));
+        refreshTokenWriter.flush();
+
+        execute("UPDATE RefreshToken t SET t.revoked = true WHERE t.refreshToken = :token", Map.of("token", token));
+        refreshTokenPersistence.refreshRevocations();
+
+        assertThrows(OauthErrorResponseException.class, () -> refreshTokenPersistence.getAuthentication(token));
+    }
+
+    @Test
+    void queuedTokensAreUsableBeforeTheyAreWritten() {
+        String token = persist(Authentication.build("123", List.of(UserRole.APPLICATION.toString())));
+        assertFalse(isStored(token));
+        assertEquals("123", first(refreshTokenPersistence.getAuthentication(token)).getName());
+
+        refreshTokenWriter.flush();
+        assertTrue(isStored(token));
+    }
+
+    @Test
+    void tokensThatKeepFailingToBeWrittenAreDropped() {
+        // a blank username fails validation on every write
+        String token = persist(Authentication.build(" "));
+
+        refreshTokenWriter.flush();
+        assertFalse(isStored(token));
+        refreshTokenWriter.flush();
+        assertFalse(isStored(token));
+
+        assertThrows(OauthErrorResponseException.class, () -> refreshTokenPersistence.getAuthentication(token));
+    }
+
+    @Test
+    void aFailingTokenDoesNotHoldBackTheRestOfItsBatch() {
+        String before = persist(Authentication.build("123", List.of(UserRole.APPLICATION.toString())));
+        String failing = persist(Authentication.build(" "));
+        String after = persist(Authentication.build("456", List.of(UserRole.APPLICATION.toString())));
+
+        refreshTokenWriter.flush();
+        assertTrue(isStored(before));
+        assertFalse(isStored(failing));
+        assertTrue(isStored(after));
+    }
+
+    @Test
+    void sweepDeletesExpiredTokensAndRevokedTokensSeenBefore() {
+        String expired = persist(Authentication.build("123", List.of(UserRole.APPLICATION.toString())));
+        String revoked = persist(Authentication.build("456", List.of(UserRole.APPLICATION.toString())));
+        String current = persist(Authentication.build("789", List.of(UserRole.APPLICATION.toString())));
+        refreshTokenWriter.flush();
+
+        execute("UPDATE RefreshToken t SET t.dateCreated = :dateCreated WHERE t.refreshToken = :token",
+                Map.of("dateCreated", Instant.now().minus(Duration.ofDays(365)), "token", expired));
+        execute("UPDATE RefreshToken t SET t.revoked = true WHERE t.refreshToken = :token", Map.of("token", revoked));
+
+        refreshTokenSweeper.sweep();
+        assertFalse(isStored(expired));
+        assertTrue(isStored(revoked));
+
+        refreshTokenSweeper.sweep();
+        assertFalse(isStored(revoked));
+        assertTrue(isStored(current));
+    }
+
+    private boolean isStored(String token) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("SELECT COUNT(t) FROM RefreshToken t WHERE t.refreshToken = :token", Long.class)
+                    .setParameter("token", token)
+                    .getSingleResult() > 0;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private String persist(Authentication authentication) {
+        String token = UUID.randomUUID().toString();
+        refreshTokenPersistence.persistToken(new RefreshTokenGeneratedEvent(authentication, token));
+        return token;
+    }
+
+    // bypasses the repositories so that neither @DateUpdated nor any event interferes
+    private void execute(String jpql, Map<String, Object> parameters) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            Query query = entityManager.createQuery(jpql);
+            parameters.forEach(query::setParameter);
+            query.executeUpdate();
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private Object permissionsLastUpdated(Authentication authentication) {
+        return authentication.getAttributes().get(PermissionsManagerAuthenticationMapper.PERMISSIONS_LAST_UPDATED_CLAIM);
+    }
+}
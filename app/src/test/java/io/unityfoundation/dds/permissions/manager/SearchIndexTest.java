@@ -0,0 +1,143 @@
+// Copyright 2023 DDS Permissions Manager Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.unityfoundation.dds.permissions.manager;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.unityfoundation.dds.permissions.manager.model.DPMEntity;
+import io.unityfoundation.dds.permissions.manager.model.group.Group;
+import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
+import io.unityfoundation.dds.permissions.manager.model.topic.Topic;
+import io.unityfoundation.dds.permissions.manager.model.topic.TopicKind;
+import io.unityfoundation.dds.permissions.manager.model.topic.TopicRepository;
+import io.unityfoundation.dds.permissions.manager.search.SearchDocument;
+import io.unityfoundation.dds.permissions.manager.search.SearchIndex;
+import io.unityfoundation.dds.permissions.manager.testing.util.DbCleanup;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+public class SearchIndexTest {
+
+    @Inject
+    SearchIndex searchIndex;
+
+    @Inject
+    GroupRepository groupRepository;
+
+    @Inject
+    TopicRepository topicRepository;
+
+    @Inject
+    DbCleanup dbCleanup;
+
+    @BeforeEach
+    void setup() {
+        dbCleanup.cleanup();
+        searchIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanup() {
+        searchIndex.invalidateAll();
+    }
+
+    @Test
+    void rebuildsFromPublicEntitiesOnly() {
+        Group publicGroup = groupRepository.save(new Group("Telemetry", "vehicle sensors", true));
+        groupRepository.save(new Group("TelemetryPrivate", "vehicle sensors", false));
+        topicRepository.save(new Topic("TelemetryTopic", TopicKind.B, "raw", true, publicGroup));
+
+        // written straight through the repositories, so only visible once the index is rebuilt
+        assertTrue(searchIndex.search(DPMEntity.GROUP, "telemetry").isEmpty());
+
+        searchIndex.invalidateAll();
+        assertEquals(List.of(publicGroup.getId()), ids(searchIndex.search(DPMEntity.GROUP, "telemetry")));
+        assertEquals(1, searchIndex.search(DPMEntity.TOPIC, "TELEMETRY").size());
+        assertTrue(searchIndex.search(DPMEntity.APPLICATION, "telemetry").isEmpty());
+    }
+
+    @Test
+    void ranksNameMatchesBeforeDescriptionMatches() {
+        searchIndex.index(DPMEntity.TOPIC, new SearchDocument(1L, "Vehicle status", "speed"));
+        searchIndex.index(DPMEntity.TOPIC, new SearchDocument(2L, "Speedometer", "dashboard"));
+        searchIndex.index(DPMEntity.TOPIC, new SearchDocument(3L, "Speed", null));
+        searchIndex.index(DPMEntity.TOPIC, new SearchDocument(4L, "Wind speed", "anemometer"));
+        searchIndex.index(DPMEntity.TOPIC, new SearchDocument(5L, "Heading", "compass"));
+
+        assertEquals(List.of(3L, 2L, 4L, 1L), ids(searchIndex.search(DPMEntity.TOPIC, "speed")));
+        // shorter than a trigram; "Speed" is now only a prefix match
+        assertEquals(List.of(2L, 3L, 4L, 1L), ids(searchIndex.search(DPMEntity.TOPIC, "sp")));
+        assertEquals(List.of(5L), ids(searchIndex.search(DPMEntity.TOPIC, "comp")));
+        assertTrue(searchIndex.search(DPMEntity.TOPIC, "speedy").isEmpty());
+    }
+
+    @Test
+    void followsUpdatesAndRemovals() {
+        Group group = new Group("Navigation", "charts", true);
+        group.setId(7L);
+        searchIndex.index(group);
+        assertEquals(List.of(7L), ids(searchIndex.search(DPMEntity.GROUP, "chart")));
+
+        group.setDescription("maps");
+        searchIndex.index(group);
+        assertTrue(searchIndex.search(DPMEntity.GROUP, "chart").isEmpty());
+        assertEquals(List.of(7L), ids(searchIndex.search(DPMEntity.GROUP, "maps")));
+
+        group.setMakePublic(false);
+        searchIndex.index(group);
+        assertTrue(searchIndex.search(DPMEntity.GROUP, "navigation").isEmpty());
+
+        searchIndex.index(DPMEntity.GROUP, new SearchDocument(8L, "Navigation", null));
+        searchIndex.remove(DPMEntity.GROUP, 8L);
+        assertTrue(searchIndex.search(DPMEntity.GROUP, "navigation").isEmpty());
+    }
+
+    @Test
+    void matchesTheSameDocumentsAsASubstringScan() {
+        String[] words = {"lidar", "radar", "camera", "gps", "imu", "sonar", "thermal", "odometry"};
+        List<SearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            documents.add(new SearchDocument(id, "Topic-" + id, words[(int) (id % words.length)] + " feed of vehicle " + (id % 97)));
+        }
+        documents.forEach(document -> searchIndex.index(DPMEntity.TOPIC, document));
+
+        List<String> queries = List.of("topic-424", "thermal", "vehicle 9", "odometry feed of vehicle 12", "-499", "ic-1");
+        for (String query : queries) {
+            List<Long> expected = documents.stream()
+                    .filter(document -> document.getName().toLowerCase(Locale.ROOT).contains(query)
+                            || document.getDescription().toLowerCase(Locale.ROOT).contains(query))
+                    .map(SearchDocument::getId)
+                    .sorted()
+                    .collect(Collectors.toList());
+            List<Long> actual = ids(searchIndex.search(DPMEntity.TOPIC, query)).stream().sorted().collect(Collectors.toList());
+            assertFalse(expected.isEmpty(), query);
+            assertEquals(expected, actual, query);
+        }
+
+        assertEquals(424L, searchIndex.search(DPMEntity.TOPIC, "topic-424").get(0).getId());
+    }
+
+    private static List<Long> ids(List<SearchDocument> documents) {
+        return documents.stream().map(SearchDocument::getId).collect(Collectors.toList());
+    }
+}
@@ -757,6 +757,89 @@ public class TopicApiTest {
             assertEquals(3, topicPage.get().getContent().size());
         }
 
+        @Test
+        void canPageFilteredTopicsWithinAGroup() {
+            List<Long> groupIds = new ArrayList<>();
+            for (String groupName : List.of("PagedGroup", "OtherGroup")) {
+                HttpResponse<Group> groupResponse = blockingClient.exchange(HttpRequest.POST("/groups/save", new Group(groupName)), Group.class);
+                assertEquals(OK, groupResponse.getStatus());
+                groupIds.add(groupResponse.getBody(Group.class).get().getId());
+            }
+
+            for (Long groupId : groupIds) {
+                for (String name : List.of("Match1", "Match2", "Match3", "Other")) {
+                    TopicDTO topicDTO = new TopicDTO();
+                    topicDTO.setName(name);
+                    topicDTO.setKind(TopicKind.B);
+                    topicDTO.setGroup(groupId);
+                    assertEquals(OK, blockingClient.exchange(HttpRequest.POST("/topics/save", topicDTO)).getStatus());
+                }
+            }
+
+            HttpResponse<Page> response = blockingClient.exchange(
+                    HttpRequest.GET("/topics?filter=match&group=" + groupIds.get(0) + "&size=2&page=1"), Page.class);
+            assertEquals(OK, response.getStatus());
+            Page page = response.getBody(Page.class).get();
+            assertEquals(3, page.getTotalSize());
+            assertEquals(1, page.getContent().size());
+            assertEquals("Match3", ((Map) page.getContent().get(0)).get("name"));
+        }
+
+        @Test
+        void canWalkTopicsWithACursor() {
+            Group cursorGroup = new Group("CursorGroup");
+            HttpRequest<?> request = HttpRequest.POST("/groups/save", cursorGroup);
+            HttpResponse<?> response = blockingClient.exchange(request, Group.class);
+            assertEquals(OK, response.getStatus());
+            Optional<Group> cursorGroupOptional = response.getBody(Group.class);
+            assertTrue(cursorGroupOptional.isPresent());
+            cursorGroup = cursorGroupOptional.get();
+
+            for (String name : List.of("Delta", "Alpha", "Charlie", "Bravo", "Echo")) {
+                TopicDTO topicDTO = new TopicDTO();
+                topicDTO.setName(name);
+                topicDTO.setKind(TopicKind.B);
+                topicDTO.setGroup(cursorGroup.getId());
+                response = blockingClient.exchange(HttpRequest.POST("/topics/save", topicDTO));
+                assertEquals(OK, response.getStatus());
+            }
+
+            // an empty cursor asks for the first page
+            List<String> names = new ArrayList<>();
+            String after = "";
+            int pages = 0;
+            do {
+                HttpResponse<Map> pageResponse = blockingClient.exchange(HttpRequest.GET("/topics/cursor?size=2&after=" + after), Map.class);
+                assertEquals(OK, pageResponse.getStatus());
+                Map page = pageResponse.getBody(Map.class).get();
+                assertFalse(page.containsKey("totalSize"));
+                ((List<Map>) page.get("content")).forEach(topic -> names.add((String) topic.get("name")));
+                after = (String) page.get("nextCursor");
+                pages++;
+            } while (after != null);
+
+            assertEquals(List.of("Alpha", "Bravo", "Charlie", "Delta", "Echo"), names);
+            assertEquals(3, pages);
+
+            HttpClientResponseException exception = assertThrowsExactly(HttpClientResponseException.class, () -> {
+                blockingClient.exchange(HttpRequest.GET("/topics/cursor?after=not-a-cursor"));
+            });
+            assertEquals(BAD_REQUEST, exception.getStatus());
+            Optional<List> bodyOptional = exception.getResponse().getBody(List.class);
+            assertTrue(bodyOptional.isPresent());
+            List<Map> list = bodyOptional.get();
+            assertTrue(list.stream().anyMatch(map -> ResponseStatusCodes.INVALID_CURSOR.equals(map.get("code"))));
+
+            exception = assertThrowsExactly(HttpClientResponseException.class, () -> {
+                blockingClient.exchange(HttpRequest.GET("/topics/cursor?size=0"));
+            });
+            assertEquals(BAD_REQUEST, exception.getStatus());
+            bodyOptional = exception.getResponse().getBody(List.class);
+            assertTrue(bodyOptional.isPresent());
+            list = bodyOptional.get();
+            assertTrue(list.stream().anyMatch(map -> ResponseStatusCodes.INVALID_PAGE_SIZE.equals(map.get("code"))));
+        }
+
         @Test
         void canListAllTopicsWithFilter(){
             // Group - Topics
@@ -49,6 +49,7 @@ import org.reactivestreams.Publisher;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static io.micronaut.http.HttpStatus.OK;
 import static org.junit.jupiter.api.Assertions.*;
@@ -345,4 +346,60 @@ class UniversalSearchApiTest {
             return type.equals(DPMEntity.TOPIC.name());
         }));
     }
+
+    @Test
+    void canPageThroughMergedResults() {
+        HttpRequest request;
+        HttpResponse response;
+
+        // browsing merges every type by name
+        request = HttpRequest.GET("/search?page=1&size=3");
+        response = blockingClient.exchange(request, Page.class);
+        assertEquals(OK, response.getStatus());
+        Page page = response.getBody(Page.class).get();
+        assertEquals(8, page.getTotalSize());
+        assertEquals(List.of("GroupOne", "GroupTwo", "TopicOne"), names(page));
+
+        request = HttpRequest.GET("/search?page=2&size=3");
+        response = blockingClient.exchange(request, Page.class);
+        assertEquals(List.of("TopicOne1", "TopicTwo"), names(response.getBody(Page.class).get()));
+
+        // queries merge by relevance, then groups, topics and applications
+        request = HttpRequest.GET("/search?query=two&page=0&size=3");
+        response = blockingClient.exchange(request, Page.class);
+        page = response.getBody(Page.class).get();
+        assertEquals(4, page.getTotalSize());
+        assertEquals(List.of("GroupTwo", "TopicTwo", "ApplicationTwo"), names(page));
+
+        request = HttpRequest.GET("/search?query=two&page=1&size=3");
+        response = blockingClient.exchange(request, Page.class);
+        assertEquals(List.of("ApplicationTwo1"), names(response.getBody(Page.class).get()));
+    }
+
+    @Test
+    void skipsIndexedEntitiesThatAreNoLongerPublic() {
+        HttpRequest request = HttpRequest.GET("/search?query=two");
+        HttpResponse response = blockingClient.exchange(request, Page.class);
+        assertEquals(List.of("GroupTwo", "TopicTwo", "ApplicationTwo", "ApplicationTwo1"), names(response.getBody(Page.class).get()));
+
+        // written straight through the repositories, so the index still holds them as public
+        Group groupTwo = groupRepository.findByName("GroupTwo").get();
+        groupTwo.setMakePublic(false);
+        groupRepository.update(groupTwo);
+        Topic topicTwo = topicRepository.findByNameAndPermissionsGroup("TopicTwo", groupTwo).get();
+        topicTwo.setMakePublic(false);
+        topicRepository.update(topicTwo);
+        Application applicationTwo = applicationRepository.findByNameAndPermissionsGroup("ApplicationTwo", groupTwo).get();
+        applicationTwo.setMakePublic(false);
+        applicationRepository.update(applicationTwo);
+
+        response = blockingClient.exchange(request, Page.class);
+        assertEquals(List.of("ApplicationTwo1"), names(response.getBody(Page.class).get()));
+    }
+
+    private static List<String> names(Page page) {
+        return ((List<Map>) page.getContent()).stream()
+                .map(map -> (String) ((Map) map.get("entity")).get("name"))
+                .collect(Collectors.toList());
+    }
 }
@@ -21,10 +21,13 @@ import io.unityfoundation.dds.permissions.manager.model.applicationpermission.Ap
 import io.unityfoundation.dds.permissions.manager.model.actioninterval.ActionIntervalRepository;
 import io.unityfoundation.dds.permissions.manager.model.group.GroupRepository;
 import io.unityfoundation.dds.permissions.manager.model.groupuser.GroupUserRepository;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.MembershipIndex;
+import io.unityfoundation.dds.permissions.manager.model.groupuser.UserAttributesCache;
 import io.unityfoundation.dds.permissions.manager.model.topic.TopicRepository;
 import io.unityfoundation.dds.permissions.manager.model.topicset.TopicSetRepository;
 import io.unityfoundation.dds.permissions.manager.model.topicsettopic.TopicSetTopicRepository;
 import io.unityfoundation.dds.permissions.manager.model.user.UserRepository;
+import io.unityfoundation.dds.permissions.manager.search.SearchIndex;
 import jakarta.inject.Singleton;
 
 import javax.transaction.Transactional;
@@ -43,11 +46,15 @@ public class DbCleanup {
     private final ActionRepository actionRepository;
     private final ActionTopicRepository actionTopicRepository;
     private final TopicSetTopicRepository topicSetTopicRepository;
+    private final MembershipIndex membershipIndex;
+    private final UserAttributesCache userAttributesCache;
+    private final SearchIndex searchIndex;
 
     public DbCleanup(TopicRepository topicRepository, GroupRepository groupRepository,
                      ApplicationRepository applicationRepository, UserRepository userRepository,
                      ApplicationPermissionRepository applicationPermissionRepository, GroupUserRepository groupUserRepository,
-                     TopicSetRepository topicSetRepository, ActionIntervalRepository actionIntervalRepository, ApplicationGrantRepository applicationGrantRepository, ActionRepository actionRepository, ActionTopicRepository actionTopicRepository, TopicSetTopicRepository topicSetTopicRepository) {
+                     TopicSetRepository topicSetRepository, ActionIntervalRepository actionIntervalRepository, ApplicationGrantRepository applicationGrantRepository, ActionRepository actionRepository, ActionTopicRepository actionTopicRepository, TopicSetTopicRepository topicSetTopicRepository,
+                     MembershipIndex membershipIndex, UserAttributesCache userAttributesCache, SearchIndex searchIndex) {
         this.topicRepository = topicRepository;
         this.groupRepository = groupRepository;
         this.applicationRepository = applicationRepository;
@@ -60,6 +67,9 @@ public class DbCleanup {
         this.actionRepository = actionRepository;
         this.actionTopicRepository = actionTopicRepository;
         this.topicSetTopicRepository = topicSetTopicRepository;
+        this.membershipIndex = membershipIndex;
+        this.userAttributesCache = userAttributesCache;
+        this.searchIndex = searchIndex;
     }
 
     @Transactional
@@ -76,5 +86,8 @@ public class DbCleanup {
         applicationRepository.deleteAll();
         groupRepository.deleteAll();
         userRepository.deleteAll();
+        membershipIndex.invalidateAll();
+        userAttributesCache.invalidateAll();
+        searchIndex.invalidateAll();
     }
 }
\ No newline at end of file